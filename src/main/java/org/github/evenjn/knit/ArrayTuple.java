@@ -1,6 +1,6 @@
 /**
  *
- * Copyright 2017 Marco Trevisan
+ * Copyright 2018 Marco Trevisan
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -13,29 +13,29 @@
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
  * See the License for the specific language governing permissions and
  * limitations under the License.
- * 
+ *
  */
 package org.github.evenjn.knit;
 
-import org.github.evenjn.yarn.Cursor;
-import org.github.evenjn.yarn.EndOfCursorException;
+import org.github.evenjn.yarn.Tuple;
 
-class NumberedCursor<I> implements
-		Cursor<Numbered<I>> {
+class ArrayTuple<T> implements
+		Tuple<T> {
 
-	private final Cursor<I> wrapped;
+	private final T[] array;
 
-	NumberedCursor(Cursor<I> cursor) {
-		wrapped = cursor;
+	public ArrayTuple(T[] array) {
+		this.array = array;
 	}
 
-	private int i;
+	@Override
+	public T get( int index ) {
+		return array[index];
+	}
 
 	@Override
-	public Numbered<I> next( )
-			throws EndOfCursorException {
-		I next = wrapped.next( );
-		return new NumberedImpl<I>( next, i++ );
+	public int size( ) {
+		return array.length;
 	}
 
 }
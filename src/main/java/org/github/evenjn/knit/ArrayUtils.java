@@ -19,15 +19,16 @@ package org.github.evenjn.knit;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import org.github.evenjn.lang.Rook;
-import org.github.evenjn.yarn.Tuple;
 import org.github.evenjn.yarn.Cursable;
 import org.github.evenjn.yarn.Cursor;
 import org.github.evenjn.yarn.EndOfCursorException;
 
 class ArrayCursor<T> implements
-		Cursor<T> {
+		BatchCursor<T>,
+		PushCursor<T> {
 
 	private final T[] array;
 
@@ -45,6 +46,22 @@ class ArrayCursor<T> implements
 		}
 		throw EndOfCursorException.neo();
 	}
+
+	@Override
+	public int nextBatch( Object[] buffer, int offset, int length ) {
+		int filled = Math.min( length, array.length - i );
+		System.arraycopy( array, i, buffer, offset, filled );
+		i += filled;
+		return filled;
+	}
+
+	@Override
+	public void forEachRemaining( Consumer<? super T> action ) {
+		while ( i < array.length ) {
+			action.accept( array[i++] );
+		}
+	}
+
 }
 
 class ArrayCursable<T> implements
@@ -101,24 +118,3 @@ class ArrayIterable<T> implements
 		return new ArrayIterator<>( array );
 	}
 }
-
-class ArrayTuple<T> implements
-		Tuple<T> {
-
-	private final T[] array;
-
-	public ArrayTuple(T[] array) {
-		this.array = array;
-	}
-
-	@Override
-	public T get( int index ) {
-		return array[index];
-	}
-
-	@Override
-	public int size( ) {
-		return array.length;
-	}
-
-}
@@ -0,0 +1,65 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+
+/*
+ * A cursor that can transfer many elements at once into a caller-supplied
+ * array.
+ * 
+ * nextBatch fills the slots from offset to offset + length (excluded) and
+ * returns the number of slots filled. A return value smaller than length
+ * means that the cursor reached its end: subsequent invocations of next()
+ * will throw EndOfCursorException and subsequent invocations of nextBatch
+ * will return 0.
+ */
+interface BatchCursor<T> extends
+		Cursor<T> {
+
+	static final int batch_size = 128;
+
+	int nextBatch( Object[] buffer, int offset, int length );
+
+	/*
+	 * Fills the argument buffer with elements from the argument cursor, using
+	 * the bulk transfer when the cursor supports it and falling back to next()
+	 * otherwise.
+	 */
+	static int nextBatch( Cursor<?> cursor, Object[] buffer, int offset,
+			int length ) {
+		if ( cursor instanceof BatchCursor ) {
+			return ( (BatchCursor<?>) cursor ).nextBatch( buffer, offset, length );
+		}
+		if ( cursor instanceof KnittingCursor ) {
+			return ( (KnittingCursor<?>) cursor ).private_next_batch( buffer, offset,
+					length );
+		}
+		int filled = 0;
+		try {
+			while ( filled < length ) {
+				buffer[offset + filled] = cursor.next( );
+				filled++;
+			}
+		}
+		catch ( EndOfCursorException e ) {
+		}
+		return filled;
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.github.evenjn.lang.Rook;
+import org.github.evenjn.yarn.Cursable;
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+
+/*
+ * Replays the elements of a source cursable from chunks of memory, shared by
+ * all the cursors pulled from this cursable.
+ * 
+ * A cursor reads the chunks in order. When it reaches a chunk that is not in
+ * memory, either because it has not been computed yet, because it was evicted,
+ * or because it is beyond the budget, the cursor pulls a new cursor from the
+ * source, skips the elements before the chunk, and reads the rest of the
+ * source directly, storing the chunks it completes along the way.
+ * 
+ * Without a budget, chunks are held through soft references, so that the
+ * garbage collector may evict them under memory pressure. With a budget,
+ * chunks are held strongly, but only the chunks within the first
+ * max_elements elements, rounded up to a whole number of chunks, are stored.
+ * 
+ * The last chunk is trimmed to the number of elements it holds. When the last
+ * chunk is full, the end is recorded by an empty chunk after it.
+ */
+class CachedCursable<K> implements
+		Cursable<K> {
+
+	static final int chunk_size = 1024;
+
+	private static final Object[] no_elements = new Object[0];
+
+	private final Cursable<K> source;
+
+	private final int max_chunks;
+
+	private final boolean soft;
+
+	private final ArrayList<Object> chunks = new ArrayList<>( );
+
+	CachedCursable(Cursable<K> source) {
+		this.source = source;
+		this.max_chunks = Integer.MAX_VALUE;
+		this.soft = true;
+	}
+
+	CachedCursable(Cursable<K> source, int max_elements) {
+		this.source = source;
+		this.max_chunks =
+				(int) ( ( (long) max_elements + chunk_size - 1 ) / chunk_size );
+		this.soft = false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private synchronized Object[] chunk( int index ) {
+		if ( index >= chunks.size( ) ) {
+			return null;
+		}
+		Object stored = chunks.get( index );
+		if ( stored instanceof SoftReference ) {
+			return ( (SoftReference<Object[]>) stored ).get( );
+		}
+		return (Object[]) stored;
+	}
+
+	private synchronized void store( int index, Object[] chunk ) {
+		if ( index >= max_chunks ) {
+			return;
+		}
+		while ( chunks.size( ) <= index ) {
+			chunks.add( null );
+		}
+		chunks.set( index, soft ? new SoftReference<>( chunk ) : chunk );
+	}
+
+	@Override
+	public Cursor<K> pull( Rook rook ) {
+		return new CachedCursor( rook );
+	}
+
+	private class CachedCursor implements
+			Cursor<K> {
+
+		private final Rook rook;
+
+		private int chunk_index = 0;
+
+		private Object[] chunk = null;
+
+		private int offset = 0;
+
+		private Cursor<K> live = null;
+
+		private boolean end = false;
+
+		CachedCursor(Rook rook) {
+			this.rook = rook;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public K next( )
+				throws EndOfCursorException {
+			if ( live != null ) {
+				return nextLive( );
+			}
+			if ( chunk != null && offset == chunk.length ) {
+				if ( chunk.length < chunk_size ) {
+					throw EndOfCursorException.neo( );
+				}
+				chunk_index++;
+				chunk = null;
+			}
+			if ( chunk == null ) {
+				chunk = chunk( chunk_index );
+				offset = 0;
+				if ( chunk == null ) {
+					goLive( );
+					return nextLive( );
+				}
+				if ( chunk.length == 0 ) {
+					throw EndOfCursorException.neo( );
+				}
+			}
+			return (K) chunk[offset++];
+		}
+
+		private void goLive( )
+				throws EndOfCursorException {
+			live = source.pull( rook );
+			long skip = (long) chunk_index * chunk_size;
+			for ( long i = 0; i < skip; i++ ) {
+				live.next( );
+			}
+			chunk = new Object[chunk_size];
+			offset = 0;
+		}
+
+		private K nextLive( )
+				throws EndOfCursorException {
+			if ( end ) {
+				throw EndOfCursorException.neo( );
+			}
+			if ( offset == chunk_size ) {
+				store( chunk_index++, chunk );
+				chunk = new Object[chunk_size];
+				offset = 0;
+			}
+			K element;
+			try {
+				element = live.next( );
+			}
+			catch ( EndOfCursorException e ) {
+				end = true;
+				store( chunk_index, offset == 0 ? no_elements : Arrays.copyOf( chunk,
+						offset ) );
+				chunk = null;
+				throw e;
+			}
+			chunk[offset++] = element;
+			return element;
+		}
+	}
+}
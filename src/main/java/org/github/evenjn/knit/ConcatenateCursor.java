@@ -17,11 +17,14 @@
  */
 package org.github.evenjn.knit;
 
+import java.util.function.Consumer;
+
 import org.github.evenjn.yarn.Cursor;
 import org.github.evenjn.yarn.EndOfCursorException;
 
 class ConcatenateCursor<I> implements
-		Cursor<I> {
+		BatchCursor<I>,
+		PushCursor<I> {
 
 	private final Cursor<? extends I> head;
 
@@ -48,4 +51,27 @@ class ConcatenateCursor<I> implements
 		return tail.next( );
 	}
 
+	@Override
+	public int nextBatch( Object[] buffer, int offset, int length ) {
+		int filled = 0;
+		if ( in_head ) {
+			filled = BatchCursor.nextBatch( head, buffer, offset, length );
+			if ( filled == length ) {
+				return filled;
+			}
+			in_head = false;
+		}
+		return filled
+				+ BatchCursor.nextBatch( tail, buffer, offset + filled, length - filled );
+	}
+
+	@Override
+	public void forEachRemaining( Consumer<? super I> action ) {
+		if ( in_head ) {
+			PushCursor.forEachRemaining( head, action );
+			in_head = false;
+		}
+		PushCursor.forEachRemaining( tail, action );
+	}
+
 }
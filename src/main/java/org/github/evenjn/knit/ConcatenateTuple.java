@@ -0,0 +1,266 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.github.evenjn.yarn.Tuple;
+
+/*
+ * A flat concatenation of tuples.
+ * 
+ * Concatenating a concatenation splices its parts instead of nesting it, so
+ * that however a concatenation is built, get(int) costs a binary search over
+ * the offsets of the parts, plus one call on the part. The sizes of the parts
+ * are read once, at construction. Empty parts are dropped.
+ * 
+ * The parts live in a range of arrays that may be shared with other
+ * concatenations. The arrays have spare room on both sides, and the spine
+ * records the range of slots in use. A concatenation that ends where the
+ * used range ends writes new parts in place after its own, and likewise at
+ * the start, so that building a concatenation by repeated append or prepend
+ * takes amortized constant time per invocation. Any other concatenation
+ * copies its parts into new arrays. Slots outside the range of a
+ * concatenation are never read by it, so sharing is safe.
+ * 
+ * Sequential access is the common case, so get(int) first tries the part
+ * that served the previous invocation.
+ */
+class ConcatenateTuple<K> implements
+		Tuple<K> {
+
+	/*
+	 * The range of slots in use in a pair of arrays. It is also the lock that
+	 * guards writes to the arrays.
+	 */
+	private static final class Spine {
+
+		private int low;
+
+		private int high;
+
+		private Spine(int low, int high) {
+			this.low = low;
+			this.high = high;
+		}
+	}
+
+	private final Tuple<K>[] parts;
+
+	/*
+	 * offsets[p] is the position of the first element of parts[p], and
+	 * offsets[p + 1] the position after its last element. Positions are
+	 * relative to an arbitrary origin shared by the spine.
+	 */
+	private final long[] offsets;
+
+	private final int start;
+
+	private final int end;
+
+	private final Spine spine;
+
+	private int last;
+
+	private ConcatenateTuple(Tuple<K>[] parts, long[] offsets, int start,
+			int end, Spine spine) {
+		this.parts = parts;
+		this.offsets = offsets;
+		this.start = start;
+		this.end = end;
+		this.spine = spine;
+		this.last = start;
+	}
+
+	private static <K> void addParts( ArrayList<Tuple<K>> parts,
+			Tuple<K> tuple ) {
+		if ( tuple instanceof ConcatenateTuple ) {
+			ConcatenateTuple<K> concatenation = (ConcatenateTuple<K>) tuple;
+			parts.addAll( Arrays.asList( concatenation.parts ).subList(
+					concatenation.start, concatenation.end ) );
+		}
+		else if ( tuple.size( ) > 0 ) {
+			parts.add( tuple );
+		}
+	}
+
+	static <K> Tuple<K> concatenate( Tuple<K> head, Tuple<K> tail ) {
+		if ( head instanceof ConcatenateTuple ) {
+			ArrayList<Tuple<K>> more = new ArrayList<>( );
+			addParts( more, tail );
+			return ( (ConcatenateTuple<K>) head ).extend( more, true );
+		}
+		if ( tail instanceof ConcatenateTuple ) {
+			ArrayList<Tuple<K>> more = new ArrayList<>( );
+			addParts( more, head );
+			return ( (ConcatenateTuple<K>) tail ).extend( more, false );
+		}
+		ArrayList<Tuple<K>> parts = new ArrayList<>( );
+		addParts( parts, head );
+		addParts( parts, tail );
+		return of( parts, head );
+	}
+
+	/*
+	 * Returns the concatenation of the argument parts, which are non-empty, or
+	 * the argument empty tuple when there are no parts.
+	 */
+	private static <K> Tuple<K> of( ArrayList<Tuple<K>> parts,
+			Tuple<K> empty ) {
+		if ( parts.isEmpty( ) ) {
+			return empty.size( ) == 0 ? empty : new Subtuple<>( empty, 0, 0 );
+		}
+		if ( parts.size( ) == 1 ) {
+			return parts.get( 0 );
+		}
+		long size = 0;
+		for ( Tuple<K> part : parts ) {
+			size += part.size( );
+		}
+		if ( size > Integer.MAX_VALUE ) {
+			throw new IllegalArgumentException( "concatenation too large" );
+		}
+		Tuple<K>[] array = allocate( parts.size( ) );
+		long[] offsets = new long[array.length + 1];
+		write( array, offsets, 0, parts, true );
+		return new ConcatenateTuple<K>( array, offsets, 0, array.length,
+				new Spine( 0, array.length ) );
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K> Tuple<K>[] allocate( int length ) {
+		return (Tuple<K>[]) new Tuple<?>[length];
+	}
+
+	/*
+	 * Returns the concatenation of the argument parts after this one when
+	 * after is true, before this one otherwise.
+	 */
+	private Tuple<K> extend( ArrayList<Tuple<K>> more, boolean after ) {
+		if ( more.isEmpty( ) ) {
+			return this;
+		}
+		int count = end - start;
+		long size = offsets[end] - offsets[start];
+		for ( Tuple<K> part : more ) {
+			size += part.size( );
+		}
+		if ( size > Integer.MAX_VALUE ) {
+			throw new IllegalArgumentException( "concatenation too large" );
+		}
+		int needed = count + more.size( );
+		synchronized ( spine ) {
+			if ( after && spine.high == end && needed <= parts.length - start ) {
+				write( parts, offsets, end, more, true );
+				spine.high = start + needed;
+				return new ConcatenateTuple<K>( parts, offsets, start,
+						start + needed, spine );
+			}
+			if ( !after && spine.low == start && needed <= end ) {
+				write( parts, offsets, start, more, false );
+				spine.low = end - needed;
+				return new ConcatenateTuple<K>( parts, offsets, end - needed, end,
+						spine );
+			}
+		}
+		int capacity = Math.max( needed, 2 * count );
+		int first = after ? 0 : capacity - count;
+		Tuple<K>[] grown = allocate( capacity );
+		System.arraycopy( parts, start, grown, first, count );
+		long[] grown_offsets = new long[capacity + 1];
+		System.arraycopy( offsets, start, grown_offsets, first, count + 1 );
+		if ( after ) {
+			write( grown, grown_offsets, count, more, true );
+			return new ConcatenateTuple<K>( grown, grown_offsets, 0, needed,
+					new Spine( 0, needed ) );
+		}
+		write( grown, grown_offsets, capacity - count, more, false );
+		return new ConcatenateTuple<K>( grown, grown_offsets,
+				capacity - needed, capacity,
+				new Spine( capacity - needed, capacity ) );
+	}
+
+	/*
+	 * Writes the argument parts into the arrays, after the argument slot when
+	 * after is true, before it otherwise. The offset at the argument slot must
+	 * be set already.
+	 */
+	private static <K> void write( Tuple<K>[] parts, long[] offsets, int slot,
+			ArrayList<Tuple<K>> more, boolean after ) {
+		if ( after ) {
+			for ( Tuple<K> part : more ) {
+				parts[slot] = part;
+				offsets[slot + 1] = offsets[slot] + part.size( );
+				slot++;
+			}
+		}
+		else {
+			for ( int p = more.size( ) - 1; p >= 0; p-- ) {
+				Tuple<K> part = more.get( p );
+				slot--;
+				parts[slot] = part;
+				offsets[slot] = offsets[slot + 1] - part.size( );
+			}
+		}
+	}
+
+	private int part( int index ) {
+		long position = offsets[start] + index;
+		int p = last;
+		if ( position >= offsets[p] && position < offsets[p + 1] ) {
+			return p;
+		}
+		p = Arrays.binarySearch( offsets, start, end, position );
+		if ( p < 0 ) {
+			p = -p - 2;
+		}
+		last = p;
+		return p;
+	}
+
+	/*
+	 * Returns a concatenation of the parts overlapping the argument range, with
+	 * the first and the last part restricted to the range.
+	 */
+	Tuple<K> sub( int from, int length ) {
+		ArrayList<Tuple<K>> result = new ArrayList<>( );
+		long low = offsets[start] + from;
+		long high = low + length;
+		for ( int p = part( from ); p < end && offsets[p] < high; p++ ) {
+			int begin = (int) ( Math.max( low, offsets[p] ) - offsets[p] );
+			int stop = (int) ( Math.min( high, offsets[p + 1] ) - offsets[p] );
+			result.add( Subtuple.sub( parts[p], begin, stop - begin ) );
+		}
+		return of( result, this );
+	}
+
+	@Override
+	public K get( int index ) {
+		if ( index < 0 || index >= size( ) ) {
+			throw new IllegalArgumentException( );
+		}
+		int p = part( index );
+		return parts[p].get( (int) ( offsets[start] + index - offsets[p] ) );
+	}
+
+	@Override
+	public int size( ) {
+		return (int) ( offsets[end] - offsets[start] );
+	}
+}
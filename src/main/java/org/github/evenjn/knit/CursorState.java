@@ -0,0 +1,57 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+/*
+ * The pristine, used and locked states of the primitive knitting cursors,
+ * which follow the protocol of KnittingCursor.
+ * 
+ * A cursor enters the used state when it is accessed as a simple cursor, and
+ * the locked state when a rolling or transformation method is invoked. The
+ * two are exclusive, and the checks and messages live here so that the
+ * cursors for int, long and double values cannot drift apart.
+ */
+final class CursorState {
+
+	private boolean used = false;
+
+	private boolean locked = false;
+
+	/*
+	 * Enters the locked state, or throws an IllegalStateException when the
+	 * cursor is not in pristine state.
+	 */
+	void lock( ) {
+		if ( used || locked ) {
+			throw new IllegalStateException(
+					"This cursor is not in pristine state." );
+		}
+		locked = true;
+	}
+
+	/*
+	 * Enters the used state, or throws an IllegalStateException when the
+	 * cursor is in locked state.
+	 */
+	void use( ) {
+		if ( locked ) {
+			throw new IllegalStateException( "This cursor has been locked." );
+		}
+		used = true;
+	}
+}
@@ -0,0 +1,280 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.github.evenjn.lang.Rook;
+import org.github.evenjn.yarn.Cursable;
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+
+/*
+ * Stores the elements of a source cursable in a temporary file the first time
+ * a cursor pulled from this cursable reaches the end, and replays them from
+ * the file afterwards.
+ * 
+ * Only one cursor at a time writes the file. Cursors pulled while the file is
+ * being written read the source directly. A writing cursor that is closed
+ * before reaching the end discards the file, so that the next cursor writes
+ * it again.
+ * 
+ * Files up to Integer.MAX_VALUE bytes are read through a memory mapping;
+ * larger files are read through a buffered channel stream.
+ * 
+ * The file is deleted when the rook this cursable is hooked to is closed.
+ */
+class DiskCachedCursable<K> implements
+		Cursable<K>,
+		AutoCloseable {
+
+	private static final int buffer_size = 1 << 16;
+
+	private final Cursable<K> source;
+
+	private final ElementSerializer<K> serializer;
+
+	private Path file = null;
+
+	private long count = 0;
+
+	private boolean complete = false;
+
+	private boolean writing = false;
+
+	private boolean closed = false;
+
+	DiskCachedCursable(Rook rook,
+			Cursable<K> source,
+			ElementSerializer<K> serializer) {
+		this.source = source;
+		this.serializer = serializer;
+		rook.hook( this );
+	}
+
+	@Override
+	public synchronized Cursor<K> pull( Rook rook ) {
+		if ( closed ) {
+			throw new IllegalStateException( "The cache has been closed." );
+		}
+		try {
+			if ( complete ) {
+				return rook.hook( new ReadingCursor( file, count ) );
+			}
+			if ( writing ) {
+				return source.pull( rook );
+			}
+			writing = true;
+			file = Files.createTempFile( "knit", ".cache" );
+			return rook.hook( new WritingCursor( file, source.pull( rook ) ) );
+		}
+		catch ( IOException e ) {
+			writing = false;
+			delete( );
+			throw new UncheckedIOException( e );
+		}
+	}
+
+	private synchronized void written( boolean success, long count ) {
+		writing = false;
+		if ( success && !closed ) {
+			this.count = count;
+			this.complete = true;
+		}
+		else {
+			delete( );
+		}
+	}
+
+	private void delete( ) {
+		if ( file != null ) {
+			try {
+				Files.deleteIfExists( file );
+			}
+			catch ( IOException e ) {
+				throw new UncheckedIOException( e );
+			}
+			file = null;
+		}
+	}
+
+	@Override
+	public synchronized void close( ) {
+		closed = true;
+		complete = false;
+		if ( !writing ) {
+			delete( );
+		}
+	}
+
+	private class WritingCursor implements
+			Cursor<K>,
+			AutoCloseable {
+
+		private final Cursor<K> cursor;
+
+		private final DataOutputStream output;
+
+		private long written = 0;
+
+		private boolean done = false;
+
+		WritingCursor(Path file, Cursor<K> cursor) throws IOException {
+			this.cursor = cursor;
+			this.output = new DataOutputStream( new BufferedOutputStream(
+					Channels.newOutputStream( FileChannel.open( file,
+							StandardOpenOption.WRITE ) ),
+					buffer_size ) );
+		}
+
+		@Override
+		public K next( )
+				throws EndOfCursorException {
+			if ( done ) {
+				throw EndOfCursorException.neo( );
+			}
+			K element;
+			try {
+				element = cursor.next( );
+			}
+			catch ( EndOfCursorException e ) {
+				finish( true );
+				throw e;
+			}
+			try {
+				serializer.write( element, output );
+			}
+			catch ( IOException e ) {
+				finish( false );
+				throw new UncheckedIOException( e );
+			}
+			written++;
+			return element;
+		}
+
+		private void finish( boolean success ) {
+			if ( done ) {
+				return;
+			}
+			done = true;
+			try {
+				output.close( );
+			}
+			catch ( IOException e ) {
+				success = false;
+			}
+			written( success, written );
+		}
+
+		@Override
+		public void close( ) {
+			finish( false );
+		}
+	}
+
+	private class ReadingCursor implements
+			Cursor<K>,
+			AutoCloseable {
+
+		private final FileChannel channel;
+
+		private final DataInputStream input;
+
+		private long remaining;
+
+		ReadingCursor(Path file, long count) throws IOException {
+			this.channel = FileChannel.open( file, StandardOpenOption.READ );
+			this.remaining = count;
+			long size = channel.size( );
+			if ( size <= Integer.MAX_VALUE ) {
+				ByteBuffer mapped =
+						channel.map( FileChannel.MapMode.READ_ONLY, 0, size );
+				this.input = new DataInputStream( new ByteBufferInputStream( mapped ) );
+			}
+			else {
+				this.input = new DataInputStream( new BufferedInputStream(
+						Channels.newInputStream( channel ), buffer_size ) );
+			}
+		}
+
+		@Override
+		public K next( )
+				throws EndOfCursorException {
+			if ( remaining == 0 ) {
+				throw EndOfCursorException.neo( );
+			}
+			remaining--;
+			try {
+				return serializer.read( input );
+			}
+			catch ( IOException e ) {
+				throw new UncheckedIOException( e );
+			}
+		}
+
+		@Override
+		public void close( ) {
+			try {
+				channel.close( );
+			}
+			catch ( IOException e ) {
+				throw new UncheckedIOException( e );
+			}
+		}
+	}
+
+	private static final class ByteBufferInputStream extends
+			InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read( ) {
+			return buffer.hasRemaining( ) ? buffer.get( ) & 0xff : -1;
+		}
+
+		@Override
+		public int read( byte[] bytes, int offset, int length ) {
+			if ( length == 0 ) {
+				return 0;
+			}
+			if ( !buffer.hasRemaining( ) ) {
+				return -1;
+			}
+			int read = Math.min( length, buffer.remaining( ) );
+			buffer.get( bytes, offset, read );
+			return read;
+		}
+	}
+}
@@ -1,12 +1,13 @@
 package org.github.evenjn.knit;
 
 import java.util.HashSet;
+import java.util.function.Consumer;
 
 import org.github.evenjn.yarn.Cursor;
 import org.github.evenjn.yarn.EndOfCursorException;
 
 class DistinctNonEqualCursor<I> implements
-		Cursor<I> {
+		PushCursor<I> {
 
 	private final Cursor<I> wrapped;
 
@@ -28,4 +29,13 @@ class DistinctNonEqualCursor<I> implements
 		}
 	}
 
+	@Override
+	public void forEachRemaining( Consumer<? super I> action ) {
+		PushCursor.forEachRemaining( wrapped, next -> {
+			if ( set.add( next ) ) {
+				action.accept( next );
+			}
+		} );
+	}
+
 }
@@ -0,0 +1,55 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import org.github.evenjn.yarn.EndOfCursorException;
+
+/**
+ * <p>
+ * A {@code DoubleCursor} provides access to a sequence of {@code double} values
+ * without boxing them.
+ * </p>
+ * 
+ * <p>
+ * It is the primitive counterpart of {@link org.github.evenjn.yarn.Cursor
+ * Cursor}: the end of the sequence is signalled by
+ * {@link org.github.evenjn.yarn.EndOfCursorException EndOfCursorException}.
+ * </p>
+ * 
+ * <p>
+ * This interface is part of package {@link org.github.evenjn.knit Knit}.
+ * </p>
+ * 
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface DoubleCursor {
+
+	/**
+	 * <p>
+	 * {@code next} returns the next value in the sequence.
+	 * </p>
+	 * 
+	 * @return the next value in the sequence.
+	 * @throws EndOfCursorException
+	 *           when there are no more values to retrieve.
+	 * @since 1.0
+	 */
+	double next( )
+			throws EndOfCursorException;
+}
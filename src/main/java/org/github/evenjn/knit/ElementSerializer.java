@@ -0,0 +1,71 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * An {@code ElementSerializer} writes elements to a binary output and reads
+ * them back.
+ * 
+ * <p>
+ * {@link #read(DataInput)} must read exactly the bytes written by
+ * {@link #write(Object, DataOutput)}, so that elements written one after the
+ * other can be read back in the same order.
+ * </p>
+ *
+ * @param <K>
+ *          The type of elements serialized.
+ * @since 1.0
+ */
+public interface ElementSerializer<K> {
+
+	/**
+	 * <p>
+	 * Writes the argument element to the argument output.
+	 * </p>
+	 * 
+	 * @param element
+	 *          The element to write.
+	 * @param output
+	 *          The output to write to.
+	 * @throws IOException
+	 *           when writing fails.
+	 * @since 1.0
+	 */
+	public void write( K element, DataOutput output )
+			throws IOException;
+
+	/**
+	 * <p>
+	 * Reads an element from the argument input.
+	 * </p>
+	 * 
+	 * @param input
+	 *          The input to read from.
+	 * @return The element read.
+	 * @throws IOException
+	 *           when reading fails.
+	 * @since 1.0
+	 */
+	public K read( DataInput input )
+			throws IOException;
+
+}
@@ -0,0 +1,190 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+
+/*
+ * A chain of stages (map, filter, peek, numbered) evaluated in a single loop
+ * over the source cursor, so that a pipeline of N such stages costs one
+ * virtual next() per element instead of N.
+ * 
+ * Adding a stage to a fused cursor produces a new fused cursor on the same
+ * source, sharing the stages of the old one, including the counter of a
+ * numbered stage. This does not check whether the old cursor has been used:
+ * it is safe only because KnittingCursor.lock() makes the old cursor unusable
+ * before the new one is created, so that the shared source and counters are
+ * only ever advanced through the new cursor.
+ */
+class FusedCursor<O> implements
+		BatchCursor<O>,
+		PushCursor<O> {
+
+	private static final int MAP = 0;
+
+	private static final int FILTER = 1;
+
+	private static final int PEEK = 2;
+
+	private static final int NUMBERED = 3;
+
+	private static final Object rejected = new Object( );
+
+	private static final class Stage {
+
+		private final int kind;
+
+		private final Function<Object, Object> function;
+
+		private final Predicate<Object> predicate;
+
+		private final Consumer<Object> consumer;
+
+		private int counter = 0;
+
+		@SuppressWarnings("unchecked")
+		private Stage(int kind,
+				Function<?, ?> function,
+				Predicate<?> predicate,
+				Consumer<?> consumer) {
+			this.kind = kind;
+			this.function = (Function<Object, Object>) function;
+			this.predicate = (Predicate<Object>) predicate;
+			this.consumer = (Consumer<Object>) consumer;
+		}
+	}
+
+	private final Cursor<?> source;
+
+	private final Stage[] stages;
+
+	private FusedCursor(Cursor<?> source, Stage[] stages) {
+		this.source = source;
+		this.stages = stages;
+	}
+
+	private static <O> FusedCursor<O> then( Cursor<?> cursor, Stage stage ) {
+		if ( cursor instanceof FusedCursor ) {
+			FusedCursor<?> fused = (FusedCursor<?>) cursor;
+			Stage[] stages = Arrays.copyOf( fused.stages, fused.stages.length + 1 );
+			stages[fused.stages.length] = stage;
+			return new FusedCursor<>( fused.source, stages );
+		}
+		return new FusedCursor<>( cursor, new Stage[] { stage } );
+	}
+
+	static <I, O> FusedCursor<O> map( Cursor<I> cursor,
+			Function<? super I, O> stateless_function ) {
+		return then( cursor, new Stage( MAP, stateless_function, null, null ) );
+	}
+
+	static <I> FusedCursor<I> filter( Cursor<I> cursor,
+			Predicate<? super I> stateless_predicate ) {
+		return then( cursor, new Stage( FILTER, null, stateless_predicate, null ) );
+	}
+
+	static <I> FusedCursor<I> peek( Cursor<I> cursor,
+			Consumer<? super I> consumer ) {
+		return then( cursor, new Stage( PEEK, null, null, consumer ) );
+	}
+
+	static <I> FusedCursor<Numbered<I>> numbered( Cursor<I> cursor ) {
+		return then( cursor, new Stage( NUMBERED, null, null, null ) );
+	}
+
+	/*
+	 * Returns the result of the stages applied to the argument element, or
+	 * rejected when a filter rejects the element.
+	 */
+	private static Object apply( Stage[] stages, Object element ) {
+		for ( int s = 0; s < stages.length; s++ ) {
+			final Stage stage = stages[s];
+			switch ( stage.kind ) {
+				case MAP:
+					element = stage.function.apply( element );
+					break;
+				case FILTER:
+					if ( !stage.predicate.test( element ) ) {
+						return rejected;
+					}
+					break;
+				case PEEK:
+					stage.consumer.accept( element );
+					break;
+				default:
+					element = new NumberedImpl<>( element, stage.counter++ );
+			}
+		}
+		return element;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public O next( )
+			throws EndOfCursorException {
+		final Stage[] stages = this.stages;
+		for ( ;; ) {
+			Object element = apply( stages, source.next( ) );
+			if ( element != rejected ) {
+				return (O) element;
+			}
+		}
+	}
+
+	/*
+	 * The stages are applied to each element as soon as it is read from the
+	 * source, before the source is advanced again, so that sources that recycle
+	 * their elements are supported and side effects interleave with the source
+	 * as they do in next().
+	 */
+	@Override
+	public int nextBatch( Object[] buffer, int offset, int length ) {
+		final Stage[] stages = this.stages;
+		int filled = 0;
+		try {
+			while ( filled < length ) {
+				Object element = apply( stages, source.next( ) );
+				if ( element != rejected ) {
+					buffer[offset + filled++] = element;
+				}
+			}
+		}
+		catch ( EndOfCursorException e ) {
+		}
+		return filled;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void forEachRemaining( Consumer<? super O> action ) {
+		final Stage[] stages = this.stages;
+		PushCursor.forEachRemaining( (Cursor<Object>) source, element -> {
+			Object result = apply( stages, element );
+			if ( result != rejected ) {
+				action.accept( (O) result );
+			}
+		} );
+	}
+
+}
@@ -0,0 +1,245 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.github.evenjn.lang.Rook;
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+
+/*
+ * Runs a producer on a background thread and hands the elements it pushes to
+ * the consuming thread through a single-producer single-consumer ring buffer.
+ * 
+ * Only the producer writes tail, and only the consumer writes head, so the
+ * buffer needs no lock: each side publishes its progress with a volatile
+ * write, and the other side reads it. A side that finds the buffer full (or
+ * empty) spins briefly, then publishes itself as parked, checks the buffer
+ * again and parks. The other side reads the parked thread after publishing
+ * its progress. Both writes are volatile, so they are not reordered with the
+ * reads that follow them, and at least one side sees the other: either the
+ * parked side finds the progress, or it gets unparked. The timeout of the
+ * park is only a backstop.
+ * 
+ * The producer starts at the first invocation of next(). It stops when it
+ * returns, when it throws an exception, which is rethrown to the consumer
+ * after the elements pushed before it, and when the rook is closed. In the
+ * latter case, the next element pushed by the producer is rejected by throwing
+ * a private exception that unwinds the producer.
+ */
+class HandoffCursor<I> implements
+		Cursor<I>,
+		AutoCloseable {
+
+	static final int default_capacity = 128;
+
+	private static final int spins = 64;
+
+	private static final long park_nanos = 1000000L;
+
+	private static final ThreadFactory daemon_factory = runnable -> {
+		Thread thread = new Thread( runnable, "knit-handoff" );
+		thread.setDaemon( true );
+		return thread;
+	};
+
+	private static final class Closed extends
+			RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		private Closed() {
+			super( null, null, false, false );
+		}
+	}
+
+	private static final Closed closed_signal = new Closed( );
+
+	private final Consumer<Consumer<? super I>> generator;
+
+	private final ThreadFactory thread_factory;
+
+	private final Object[] buffer;
+
+	private final int mask;
+
+	private final AtomicLong head = new AtomicLong( );
+
+	private final AtomicLong tail = new AtomicLong( );
+
+	private volatile boolean done = false;
+
+	private volatile boolean closed = false;
+
+	private volatile Throwable failure = null;
+
+	private volatile Thread parked_producer = null;
+
+	private volatile Thread parked_consumer = null;
+
+	private Thread producer = null;
+
+	private long produced = 0;
+
+	private HandoffCursor(Rook rook,
+			Consumer<Consumer<? super I>> generator,
+			int capacity,
+			ThreadFactory thread_factory) {
+		int size = Integer.highestOneBit( capacity );
+		if ( size < capacity ) {
+			size = size << 1;
+		}
+		this.generator = generator;
+		this.thread_factory = thread_factory;
+		this.buffer = new Object[size];
+		this.mask = size - 1;
+		rook.hook( this );
+	}
+
+	static <I> HandoffCursor<I> prefetch( Rook rook, Cursor<I> source,
+			int capacity ) {
+		return new HandoffCursor<I>( rook, sink -> {
+			try {
+				for ( ;; ) {
+					sink.accept( source.next( ) );
+				}
+			}
+			catch ( EndOfCursorException e ) {
+				return;
+			}
+		}, capacity, daemon_factory );
+	}
+
+	static <I> HandoffCursor<I> generate( Rook rook,
+			Consumer<Consumer<? super I>> generator,
+			ThreadFactory thread_factory ) {
+		return new HandoffCursor<I>( rook, generator, default_capacity,
+				thread_factory == null ? daemon_factory : thread_factory );
+	}
+
+	private static void unpark( Thread thread ) {
+		if ( thread != null ) {
+			LockSupport.unpark( thread );
+		}
+	}
+
+	/*
+	 * Invoked on the producer thread only.
+	 */
+	private void put( I element ) {
+		final long capacity = buffer.length;
+		final long t = produced;
+		for ( int round = 0; closed || t - head.get( ) == capacity; round++ ) {
+			if ( closed ) {
+				throw closed_signal;
+			}
+			if ( round < spins ) {
+				Thread.yield( );
+				continue;
+			}
+			parked_producer = Thread.currentThread( );
+			if ( t - head.get( ) == capacity && !closed ) {
+				LockSupport.parkNanos( this, park_nanos );
+			}
+			parked_producer = null;
+		}
+		buffer[(int) t & mask] = element;
+		produced = t + 1;
+		tail.set( t + 1 );
+		unpark( parked_consumer );
+	}
+
+	private void produce( ) {
+		try {
+			generator.accept( this::put );
+		}
+		catch ( Closed e ) {
+			return;
+		}
+		catch ( Throwable t ) {
+			failure = t;
+		}
+		finally {
+			done = true;
+			unpark( parked_consumer );
+		}
+	}
+
+	private void start( ) {
+		producer = thread_factory.newThread( this::produce );
+		producer.start( );
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public I next( )
+			throws EndOfCursorException {
+		if ( closed ) {
+			throw EndOfCursorException.neo( );
+		}
+		if ( producer == null ) {
+			start( );
+		}
+		final long h = head.get( );
+		for ( int round = 0; h == tail.get( ); round++ ) {
+			if ( done ) {
+				if ( h != tail.get( ) ) {
+					break;
+				}
+				close( );
+				Throwable throwable = failure;
+				if ( throwable instanceof RuntimeException ) {
+					throw (RuntimeException) throwable;
+				}
+				if ( throwable instanceof Error ) {
+					throw (Error) throwable;
+				}
+				if ( throwable != null ) {
+					throw new IllegalStateException( throwable );
+				}
+				throw EndOfCursorException.neo( );
+			}
+			if ( round < spins ) {
+				Thread.yield( );
+				continue;
+			}
+			parked_consumer = Thread.currentThread( );
+			if ( h == tail.get( ) && !done ) {
+				LockSupport.parkNanos( this, park_nanos );
+			}
+			parked_consumer = null;
+		}
+		int index = (int) h & mask;
+		I result = (I) buffer[index];
+		buffer[index] = null;
+		head.set( h + 1 );
+		unpark( parked_producer );
+		return result;
+	}
+
+	@Override
+	public void close( ) {
+		closed = true;
+		unpark( parked_producer );
+	}
+
+}
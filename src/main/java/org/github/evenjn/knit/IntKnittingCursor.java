@@ -0,0 +1,766 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+
+/**
+ * <h1>IntKnittingCursor</h1>
+ * 
+ * <p>
+ * An {@code IntKnittingCursor} wraps a {@link IntCursor IntCursor} and provides
+ * utility methods to access its {@code int} values without boxing them.
+ * </p>
+ * 
+ * <p>
+ * {@code IntKnittingCursor} follows the same protocol as
+ * {@link KnittingCursor}: it may be used as a simple cursor, invoking
+ * {@link #next()}; as a resource to be harvested, invoking a rolling method;
+ * or as a resource to transform, invoking a transformation method. These three
+ * modes of operation are exclusive, and an {@code IntKnittingCursor} is at any
+ * time in one of three states: pristine, used, or locked.
+ * </p>
+ * 
+ * <p>
+ * The following methods are rolling:
+ * </p>
+ * 
+ * <ul>
+ * <li>{@link #count()}</li>
+ * <li>{@link #max()}</li>
+ * <li>{@link #min()}</li>
+ * <li>{@link #reduce(int, IntBinaryOperator)}</li>
+ * <li>{@link #sum()}</li>
+ * <li>{@link #toArray()}</li>
+ * </ul>
+ * 
+ * <p>
+ * The following methods are transformation methods:
+ * </p>
+ * 
+ * <ul>
+ * <li>{@link #boxed()}</li>
+ * <li>{@link #filter(IntPredicate)}</li>
+ * <li>{@link #head(int)}</li>
+ * <li>{@link #headless(int)}</li>
+ * <li>{@link #map(IntUnaryOperator)}</li>
+ * <li>{@link #mapToLong(IntToLongFunction)}</li>
+ * <li>{@link #mapToDouble(IntToDoubleFunction)}</li>
+ * <li>{@link #mapToObj(IntFunction)}</li>
+ * <li>{@link #peek(IntConsumer)}</li>
+ * </ul>
+ * 
+ * <p>
+ * Public static methods of {@code IntKnittingCursor} return
+ * {@code IntKnittingCursor} objects providing access to an argument sequence of
+ * values.
+ * </p>
+ * 
+ * <ul>
+ * <li>{@link #empty()}</li>
+ * <li>{@link #on(int...)}</li>
+ * <li>{@link #wrap(IntCursor)}</li>
+ * <li>{@link #wrap(int[])}</li>
+ * </ul>
+ * 
+ * <p>
+ * This class is part of package {@link org.github.evenjn.knit Knit}.
+ * </p>
+ * 
+ * @since 1.0
+ */
+public class IntKnittingCursor implements
+		IntCursor {
+
+	private final IntCursor wrapped;
+
+	private int cached;
+
+	private boolean is_cached = false;
+
+	private final CursorState state = new CursorState( );
+
+	private IntKnittingCursor(IntCursor to_wrap) {
+		this.wrapped = to_wrap;
+	}
+
+	/**
+	 * <p>
+	 * {@code boxed} returns a view showing the values in this cursor as
+	 * {@code Integer} objects.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @return A view showing the values in this cursor as {@code Integer}
+	 *         objects.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public KnittingCursor<Integer> boxed( )
+			throws IllegalStateException {
+		return mapToObj( Integer::valueOf );
+	}
+
+	/**
+	 * <p>
+	 * {@code count} returns the number of values in this cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a rolling method.
+	 * </p>
+	 * 
+	 * @return The number of values in this cursor.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public int count( )
+			throws IllegalStateException {
+		state.lock( );
+		int so_far = 0;
+		try {
+			for ( ;; so_far++ ) {
+				wrapped.next( );
+			}
+		}
+		catch ( EndOfCursorException e ) {
+			return so_far;
+		}
+	}
+
+	/**
+	 * <p>
+	 * {@code filter} returns a view hiding the values which do not satisfy the
+	 * argument {@code stateless_predicate}.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param stateless_predicate
+	 *          A stateless system that identifies values that should be kept.
+	 * @return A view hiding the values which do not satisfy the argument
+	 *         {@code stateless_predicate}.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public IntKnittingCursor filter( IntPredicate stateless_predicate )
+			throws IllegalStateException {
+		state.lock( );
+		final IntCursor source = wrapped;
+		return wrap( new IntCursor( ) {
+
+			@Override
+			public int next( )
+					throws EndOfCursorException {
+				for ( ;; ) {
+					int next = source.next( );
+					if ( stateless_predicate.test( next ) ) {
+						return next;
+					}
+				}
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code hasNext} returns true when the next invocation of {@link #next()}
+	 * will not throw an {@link EndOfCursorException}.
+	 * </p>
+	 * 
+	 * <p>
+	 * Invoking this method causes the object to enter the used state. Invoking
+	 * this method when this cursor is in locked state will throw an
+	 * {@code IllegalStateException}.
+	 * </p>
+	 * 
+	 * @return whether the next invocation of {@link #next()} will return a
+	 *         value.
+	 * @throws IllegalStateException
+	 *           when the cursor is in locked state.
+	 * @since 1.0
+	 */
+	public boolean hasNext( ) {
+		state.use( );
+		if ( is_cached ) {
+			return true;
+		}
+		try {
+			cached = wrapped.next( );
+		}
+		catch ( EndOfCursorException e ) {
+			return false;
+		}
+		is_cached = true;
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * {@code head} returns a view showing the first {@code show} values in this
+	 * cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 *
+	 * @param show
+	 *          The number of values to show. A negative numbers counts as zero.
+	 * @return A view showing the first {@code show} values in this cursor.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public IntKnittingCursor head( int show )
+			throws IllegalStateException {
+		state.lock( );
+		final IntCursor source = wrapped;
+		final int final_show = show < 0 ? 0 : show;
+		return wrap( new IntCursor( ) {
+
+			private int shown = 0;
+
+			@Override
+			public int next( )
+					throws EndOfCursorException {
+				if ( shown >= final_show ) {
+					throw EndOfCursorException.neo( );
+				}
+				int next = source.next( );
+				shown++;
+				return next;
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code headless} returns a view hiding the first {@code hide} values in
+	 * this cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param hide
+	 *          The number of values to hide. A negative numbers counts as zero.
+	 * @return A view hiding the first {@code hide} values in this cursor.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public IntKnittingCursor headless( int hide )
+			throws IllegalStateException {
+		state.lock( );
+		final IntCursor source = wrapped;
+		final int final_hide = hide < 0 ? 0 : hide;
+		return wrap( new IntCursor( ) {
+
+			private int hidden = 0;
+
+			@Override
+			public int next( )
+					throws EndOfCursorException {
+				for ( ; hidden < final_hide; hidden++ ) {
+					source.next( );
+				}
+				return source.next( );
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code map} returns a view showing the values returned by the argument
+	 * {@code stateless_function} when invoked on the values in this cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param stateless_function
+	 *          A stateless function.
+	 * @return A view showing the values returned by the argument
+	 *         {@code stateless_function}.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public IntKnittingCursor map( IntUnaryOperator stateless_function )
+			throws IllegalStateException {
+		state.lock( );
+		final IntCursor source = wrapped;
+		return wrap( new IntCursor( ) {
+
+			@Override
+			public int next( )
+					throws EndOfCursorException {
+				return stateless_function.applyAsInt( source.next( ) );
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code mapToLong} returns a view showing the {@code long} values returned
+	 * by the argument {@code stateless_function} when invoked on the values in
+	 * this cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param stateless_function
+	 *          A stateless function.
+	 * @return A view showing the {@code long} values returned by the argument
+	 *         {@code stateless_function}.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public LongKnittingCursor mapToLong( IntToLongFunction stateless_function )
+			throws IllegalStateException {
+		state.lock( );
+		final IntCursor source = wrapped;
+		return LongKnittingCursor.wrap( new LongCursor( ) {
+
+			@Override
+			public long next( )
+					throws EndOfCursorException {
+				return stateless_function.applyAsLong( source.next( ) );
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code mapToDouble} returns a view showing the {@code double} values
+	 * returned by the argument {@code stateless_function} when invoked on the
+	 * values in this cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param stateless_function
+	 *          A stateless function.
+	 * @return A view showing the {@code double} values returned by the argument
+	 *         {@code stateless_function}.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public DoubleKnittingCursor mapToDouble(
+			IntToDoubleFunction stateless_function )
+			throws IllegalStateException {
+		state.lock( );
+		final IntCursor source = wrapped;
+		return DoubleKnittingCursor.wrap( new DoubleCursor( ) {
+
+			@Override
+			public double next( )
+					throws EndOfCursorException {
+				return stateless_function.applyAsDouble( source.next( ) );
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code mapToObj} returns a view showing the objects returned by the
+	 * argument {@code stateless_function} when invoked on the values in this
+	 * cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param <O>
+	 *          The type of objects returned by the argument
+	 *          {@code stateless_function}.
+	 * @param stateless_function
+	 *          A stateless function.
+	 * @return A view showing the objects returned by the argument
+	 *         {@code stateless_function}.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public <O> KnittingCursor<O> mapToObj(
+			IntFunction<? extends O> stateless_function )
+			throws IllegalStateException {
+		state.lock( );
+		final IntCursor source = wrapped;
+		return KnittingCursor.wrap( new Cursor<O>( ) {
+
+			@Override
+			public O next( )
+					throws EndOfCursorException {
+				return stateless_function.apply( source.next( ) );
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code max} returns the largest value in this cursor, or an empty optional
+	 * if this cursor is empty.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a rolling method.
+	 * </p>
+	 * 
+	 * @return The largest value in this cursor, if any.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public OptionalInt max( )
+			throws IllegalStateException {
+		state.lock( );
+		int result;
+		try {
+			result = wrapped.next( );
+		}
+		catch ( EndOfCursorException e ) {
+			return OptionalInt.empty( );
+		}
+		try {
+			for ( ;; ) {
+				result = Math.max( result, wrapped.next( ) );
+			}
+		}
+		catch ( EndOfCursorException e ) {
+			return OptionalInt.of( result );
+		}
+	}
+
+	/**
+	 * <p>
+	 * {@code min} returns the smallest value in this cursor, or an empty
+	 * optional if this cursor is empty.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a rolling method.
+	 * </p>
+	 * 
+	 * @return The smallest value in this cursor, if any.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public OptionalInt min( )
+			throws IllegalStateException {
+		state.lock( );
+		int result;
+		try {
+			result = wrapped.next( );
+		}
+		catch ( EndOfCursorException e ) {
+			return OptionalInt.empty( );
+		}
+		try {
+			for ( ;; ) {
+				result = Math.min( result, wrapped.next( ) );
+			}
+		}
+		catch ( EndOfCursorException e ) {
+			return OptionalInt.of( result );
+		}
+	}
+
+	/**
+	 * <p>
+	 * {@code next} returns the next value provided by the wrapped cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * If the next value has been cached by {@link #hasNext()}, invoking this
+	 * method will return the cached value, then empty the cache.
+	 * </p>
+	 * 
+	 * <p>
+	 * Invoking this method causes this object to enter the used state. Invoking
+	 * this method when the cursor is in locked state will throw an
+	 * {@code IllegalStateException}.
+	 * </p>
+	 * 
+	 * @return the next value provided by the wrapped cursor.
+	 * @throws EndOfCursorException
+	 *           when there are no more values to retrieve from the wrapped
+	 *           cursor.
+	 * @throws IllegalStateException
+	 *           when the cursor is in locked state.
+	 * @since 1.0
+	 */
+	@Override
+	public int next( )
+			throws EndOfCursorException {
+		state.use( );
+		if ( is_cached ) {
+			is_cached = false;
+			return cached;
+		}
+		return wrapped.next( );
+	}
+
+	/**
+	 * <p>
+	 * {@code peek} returns a view showing the same values as this cursor, and
+	 * passing each of them to the argument {@code consumer} as it is retrieved.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param consumer
+	 *          A consumer of values.
+	 * @return A view showing the same values as this cursor.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public IntKnittingCursor peek( IntConsumer consumer )
+			throws IllegalStateException {
+		state.lock( );
+		final IntCursor source = wrapped;
+		return wrap( new IntCursor( ) {
+
+			@Override
+			public int next( )
+					throws EndOfCursorException {
+				int next = source.next( );
+				consumer.accept( next );
+				return next;
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code reduce} returns the result of a computation taking into account all
+	 * values in this cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method stores into a local variable the argument {@code zero}. Then,
+	 * for each value {@code V} in this cursor, this method invokes the argument
+	 * {@code operator} using the content of the local variable and {@code V},
+	 * storing the result into the local variable. Finally, this method returns
+	 * the content of the local variable.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a rolling method.
+	 * </p>
+	 * 
+	 * @param zero
+	 *          The initial value for the reduction.
+	 * @param operator
+	 *          An operator that will be invoked once for each value in this
+	 *          cursor.
+	 * @return The result of a computation taking into account all values in this
+	 *         cursor.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public int reduce( int zero, IntBinaryOperator operator )
+			throws IllegalStateException {
+		state.lock( );
+		int reduction = zero;
+		try {
+			for ( ;; ) {
+				reduction = operator.applyAsInt( reduction, wrapped.next( ) );
+			}
+		}
+		catch ( EndOfCursorException e ) {
+		}
+		return reduction;
+	}
+
+	/**
+	 * <p>
+	 * {@code sum} returns the sum of the values in this cursor, computed as a
+	 * {@code long} so that it does not overflow as easily as an {@code int}.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a rolling method.
+	 * </p>
+	 * 
+	 * @return The sum of the values in this cursor.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public long sum( )
+			throws IllegalStateException {
+		state.lock( );
+		long sum = 0L;
+		try {
+			for ( ;; ) {
+				sum += wrapped.next( );
+			}
+		}
+		catch ( EndOfCursorException e ) {
+		}
+		return sum;
+	}
+
+	/**
+	 * <p>
+	 * {@code toArray} returns a new array containing the values in this cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a rolling method.
+	 * </p>
+	 * 
+	 * @return A new array containing the values in this cursor.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public int[] toArray( )
+			throws IllegalStateException {
+		state.lock( );
+		int[] result = new int[16];
+		int size = 0;
+		try {
+			for ( ;; ) {
+				int next = wrapped.next( );
+				if ( size == result.length ) {
+					result = Arrays.copyOf( result, size * 2 );
+				}
+				result[size++] = next;
+			}
+		}
+		catch ( EndOfCursorException e ) {
+		}
+		return Arrays.copyOf( result, size );
+	}
+
+	/**
+	 * <p>
+	 * {@code empty} returns an empty {@code IntKnittingCursor}.
+	 * </p>
+	 * 
+	 * @return an empty {@code IntKnittingCursor}.
+	 * @since 1.0
+	 */
+	public static IntKnittingCursor empty( ) {
+		return wrap( empty );
+	}
+
+	private static final IntCursor empty = new IntCursor( ) {
+
+		@Override
+		public int next( )
+				throws EndOfCursorException {
+			throw EndOfCursorException.neo( );
+		}
+	};
+
+	/**
+	 * <p>
+	 * {@code on} returns a new {@code IntKnittingCursor} providing access to the
+	 * argument values.
+	 * </p>
+	 * 
+	 * @param values
+	 *          Values to be wrapped in a new {@code IntKnittingCursor}.
+	 * @return A new {@code IntKnittingCursor} providing access to the argument
+	 *         values.
+	 * @since 1.0
+	 */
+	public static IntKnittingCursor on( int ... values ) {
+		return wrap( values );
+	}
+
+	/**
+	 * <p>
+	 * {@code wrap} returns a view of the values in the argument
+	 * {@link IntCursor IntCursor}.
+	 * </p>
+	 * 
+	 * @param cursor
+	 *          An {@link IntCursor IntCursor} of values.
+	 * @return A new {@code IntKnittingCursor} providing access to the values in
+	 *         the argument {@link IntCursor IntCursor}.
+	 * @since 1.0
+	 */
+	public static IntKnittingCursor wrap( IntCursor cursor ) {
+		return new IntKnittingCursor( cursor );
+	}
+
+	/**
+	 * <p>
+	 * {@code wrap} returns a view of the values in the argument array.
+	 * </p>
+	 * 
+	 * @param array
+	 *          An array of values.
+	 * @return A new {@code IntKnittingCursor} providing access to the values in
+	 *         the argument array.
+	 * @since 1.0
+	 */
+	public static IntKnittingCursor wrap( int[] array ) {
+		return wrap( new IntCursor( ) {
+
+			private int i = 0;
+
+			@Override
+			public int next( )
+					throws EndOfCursorException {
+				if ( i < array.length ) {
+					return array[i++];
+				}
+				throw EndOfCursorException.neo( );
+			}
+		} );
+	}
+}
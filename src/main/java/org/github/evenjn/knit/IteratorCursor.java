@@ -18,12 +18,13 @@
 package org.github.evenjn.knit;
 
 import java.util.Iterator;
+import java.util.function.Consumer;
 
-import org.github.evenjn.yarn.Cursor;
 import org.github.evenjn.yarn.EndOfCursorException;
 
 class IteratorCursor<T> implements
-		Cursor<T> {
+		BatchCursor<T>,
+		PushCursor<T> {
 
 	private Iterator<T> iterator;
 
@@ -39,4 +40,20 @@ class IteratorCursor<T> implements
 		}
 		throw EndOfCursorException.neo();
 	}
+
+	@Override
+	public int nextBatch( Object[] buffer, int offset, int length ) {
+		int filled = 0;
+		while ( filled < length && iterator.hasNext( ) ) {
+			buffer[offset + filled] = iterator.next( );
+			filled++;
+		}
+		return filled;
+	}
+
+	@Override
+	public void forEachRemaining( Consumer<? super T> action ) {
+		iterator.forEachRemaining( action );
+	}
+
 }
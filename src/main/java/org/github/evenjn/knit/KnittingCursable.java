@@ -17,9 +17,15 @@
  */
 package org.github.evenjn.knit;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -146,6 +152,9 @@ import org.github.evenjn.yarn.Tuple;
  * <li>{@link #append(Cursable)}</li>
  * <li>{@link #asIterator(Rook)}</li>
  * <li>{@link #asStream(Rook)}</li>
+ * <li>{@link #cache()}</li>
+ * <li>{@link #cache(int)}</li>
+ * <li>{@link #cache(Rook, ElementSerializer)}</li>
  * <li>{@link #cut(Predicate)}</li>
  * <li>{@link #entwine(Cursable, BiFunction)}</li>
  * <li>{@link #filter(Predicate)}</li>
@@ -192,6 +201,10 @@ import org.github.evenjn.yarn.Tuple;
  * 
  * <ul>
  * <li>{@link #empty()}</li>
+ * <li>{@link #generate(Consumer)}</li>
+ * <li>{@link #generate(Consumer, ThreadFactory)}</li>
+ * <li>{@link #lines(Path)}</li>
+ * <li>{@link #lines(Path, int)}</li>
  * <li>{@link #on(Object...)}</li>
  * <li>{@link #wrap(Cursable)}</li>
  * <li>{@link #wrap(Iterable)}</li>
@@ -271,6 +284,114 @@ public class KnittingCursable<I> implements
 		return pull( rook ).asStream( );
 	}
 
+	/**
+	 * <p>
+	 * {@code cache} returns a view of this cursable that stores the elements
+	 * in memory the first time they are pulled, and replays them from memory
+	 * afterwards.
+	 * </p>
+	 * 
+	 * <p>
+	 * The elements are stored in chunks shared by all the cursors pulled from
+	 * the returned view, including cursors used concurrently. The chunks are
+	 * held through soft references: when the garbage collector reclaims a chunk,
+	 * the next cursor that needs it pulls a cursor from this cursable and
+	 * computes the elements again.
+	 * </p>
+	 * 
+	 * <p>
+	 * The objects returned by the cursors pulled from this cursable must survive
+	 * subsequent invocations of {@link org.github.evenjn.yarn.Cursor#next()
+	 * next()} and closing the rook.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @return A view of this cursable that replays the elements from memory.
+	 * @since 1.0
+	 */
+	public KnittingCursable<I> cache( ) {
+		return wrap( new CachedCursable<>( wrapped ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code cache} returns a view of this cursable that stores about
+	 * {@code max_elements} elements in memory the first time they are pulled,
+	 * and replays them from memory afterwards.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method behaves like {@link #cache()}, except that the chunks are not
+	 * subject to garbage collection, and only the chunks among the first
+	 * {@code max_elements} elements are stored. Elements are stored in chunks of
+	 * 1024, so the budget is rounded up to a multiple of 1024: a positive budget
+	 * smaller than 1024 stores the first chunk. The cursors pulled from the
+	 * returned view compute the elements beyond that budget again, pulling a
+	 * cursor from this cursable.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param max_elements
+	 *          The maximum number of elements to store in memory.
+	 * @return A view of this cursable that replays up to {@code max_elements}
+	 *         elements, rounded up to a multiple of 1024, from memory.
+	 * @throws IllegalArgumentException
+	 *           when {@code max_elements} is negative.
+	 * @since 1.0
+	 */
+	public KnittingCursable<I> cache( int max_elements )
+			throws IllegalArgumentException {
+		if ( max_elements < 0 ) {
+			throw new IllegalArgumentException( "max_elements is negative" );
+		}
+		return wrap( new CachedCursable<>( wrapped, max_elements ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code cache} returns a view of this cursable that stores the elements
+	 * in a temporary file the first time they are pulled, and replays them from
+	 * the file afterwards.
+	 * </p>
+	 * 
+	 * <p>
+	 * The first cursor pulled from the returned view writes each element it
+	 * returns to the file, using the argument {@code serializer}. When that
+	 * cursor reaches the end, the file is complete, and cursors pulled later
+	 * read the elements back from the file, using the argument
+	 * {@code serializer}, without pulling cursors from this cursable. When that
+	 * cursor is closed before reaching the end, the file is discarded.
+	 * </p>
+	 * 
+	 * <p>
+	 * The file is deleted when the argument {@code rook} is closed. After that,
+	 * pulling from the returned view throws an {@code IllegalStateException}.
+	 * Failures to write or read the file are thrown as
+	 * {@link java.io.UncheckedIOException UncheckedIOException}.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param rook
+	 *          A rook in charge of deleting the file.
+	 * @param serializer
+	 *          A system that writes elements to the file and reads them back.
+	 * @return A view of this cursable that replays the elements from a file.
+	 * @since 1.0
+	 */
+	public KnittingCursable<I> cache( Rook rook,
+			ElementSerializer<I> serializer ) {
+		return wrap( new DiskCachedCursable<>( rook, wrapped, serializer ) );
+	}
+
 	/**
 	 * <p>
 	 * {@code collect} adds all elements of this cursable to the argument
@@ -325,7 +446,7 @@ public class KnittingCursable<I> implements
 	public void consume( Ring<? extends Consumer<? super I>> consumer_provider ) {
 		try ( BasicRook rook = new BasicRook( ) ) {
 			Consumer<? super I> consumer = consumer_provider.get( rook );
-			pull( rook ).peek( consumer ).roll( );
+			pull( rook ).consume( r -> consumer );
 		}
 	}
 
@@ -507,7 +628,7 @@ public class KnittingCursable<I> implements
 
 			@Override
 			public Cursor<I> pull( Rook rook ) {
-				return new FilterCursor<>( wrapped.pull( rook ), stateless_predicate );
+				return FusedCursor.filter( wrapped.pull( rook ), stateless_predicate );
 			}
 		} );
 	}
@@ -1000,8 +1121,7 @@ public class KnittingCursable<I> implements
 
 			@Override
 			public Cursor<O> pull( Rook rook ) {
-				return KnittingCursor.wrap( wrapped.pull( rook ) )
-						.map( stateless_function );
+				return FusedCursor.map( wrapped.pull( rook ), stateless_function );
 			}
 		} );
 	}
@@ -1062,7 +1182,7 @@ public class KnittingCursable<I> implements
 
 			@Override
 			public Cursor<Numbered<I>> pull( Rook rook ) {
-				return new NumberedCursor<>( wrapped.pull( rook ) );
+				return FusedCursor.numbered( wrapped.pull( rook ) );
 			}
 		} );
 	}
@@ -1161,7 +1281,7 @@ public class KnittingCursable<I> implements
 
 			@Override
 			public Cursor<I> pull( Rook rook ) {
-				return new PeekCursor<I>( wrapped.pull( rook ), consumer );
+				return FusedCursor.peek( wrapped.pull( rook ), consumer );
 			}
 
 		} );
@@ -1664,17 +1784,8 @@ public class KnittingCursable<I> implements
 	 * @since 1.0
 	 */
 	public <K> K reduce( K zero, BiFunction<K, I, K> bifunction ) {
-		K reduction = zero;
 		try ( BasicRook rook = new BasicRook( ) ) {
-			Cursor<I> kc = wrapped.pull( rook );
-			try {
-				for ( ;; ) {
-					reduction = bifunction.apply( reduction, kc.next( ) );
-				}
-			}
-			catch ( EndOfCursorException e ) {
-			}
-			return reduction;
+			return pull( rook ).reduce( zero, bifunction );
 		}
 	}
 
@@ -1836,6 +1947,177 @@ public class KnittingCursable<I> implements
 				}
 			} );
 
+	/**
+	 * <p>
+	 * {@code generate} returns a new {@code KnittingCursable} providing access
+	 * to the elements pushed by the argument {@code generator}.
+	 * </p>
+	 * 
+	 * <p>
+	 * Each invocation of {@link #pull(Rook)} on the returned cursable runs the
+	 * argument {@code generator} again, as described in
+	 * {@link KnittingCursor#generate(Rook, Consumer)}.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of elements pushed by the argument {@code generator}.
+	 * @param generator
+	 *          A system that pushes elements into a sink.
+	 * @return A new {@code KnittingCursable} providing access to the elements
+	 *         pushed by the argument {@code generator}.
+	 * @since 1.0
+	 */
+	public static <K> KnittingCursable<K> generate(
+			Consumer<Consumer<? super K>> generator ) {
+		return wrap( rook -> HandoffCursor.generate( rook, generator, null ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code generate} returns a new {@code KnittingCursable} providing access
+	 * to the elements pushed by the argument {@code generator}, running the
+	 * argument {@code generator} on threads created by the argument
+	 * {@code thread_factory}.
+	 * </p>
+	 * 
+	 * <p>
+	 * Each invocation of {@link #pull(Rook)} on the returned cursable runs the
+	 * argument {@code generator} again, as described in
+	 * {@link KnittingCursor#generate(Rook, Consumer, ThreadFactory)}.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of elements pushed by the argument {@code generator}.
+	 * @param generator
+	 *          A system that pushes elements into a sink.
+	 * @param thread_factory
+	 *          A factory of threads for the argument {@code generator}.
+	 * @return A new {@code KnittingCursable} providing access to the elements
+	 *         pushed by the argument {@code generator}.
+	 * @since 1.0
+	 */
+	public static <K> KnittingCursable<K> generate(
+			Consumer<Consumer<? super K>> generator, ThreadFactory thread_factory ) {
+		return wrap(
+				rook -> HandoffCursor.generate( rook, generator, thread_factory ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code lines} returns a new {@code KnittingCursable} providing access to
+	 * the lines of the argument UTF-8 text {@code file}.
+	 * </p>
+	 * 
+	 * <p>
+	 * Lines are terminated by a line feed, optionally preceded by a carriage
+	 * return. Terminators are not part of the lines. The last line need not be
+	 * terminated.
+	 * </p>
+	 * 
+	 * <p>
+	 * Each invocation of {@link #pull(Rook)} on the returned cursable opens a
+	 * channel on the argument {@code file}, hooked to the argument rook. The
+	 * channel is closed when the cursor reaches the end, or when the rook is
+	 * closed. Failures to open or read the file are thrown as
+	 * {@link java.io.UncheckedIOException UncheckedIOException}.
+	 * </p>
+	 * 
+	 * @param file
+	 *          A UTF-8 text file.
+	 * @return A new {@code KnittingCursable} providing access to the lines of
+	 *         the argument {@code file}.
+	 * @since 1.0
+	 */
+	public static KnittingCursable<String> lines( Path file ) {
+		return wrap( new Cursable<String>( ) {
+
+			@Override
+			public Cursor<String> pull( Rook rook ) {
+				try {
+					return rook.hook( new LineCursor( file ) );
+				}
+				catch ( IOException e ) {
+					throw new UncheckedIOException( e );
+				}
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code lines} returns a tuple of {@code partitions} cursables, which
+	 * together provide access to the lines of the argument UTF-8 text
+	 * {@code file}.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method divides the file into {@code partitions} ranges of bytes of
+	 * about the same size. Each cursable in the returned tuple provides access to
+	 * the lines starting in one of the ranges, in order. A line belongs to the
+	 * range holding its first byte, even when it extends beyond that range, so
+	 * that each line is provided by exactly one cursable. Some cursables may be
+	 * empty, for example when a line is longer than a range.
+	 * </p>
+	 * 
+	 * <p>
+	 * Each invocation of {@link #pull(Rook)} on any of the cursables opens a
+	 * separate channel on the argument {@code file}, as described in
+	 * {@link #lines(Path)}, so that the cursables can be pulled concurrently, for
+	 * example using {@link KnittingTuple#parallelConsume(Ring)}. Concatenating
+	 * the cursables in the order of the tuple provides the lines in the order of
+	 * the file.
+	 * </p>
+	 * 
+	 * <p>
+	 * The size of the file is read at the time of this invocation. The file
+	 * should not be modified while the returned cursables are in use.
+	 * </p>
+	 * 
+	 * @param file
+	 *          A UTF-8 text file.
+	 * @param partitions
+	 *          The number of ranges.
+	 * @return A tuple of cursables providing access to the lines of the
+	 *         argument {@code file}, one for each range.
+	 * @throws IllegalArgumentException
+	 *           when {@code partitions} is not positive.
+	 * @since 1.0
+	 */
+	public static KnittingTuple<KnittingCursable<String>> lines( Path file,
+			int partitions )
+			throws IllegalArgumentException {
+		if ( partitions < 1 ) {
+			throw new IllegalArgumentException( "partitions must be positive" );
+		}
+		long size;
+		try {
+			size = Files.size( file );
+		}
+		catch ( IOException e ) {
+			throw new UncheckedIOException( e );
+		}
+		ArrayList<KnittingCursable<String>> result = new ArrayList<>( partitions );
+		long quotient = size / partitions;
+		long remainder = size % partitions;
+		for ( int p = 0; p < partitions; p++ ) {
+			long start = p * quotient + Math.min( p, remainder );
+			long end = start + quotient + ( p < remainder ? 1 : 0 );
+			result.add( wrap( new Cursable<String>( ) {
+
+				@Override
+				public Cursor<String> pull( Rook rook ) {
+					try {
+						return rook.hook( new LineCursor( file, start, end ) );
+					}
+					catch ( IOException e ) {
+						throw new UncheckedIOException( e );
+					}
+				}
+			} ) );
+		}
+		return KnittingTuple.wrap( result );
+	}
+
 	/**
 	 * <p>
 	 * {@code on} returns a new {@code KnittingCursable} providing access to the
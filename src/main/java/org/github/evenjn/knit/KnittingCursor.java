@@ -23,10 +23,14 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -134,6 +138,7 @@ import org.github.evenjn.yarn.StreamRingPurl;
  * <li>{@link #asIterator()}</li>
  * <li>{@link #asStream()}</li>
  * <li>{@link #cut(Predicate)}</li>
+ * <li>{@link #distinct(Rook, ElementSerializer, int, boolean)}</li>
  * <li>{@link #entwine(Cursor, BiFunction)}</li>
  * <li>{@link #filter(Predicate)}</li>
  * <li>{@link #flatmapArray(ArrayMap)}</li>
@@ -152,9 +157,15 @@ import org.github.evenjn.yarn.StreamRingPurl;
  * <li>{@link #headless(int)}</li>
  * <li>{@link #map(Function)}</li>
  * <li>{@link #map(Rook, RingFunction)}</li>
+ * <li>{@link #mapToDouble(ToDoubleFunction)}</li>
+ * <li>{@link #mapToInt(ToIntFunction)}</li>
+ * <li>{@link #mapToLong(ToLongFunction)}</li>
+ * <li>{@link #match(TuplePatternSet)}</li>
  * <li>{@link #numbered()}</li>
  * <li>{@link #once()}</li>
+ * <li>{@link #parallelMap(Rook, Function, int, int)}</li>
  * <li>{@link #peek(Consumer)}</li>
+ * <li>{@link #prefetch(Rook, int)}</li>
  * <li>{@link #prepend(Cursor)}</li>
  * <li>{@link #purlArray(ArrayPurl)}</li>
  * <li>{@link #purlCursable(CursablePurl)}</li>
@@ -216,6 +227,8 @@ import org.github.evenjn.yarn.StreamRingPurl;
  * 
  * <ul>
  * <li>{@link #empty()}</li>
+ * <li>{@link #generate(Rook, Consumer)}</li>
+ * <li>{@link #generate(Rook, Consumer, ThreadFactory)}</li>
  * <li>{@link #on(Object...)}</li>
  * <li>{@link #wrap(Cursor)}</li>
  * <li>{@link #wrap(Iterable)}</li>
@@ -414,16 +427,8 @@ public class KnittingCursor<I> implements
 	public <K extends Collection<? super I>> K collect( K collection )
 			throws IllegalStateException {
 		lock( );
-		try ( BasicRook rook = new BasicRook( ) ) {
-			try {
-				for ( ;; ) {
-					collection.add( wrapped.next( ) );
-				}
-			}
-			catch ( EndOfCursorException e ) {
-			}
-			return collection;
-		}
+		PushCursor.forEachRemaining( wrapped, collection::add );
+		return collection;
 	}
 
 	/**
@@ -455,11 +460,7 @@ public class KnittingCursor<I> implements
 		lock( );
 		try ( BasicRook rook = new BasicRook( ) ) {
 			Consumer<? super I> consumer = consumer_provider.get( rook );
-			for ( ;; ) {
-				consumer.accept( wrapped.next( ) );
-			}
-		}
-		catch ( EndOfCursorException e ) {
+			PushCursor.forEachRemaining( wrapped, consumer );
 		}
 	}
 
@@ -490,15 +491,9 @@ public class KnittingCursor<I> implements
 	 */
 	public int count( ) {
 		lock( );
-		int so_far = 0;
-		try {
-			for ( ;; so_far++ ) {
-				wrapped.next( );
-			}
-		}
-		catch ( EndOfCursorException e ) {
-			return so_far;
-		}
+		int[] so_far = new int[1];
+		PushCursor.forEachRemaining( wrapped, element -> so_far[0]++ );
+		return so_far[0];
 	}
 
 	/**
@@ -580,6 +575,75 @@ public class KnittingCursor<I> implements
 				wrapped, hasher, equivalencer ) );
 	}
 
+	/**
+	 * <p>
+	 * {@code distinct} returns a view showing only the elements which are not
+	 * equal to other elements appearing before them, holding at most
+	 * {@code max_elements} distinct elements in memory.
+	 * </p>
+	 * 
+	 * <p>
+	 * Elements are checked against an in-memory hash set until it holds
+	 * {@code max_elements} elements. When a new element arrives after that, the
+	 * set and all the remaining elements of this cursor are written to
+	 * temporary files, using the argument {@code serializer}, partitioned by
+	 * hash code. Each file is then processed in the same way, and split again
+	 * when it holds too many distinct elements.
+	 * </p>
+	 * 
+	 * <p>
+	 * The budget does not hold for elements that share one hash code: they
+	 * always fall in the same file, which cannot be split, so a file holding
+	 * more than {@code max_elements} distinct elements with the same hash code
+	 * is processed entirely in memory.
+	 * </p>
+	 * 
+	 * <p>
+	 * When {@code preserve_order} is {@code true}, elements are shown in the
+	 * order of their first appearance, at the cost of writing the output of
+	 * each file to a further file and merging them. Otherwise, elements
+	 * appearing after the set was first written are shown grouped by file.
+	 * </p>
+	 * 
+	 * <p>
+	 * The temporary files are deleted when they have been read, and in any case
+	 * when the argument rook is closed.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param rook
+	 *          A rook.
+	 * @param serializer
+	 *          A system that writes and reads elements.
+	 * @param max_elements
+	 *          The maximum number of distinct elements to hold in memory.
+	 * @param preserve_order
+	 *          Whether to show elements in the order of their first appearance.
+	 * @return A view showing only the elements which are not equal to other
+	 *         elements appearing before them.
+	 * 
+	 * @throws IllegalArgumentException
+	 *           when {@code max_elements} is not positive.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public KnittingCursor<I> distinct( Rook rook,
+			ElementSerializer<I> serializer, int max_elements,
+			boolean preserve_order )
+			throws IllegalArgumentException,
+			IllegalStateException {
+		if ( max_elements <= 0 ) {
+			throw new IllegalArgumentException( "max_elements must be positive" );
+		}
+		lock( );
+		return wrap( new SpillingDistinctCursor<I>( rook, wrapped, serializer,
+				max_elements, preserve_order ) );
+	}
+
 	/**
 	 * <p>
 	 * {@code entwine} returns a complex view.
@@ -646,7 +710,7 @@ public class KnittingCursor<I> implements
 	public KnittingCursor<I> filter( Predicate<? super I> stateless_predicate )
 			throws IllegalStateException {
 		lock( );
-		return wrap( new FilterCursor<>( wrapped, stateless_predicate ) );
+		return wrap( FusedCursor.filter( wrapped, stateless_predicate ) );
 	}
 
 	/**
@@ -1084,23 +1148,7 @@ public class KnittingCursor<I> implements
 			OptionalMap<? super I, O> stateless_optional_map )
 			throws IllegalStateException {
 		lock( );
-		CursorRingPurl<I, O> crp = new CursorRingPurl<I, O>( ) {
-
-			@Override
-			public Cursor<O> next( Rook rook, I input ) {
-				Optional<O> optional = stateless_optional_map.get( input );
-				if ( optional.isPresent( ) ) {
-					return new SingletonCursor<O>( optional.get( ) );
-				}
-				return null;
-			}
-
-			@Override
-			public Cursor<O> end( Rook rook ) {
-				return empty( );
-			}
-		};
-		return wrap( new RingPurlCursor<I, O>( wrapped, crp ) );
+		return wrap( OptionalPurlCursor.map( wrapped, stateless_optional_map ) );
 	}
 
 	/**
@@ -1131,23 +1179,8 @@ public class KnittingCursor<I> implements
 			OptionalRingMap<? super I, O> stateless_optional_ring_map )
 			throws IllegalStateException {
 		lock( );
-		CursorRingPurl<I, O> crp = new CursorRingPurl<I, O>( ) {
-
-			@Override
-			public Cursor<O> next( Rook rook, I input ) {
-				Optional<O> optional = stateless_optional_ring_map.get( rook, input );
-				if ( optional.isPresent( ) ) {
-					return new SingletonCursor<O>( optional.get( ) );
-				}
-				return empty( );
-			}
-
-			@Override
-			public Cursor<O> end( Rook rook ) {
-				return empty( );
-			}
-		};
-		return wrap( new RingPurlCursor<I, O>( rook, wrapped, crp ) );
+		return wrap( OptionalPurlCursor.map( rook, wrapped,
+				stateless_optional_ring_map ) );
 	}
 
 	/**
@@ -1366,20 +1399,7 @@ public class KnittingCursor<I> implements
 	public <O> KnittingCursor<O> map( Function<? super I, O> stateless_function )
 			throws IllegalStateException {
 		lock( );
-		CursorRingPurl<I, O> crp = new CursorRingPurl<I, O>( ) {
-
-			@Override
-			public Cursor<O> next( Rook rook, I input ) {
-				return new SingletonCursor<O>( stateless_function.apply( input ) );
-			}
-
-			@Override
-			public Cursor<O> end( Rook rook ) {
-				return empty( );
-			}
-
-		};
-		return wrap( new RingPurlCursor<I, O>( wrapped, crp ) );
+		return wrap( FusedCursor.map( wrapped, stateless_function ) );
 	}
 
 	/**
@@ -1421,21 +1441,125 @@ public class KnittingCursor<I> implements
 			map( Rook rook, RingFunction<? super I, O> stateless_ring_function )
 					throws IllegalStateException {
 		lock( );
-		CursorRingPurl<I, O> crp = new CursorRingPurl<I, O>( ) {
+		return wrap(
+				new RingMapCursor<I, O>( rook, wrapped, stateless_ring_function ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code mapToInt} returns a view showing the {@code int} values returned
+	 * by the argument {@code stateless_function} when invoked on the elements
+	 * of this cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * The returned {@link IntKnittingCursor IntKnittingCursor} does not box
+	 * the values.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param stateless_function
+	 *          A stateless function.
+	 * @return A view showing the {@code int} values returned by the argument
+	 *         {@code stateless_function}.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public IntKnittingCursor mapToInt(
+			ToIntFunction<? super I> stateless_function )
+			throws IllegalStateException {
+		lock( );
+		final Cursor<I> source = wrapped;
+		return IntKnittingCursor.wrap( new IntCursor( ) {
 
 			@Override
-			public Cursor<O> next( Rook rook, I input ) {
-				return new SingletonCursor<O>(
-						stateless_ring_function.apply( rook, input ) );
+			public int next( )
+					throws EndOfCursorException {
+				return stateless_function.applyAsInt( source.next( ) );
 			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code mapToLong} returns a view showing the {@code long} values returned
+	 * by the argument {@code stateless_function} when invoked on the elements
+	 * of this cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * The returned {@link LongKnittingCursor LongKnittingCursor} does not box
+	 * the values.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param stateless_function
+	 *          A stateless function.
+	 * @return A view showing the {@code long} values returned by the argument
+	 *         {@code stateless_function}.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public LongKnittingCursor mapToLong(
+			ToLongFunction<? super I> stateless_function )
+			throws IllegalStateException {
+		lock( );
+		final Cursor<I> source = wrapped;
+		return LongKnittingCursor.wrap( new LongCursor( ) {
 
 			@Override
-			public Cursor<O> end( Rook rook ) {
-				return empty( );
+			public long next( )
+					throws EndOfCursorException {
+				return stateless_function.applyAsLong( source.next( ) );
 			}
+		} );
+	}
 
-		};
-		return wrap( new RingPurlCursor<I, O>( rook, wrapped, crp ) );
+	/**
+	 * <p>
+	 * {@code mapToDouble} returns a view showing the {@code double} values returned
+	 * by the argument {@code stateless_function} when invoked on the elements
+	 * of this cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * The returned {@link DoubleKnittingCursor DoubleKnittingCursor} does not box
+	 * the values.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param stateless_function
+	 *          A stateless function.
+	 * @return A view showing the {@code double} values returned by the argument
+	 *         {@code stateless_function}.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public DoubleKnittingCursor mapToDouble(
+			ToDoubleFunction<? super I> stateless_function )
+			throws IllegalStateException {
+		lock( );
+		final Cursor<I> source = wrapped;
+		return DoubleKnittingCursor.wrap( new DoubleCursor( ) {
+
+			@Override
+			public double next( )
+					throws EndOfCursorException {
+				return stateless_function.applyAsDouble( source.next( ) );
+			}
+		} );
 	}
 
 	/**
@@ -1482,6 +1606,108 @@ public class KnittingCursor<I> implements
 		return result;
 	}
 
+	/**
+	 * <p>
+	 * {@code nextBatch} stores into the argument {@code buffer} the next
+	 * elements provided by the wrapped cursor, and returns the number of
+	 * elements stored.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method fills the argument {@code buffer} starting from index 0. If the
+	 * next element has been cached, it is stored first. This method stores fewer
+	 * elements than the length of the argument {@code buffer} only when it
+	 * reaches the end of the wrapped cursor. Cursors provided by Knit transfer
+	 * elements in bulk; other cursors are read invoking
+	 * {@link org.github.evenjn.yarn.Cursor#next() next()} repeatedly.
+	 * </p>
+	 * 
+	 * <p>
+	 * The objects stored may be dead. In general, cursors do not guarantee that
+	 * the objects they return survive subsequent invocations of
+	 * {@link org.github.evenjn.yarn.Cursor#next() next()}.
+	 * </p>
+	 * 
+	 * <p>
+	 * Invoking this method causes this object to enter the used state. Invoking
+	 * this method when the cursor is in locked state will throw an
+	 * {@code IllegalStateException}.
+	 * </p>
+	 * 
+	 * @param buffer
+	 *          The array to store elements into.
+	 * @return the number of elements stored into the argument {@code buffer}.
+	 * @throws IllegalStateException
+	 *           when the cursor is in locked state.
+	 * @since 1.0
+	 */
+	public int nextBatch( I[] buffer )
+			throws IllegalStateException {
+		return private_next_batch( buffer, 0, buffer.length );
+	}
+
+	int private_next_batch( Object[] buffer, int offset, int length ) {
+		if ( locked ) {
+			throw new IllegalStateException( "This cursor has been locked." );
+		}
+		used = true;
+		int filled = 0;
+		if ( is_cached && length > 0 ) {
+			is_cached = false;
+			buffer[offset] = cached;
+			cached = null;
+			filled = 1;
+		}
+		return filled + BatchCursor.nextBatch( wrapped, buffer, offset + filled,
+				length - filled );
+	}
+
+	void private_for_each_remaining( Consumer<? super I> action ) {
+		if ( locked ) {
+			throw new IllegalStateException( "This cursor has been locked." );
+		}
+		used = true;
+		if ( is_cached ) {
+			is_cached = false;
+			I element = cached;
+			cached = null;
+			action.accept( element );
+		}
+		PushCursor.forEachRemaining( wrapped, action );
+	}
+
+	/**
+	 * <p>
+	 * {@code match} returns a cursor providing access to all the occurrences in
+	 * this cursor of the patterns in the argument set, in order of end position.
+	 * </p>
+	 * 
+	 * <p>
+	 * This cursor is read in one pass, holding only the state of the automaton
+	 * of the argument set, so the cost per element does not depend on the
+	 * number of patterns. See
+	 * {@link TuplePatternSet#findAll(org.github.evenjn.yarn.Cursor)}.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 *
+	 * @param patterns
+	 *          A set of patterns.
+	 * @return A cursor providing access to all the occurrences of the argument
+	 *         patterns.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public KnittingCursor<PatternMatch> match(
+			TuplePatternSet<? super I> patterns )
+			throws IllegalStateException {
+		lock( );
+		return patterns.findAll( wrapped );
+	}
+
 	/**
 	 * <p>
 	 * {@code numbered} returns a cursor that, for each element in this cursor,
@@ -1502,7 +1728,7 @@ public class KnittingCursor<I> implements
 	public KnittingCursor<Numbered<I>> numbered( )
 			throws IllegalStateException {
 		lock( );
-		return wrap( new NumberedCursor<>( wrapped ) );
+		return wrap( FusedCursor.numbered( wrapped ) );
 	}
 
 	/**
@@ -1629,6 +1855,79 @@ public class KnittingCursor<I> implements
 		}
 	}
 
+	/**
+	 * <p>
+	 * {@code parallelMap} returns a complex view.
+	 * </p>
+	 * 
+	 * <p>
+	 * For each element {@code E} of this cursor, the view shows the element
+	 * returned by the argument {@code stateless_function} when invoked with
+	 * argument {@code E}, in the same order as the elements of this cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * The argument {@code stateless_function} is invoked on a pool of
+	 * {@code parallelism} worker threads, while this cursor is read by the
+	 * thread invoking {@code next()} on the view. At most {@code window}
+	 * elements are being processed or waiting to be returned at any time.
+	 * </p>
+	 * 
+	 * <p>
+	 * The objects returned by this cursor must survive subsequent invocations
+	 * of {@link org.github.evenjn.yarn.Cursor#next() next()}, because up to
+	 * {@code window} of them are read ahead and handed to the workers. The
+	 * argument {@code stateless_function} runs on the worker threads, not on the
+	 * thread invoking {@code next()} on the view, and may be invoked on several
+	 * elements at the same time and in any order.
+	 * </p>
+	 * 
+	 * <p>
+	 * The workers are shut down when the view reaches its end, when an
+	 * invocation of the argument {@code stateless_function} throws an exception,
+	 * which is then rethrown by {@code next()}, or when the argument
+	 * {@code rook} is closed. The argument {@code rook} is in charge of shutting
+	 * down the workers in the event that the returned cursor is abandoned as
+	 * garbage before reaching its end.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param <O>
+	 *          The type of elements returned by the argument
+	 *          {@code stateless_function}.
+	 * @param rook
+	 *          A rook.
+	 * @param stateless_function
+	 *          A stateless, thread-safe function.
+	 * @param parallelism
+	 *          The number of worker threads.
+	 * @param window
+	 *          The maximum number of elements in flight.
+	 * @return A complex view.
+	 * @throws IllegalArgumentException
+	 *           when {@code parallelism} or {@code window} is smaller than one.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public <O> KnittingCursor<O> parallelMap( Rook rook,
+			Function<? super I, O> stateless_function, int parallelism, int window )
+			throws IllegalArgumentException,
+			IllegalStateException {
+		if ( parallelism < 1 ) {
+			throw new IllegalArgumentException( "parallelism must be positive" );
+		}
+		if ( window < 1 ) {
+			throw new IllegalArgumentException( "window must be positive" );
+		}
+		lock( );
+		return wrap( new ParallelMapCursor<I, O>( rook, wrapped,
+				stateless_function, parallelism, window ) );
+	}
+
 	/**
 	 * <p>
 	 * {@code peek} returns a view providing access to the elements in this
@@ -1659,7 +1958,68 @@ public class KnittingCursor<I> implements
 	public KnittingCursor<I> peek( Consumer<? super I> consumer )
 			throws IllegalStateException {
 		lock( );
-		return KnittingCursor.wrap( new PeekCursor<I>( wrapped, consumer ) );
+		return wrap( FusedCursor.peek( wrapped, consumer ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code prefetch} returns a view providing access to the elements in this
+	 * cursor, read ahead on a background thread.
+	 * </p>
+	 * 
+	 * <p>
+	 * At the first invocation of {@code next()} on the returned view, the view
+	 * starts a thread that fetches elements from this cursor and stores them
+	 * into a buffer holding up to {@code capacity} elements (rounded up to a
+	 * power of two). The thread invoking {@code next()} on the view takes
+	 * elements from the buffer, so that fetching and consuming elements overlap
+	 * in time.
+	 * </p>
+	 * 
+	 * <p>
+	 * The objects returned by this cursor must survive subsequent invocations
+	 * of {@link org.github.evenjn.yarn.Cursor#next() next()}, because the
+	 * background thread reads up to {@code capacity} of them ahead of the
+	 * consumer.
+	 * </p>
+	 * 
+	 * <p>
+	 * When this cursor ends, the view ends after returning all the buffered
+	 * elements. When this cursor throws an exception, the view rethrows it after
+	 * returning all the elements fetched before the exception.
+	 * </p>
+	 * 
+	 * <p>
+	 * The background thread stops when the argument {@code rook} is closed. The
+	 * argument {@code rook} is in charge of stopping the thread in the event that
+	 * the returned cursor is abandoned as garbage before reaching its end.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is a transformation method.
+	 * </p>
+	 * 
+	 * @param rook
+	 *          A rook.
+	 * @param capacity
+	 *          The number of elements that can be read ahead.
+	 * @return A view providing access to the elements in this cursor, read ahead
+	 *         on a background thread.
+	 * @throws IllegalArgumentException
+	 *           when {@code capacity} is smaller than one or larger than
+	 *           {@code 2^30}.
+	 * @throws IllegalStateException
+	 *           when this cursor is not in pristine state.
+	 * @since 1.0
+	 */
+	public KnittingCursor<I> prefetch( Rook rook, int capacity )
+			throws IllegalArgumentException,
+			IllegalStateException {
+		if ( capacity < 1 || capacity > 1 << 30 ) {
+			throw new IllegalArgumentException( "capacity out of range" );
+		}
+		lock( );
+		return wrap( HandoffCursor.prefetch( rook, wrapped, capacity ) );
 	}
 
 	/**
@@ -2125,27 +2485,7 @@ public class KnittingCursor<I> implements
 			OptionalPurl<? super I, O> optional_purl )
 			throws IllegalStateException {
 		lock( );
-		CursorRingPurl<I, O> crp = new CursorRingPurl<I, O>( ) {
-
-			@Override
-			public Cursor<O> next( Rook rook, I input ) {
-				Optional<O> next = optional_purl.next( input );
-				if ( next.isPresent( ) ) {
-					return new SingletonCursor<O>( next.get( ) );
-				}
-				return null;
-			}
-
-			@Override
-			public Cursor<O> end( Rook rook ) {
-				Optional<O> end = optional_purl.end( );
-				if ( end.isPresent( ) ) {
-					return new SingletonCursor<O>( end.get( ) );
-				}
-				return null;
-			}
-		};
-		return wrap( new RingPurlCursor<I, O>( wrapped, crp ) );
+		return wrap( OptionalPurlCursor.purl( wrapped, optional_purl ) );
 	}
 
 	/**
@@ -2177,27 +2517,7 @@ public class KnittingCursor<I> implements
 			OptionalRingPurl<? super I, O> optional_ring_purl )
 			throws IllegalStateException {
 		lock( );
-		CursorRingPurl<I, O> crp = new CursorRingPurl<I, O>( ) {
-
-			@Override
-			public Cursor<O> next( Rook rook, I input ) {
-				Optional<O> next = optional_ring_purl.next( rook, input );
-				if ( next.isPresent( ) ) {
-					return new SingletonCursor<O>( next.get( ) );
-				}
-				return null;
-			}
-
-			@Override
-			public Cursor<O> end( Rook rook ) {
-				Optional<O> end = optional_ring_purl.end( rook );
-				if ( end.isPresent( ) ) {
-					return new SingletonCursor<O>( end.get( ) );
-				}
-				return null;
-			}
-		};
-		return wrap( new RingPurlCursor<I, O>( rook, wrapped, crp ) );
+		return wrap( OptionalPurlCursor.purl( rook, wrapped, optional_ring_purl ) );
 	}
 
 	/**
@@ -2280,18 +2600,14 @@ public class KnittingCursor<I> implements
 	 *           when this cursor is not in pristine state.
 	 * @since 1.0
 	 */
+	@SuppressWarnings("unchecked")
 	public <K> K reduce( K zero, BiFunction<K, I, K> bifunction )
 			throws IllegalStateException {
 		lock( );
-		K reduction = zero;
-		try {
-			for ( ;; ) {
-				reduction = bifunction.apply( reduction, wrapped.next( ) );
-			}
-		}
-		catch ( EndOfCursorException e ) {
-		}
-		return reduction;
+		Object[] reduction = { zero };
+		PushCursor.forEachRemaining( wrapped, element -> reduction[0] =
+				bifunction.apply( (K) reduction[0], element ) );
+		return (K) reduction[0];
 	}
 
 	/**
@@ -2312,13 +2628,8 @@ public class KnittingCursor<I> implements
 	public void roll( )
 			throws IllegalStateException {
 		lock( );
-		try {
-			for ( ;; ) {
-				wrapped.next( );
-			}
-		}
-		catch ( EndOfCursorException e ) {
-		}
+		PushCursor.forEachRemaining( wrapped, element -> {
+		} );
 	}
 
 	/**
@@ -2351,6 +2662,81 @@ public class KnittingCursor<I> implements
 		}
 	};
 
+	/**
+	 * <p>
+	 * {@code generate} returns a new {@code KnittingCursor} providing access to
+	 * the elements pushed by the argument {@code generator}.
+	 * </p>
+	 * 
+	 * <p>
+	 * At the first invocation of {@code next()} on the returned cursor, the
+	 * cursor starts a daemon thread that invokes the argument
+	 * {@code generator} with a sink. Each element passed to the sink is handed to
+	 * the thread invoking {@code next()} through a small buffer. When the buffer
+	 * is full, the sink blocks until the consumer catches up, so that memory
+	 * does not depend on the number of elements.
+	 * </p>
+	 * 
+	 * <p>
+	 * The cursor ends when the argument {@code generator} returns. When the
+	 * argument {@code generator} throws an exception, the cursor rethrows it
+	 * after returning all the elements pushed before the exception. The sink
+	 * must be invoked only by the thread running the argument {@code generator}.
+	 * </p>
+	 * 
+	 * <p>
+	 * When the argument {@code rook} is closed, the sink throws an exception
+	 * that unwinds the argument {@code generator}. The argument {@code rook} is
+	 * in charge of stopping the generator in the event that the returned cursor
+	 * is abandoned as garbage before reaching its end.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of elements pushed by the argument {@code generator}.
+	 * @param rook
+	 *          A rook.
+	 * @param generator
+	 *          A system that pushes elements into a sink.
+	 * @return A new {@code KnittingCursor} providing access to the elements
+	 *         pushed by the argument {@code generator}.
+	 * @since 1.0
+	 */
+	public static <K> KnittingCursor<K> generate( Rook rook,
+			Consumer<Consumer<? super K>> generator ) {
+		return wrap( HandoffCursor.generate( rook, generator, null ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code generate} returns a new {@code KnittingCursor} providing access to
+	 * the elements pushed by the argument {@code generator}, running the
+	 * argument {@code generator} on a thread created by the argument
+	 * {@code thread_factory}.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method behaves like {@link #generate(Rook, Consumer)}. On runtimes
+	 * supporting virtual threads, a factory of virtual threads avoids tying up a
+	 * platform thread for each generator.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of elements pushed by the argument {@code generator}.
+	 * @param rook
+	 *          A rook.
+	 * @param generator
+	 *          A system that pushes elements into a sink.
+	 * @param thread_factory
+	 *          A factory of threads for the argument {@code generator}.
+	 * @return A new {@code KnittingCursor} providing access to the elements
+	 *         pushed by the argument {@code generator}.
+	 * @since 1.0
+	 */
+	public static <K> KnittingCursor<K> generate( Rook rook,
+			Consumer<Consumer<? super K>> generator, ThreadFactory thread_factory ) {
+		return wrap( HandoffCursor.generate( rook, generator, thread_factory ) );
+	}
+
 	/**
 	 * <p>
 	 * {@code on} returns a new {@code KnittingCursor} providing access to the
@@ -17,15 +17,23 @@
  */
 package org.github.evenjn.knit;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
 import java.util.Vector;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.github.evenjn.lang.BasicEquivalencer;
 import org.github.evenjn.lang.BasicRook;
@@ -93,11 +101,14 @@ import org.github.evenjn.yarn.Tuple;
  * <li>{@link #asIterator()}</li>
  * <li>{@link #asKnittingCursable()}</li>
  * <li>{@link #asKnittingCursor()}</li>
+ * <li>{@link #asParallelStream()}</li>
  * <li>{@link #asStream()}</li>
  * <li>{@link #entwine(Tuple, BiFunction)}</li>
  * <li>{@link #head(int)}</li>
  * <li>{@link #headless(int)}</li>
  * <li>{@link #map(Function)}</li>
+ * <li>{@link #memoizedMap(Function)}</li>
+ * <li>{@link #memoizedMap(Function, int)}</li>
  * <li>{@link #numbered()}</li>
  * <li>{@link #prepend(Tuple)}</li>
  * <li>{@link #reverse()}</li>
@@ -123,9 +134,18 @@ import org.github.evenjn.yarn.Tuple;
  * <li>{@link #find(Object, int, Equivalencer)}</li>
  * <li>{@link #findSubtuple(Tuple, int)}</li>
  * <li>{@link #findSubtuple(Tuple, int, Equivalencer)}</li>
+ * <li>{@link #index()}</li>
  * <li>{@link #isEmpty()}</li>
+ * <li>{@link #materialize()}</li>
  * <li>{@link #one()}</li>
  * <li>{@link #optionalOne()}</li>
+ * <li>{@link #parallelCollect(Supplier, BiConsumer, BiConsumer)}</li>
+ * <li>{@link #parallelConsume(Ring)}</li>
+ * <li>{@link #parallelFindAll(Tuple)}</li>
+ * <li>{@link #parallelFindAll(Tuple, Function, Equivalencer)}</li>
+ * <li>{@link #parallelMap(Function)}</li>
+ * <li>{@link #parallelMaterialize()}</li>
+ * <li>{@link #parallelReduce(Object, BiFunction, BinaryOperator)}</li>
  * <li>{@link #reduce(Object, BiFunction)}</li>
  * <li>{@link #startsWith(Tuple)}</li>
  * <li>{@link #startsWith(Tuple, Equivalencer)}</li>
@@ -150,27 +170,22 @@ public class KnittingTuple<I> implements
 	 * after this tuple.
 	 * </p>
 	 * 
+	 * <p>
+	 * The sizes of the concatenated tuples are read at the time of this
+	 * invocation. Concatenations of concatenations are flattened, so that
+	 * accessing a slot of the view takes logarithmic time in the number of
+	 * concatenated tuples, however the view was built. Building a view by
+	 * repeated append and prepend takes amortized constant time per
+	 * invocation.
+	 * </p>
+	 * 
 	 * @param tail
 	 *          A tuple to concatenate after this tuple.
 	 * @return A view of the concatenation of the argument tuple after this tuple.
 	 * @since 1.0
 	 */
 	public KnittingTuple<I> append( Tuple<I> tail ) {
-		KnittingTuple<I> outer_this = this;
-		Tuple<I> result = new Tuple<I>( ) {
-
-			@Override
-			public I get( int index ) {
-				return index < outer_this.size( ) ? outer_this.get( index ) : tail
-						.get( index - outer_this.size( ) );
-			}
-
-			@Override
-			public int size( ) {
-				return outer_this.size( ) + tail.size( );
-			}
-		};
-		return wrap( result );
+		return wrap( ConcatenateTuple.concatenate( wrapped, unwrap( tail ) ) );
 	}
 
 	/**
@@ -242,17 +257,40 @@ public class KnittingTuple<I> implements
 		return KnittingCursor.wrap( pull( ) );
 	}
 
+	/**
+	 * <p>
+	 * {@code asParallelStream} returns a view of this tuple as a parallel
+	 * {@link java.util.stream.Stream Stream}.
+	 * </p>
+	 * 
+	 * <p>
+	 * The stream is split by ranges of slots, so the elements of this tuple must
+	 * be safe to access from several threads at once.
+	 * </p>
+	 * 
+	 * @return A view of this tuple as a parallel
+	 *         {@link java.util.stream.Stream Stream}.
+	 * @since 1.0
+	 */
+	public Stream<I> asParallelStream( ) {
+		return StreamSupport.stream( spliterator( ), true );
+	}
+
 	/**
 	 * <p>
 	 * {@code asStream} returns a view of this tuple as a
 	 * {@link java.util.stream.Stream Stream}.
 	 * </p>
 	 * 
+	 * <p>
+	 * The stream knows its exact size and may be turned into a parallel stream.
+	 * </p>
+	 * 
 	 * @return A view of this tuple as a {@link java.util.stream.Stream Stream}.
 	 * @since 1.0
 	 */
 	public Stream<I> asStream( ) {
-		return asKnittingCursor( ).asStream( );
+		return StreamSupport.stream( spliterator( ), false );
 	}
 
 	/**
@@ -293,7 +331,7 @@ public class KnittingTuple<I> implements
 	public void consume( Ring<? extends Consumer<? super I>> consumer_provider ) {
 		try ( BasicRook rook = new BasicRook( ) ) {
 			Consumer<? super I> consumer = consumer_provider.get( rook );
-			this.asKnittingCursor( ).peek( consumer ).roll( );
+			this.asKnittingCursor( ).consume( r -> consumer );
 		}
 	}
 
@@ -304,9 +342,11 @@ public class KnittingTuple<I> implements
 	 * </p>
 	 * 
 	 * <p>
-	 * This method invokes {@link KnittingTuple#contains(Tuple,Equivalencer)
-	 * contains(Tuple, Equivalencer)} using a
-	 * {@link org.github.evenjn.lang.BasicEquivalencer BasicEquivalencer}.
+	 * This method is equivalent to
+	 * {@link KnittingTuple#contains(Tuple,Equivalencer) contains(Tuple,
+	 * Equivalencer)} using a
+	 * {@link org.github.evenjn.lang.BasicEquivalencer BasicEquivalencer}, but
+	 * it runs in linear time, using {@link #findSubtuple(Tuple, int)}.
 	 * </p>
 	 * 
 	 * 
@@ -319,7 +359,9 @@ public class KnittingTuple<I> implements
 	 * @since 1.0
 	 */
 	public <Y> boolean contains( Tuple<Y> other ) {
-		return contains( other, private_equivalencer( ) );
+		if ( size( ) < other.size( ) )
+			return false;
+		return findSubtuple( other, 0 ).isPresent( );
 	}
 
 	/**
@@ -599,10 +641,13 @@ public class KnittingTuple<I> implements
 	 * </p>
 	 * 
 	 * <p>
-	 * This method invokes
+	 * This method is equivalent to
 	 * {@link KnittingTuple#findSubtuple(Tuple,int,Equivalencer)
 	 * findSubtuple(Tuple,int,Equivalencer)} using a
-	 * {@link org.github.evenjn.lang.BasicEquivalencer BasicEquivalencer}.
+	 * {@link org.github.evenjn.lang.BasicEquivalencer BasicEquivalencer}, but
+	 * it runs in linear time, using a {@link TuplePattern} compiled from the
+	 * argument tuple. To search several tuples for the same subtuple, compile
+	 * the pattern once with {@link TuplePattern#compile(Tuple)}.
 	 * </p>
 	 * 
 	 * @param <Y>
@@ -618,8 +663,12 @@ public class KnittingTuple<I> implements
 	 *           to the size of this tuple.
 	 * @since 1.0
 	 */
+	@SuppressWarnings("unchecked")
 	public <Y> Optional<Integer> findSubtuple( Tuple<Y> other, int skip ) {
-		return findSubtuple( other, skip, private_equivalencer( ) );
+		if ( skip > size( ) || skip < 0 ) {
+			throw new IllegalArgumentException( );
+		}
+		return TuplePattern.compile( (Tuple<Object>) other ).find( wrapped, skip );
 	}
 
 	/**
@@ -743,7 +792,7 @@ public class KnittingTuple<I> implements
 	 */
 	public KnittingTuple<I> head( int show ) {
 		int final_show = show < 0 ? 0 : show;
-		return wrap( new Subtuple<>( wrapped, 0, final_show ) );
+		return wrap( Subtuple.sub( wrapped, 0, final_show ) );
 	}
 
 	/**
@@ -772,7 +821,27 @@ public class KnittingTuple<I> implements
 	 */
 	public KnittingTuple<I> headless( int hide ) {
 		int final_hide = hide < 0 ? 0 : hide;
-		return wrap( new Subtuple<>( wrapped, final_hide, wrapped.size( ) ) );
+		return wrap( Subtuple.sub( wrapped, final_hide, wrapped.size( ) ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code index} returns a suffix array over the elements of this tuple,
+	 * which answers queries about repeated subtuples in time proportional to
+	 * the size of the query and to the logarithm of the size of this tuple.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method reads each element of this tuple once. The returned index does
+	 * not refer to this tuple.
+	 * </p>
+	 * 
+	 * @return A suffix array over the elements of this tuple.
+	 * @see TupleIndex
+	 * @since 1.0
+	 */
+	public TupleIndex<I> index( ) {
+		return TupleIndex.build( wrapped );
 	}
 
 	/**
@@ -806,6 +875,116 @@ public class KnittingTuple<I> implements
 		return wrap( new MapTuple<>( wrapped, stateless_function ) );
 	}
 
+	/**
+	 * <p>
+	 * {@code materialize} returns a tuple holding the elements of this tuple in
+	 * an array.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method invokes {@link #get(int)} once for each slot of this tuple, so
+	 * that the functions of views such as {@link #map(Function)} are applied
+	 * once for each element, rather than at each access. Subsequent accesses to
+	 * the returned tuple read the array.
+	 * </p>
+	 * 
+	 * <p>
+	 * When this tuple is already backed by an array or a list (or is a
+	 * subtuple of such a tuple), this method returns this tuple.
+	 * </p>
+	 * 
+	 * @return A tuple holding the elements of this tuple in an array.
+	 * @since 1.0
+	 */
+	public KnittingTuple<I> materialize( ) {
+		if ( compact( wrapped ) ) {
+			return this;
+		}
+		final int size = wrapped.size( );
+		Object[] array = new Object[size];
+		for ( int i = 0; i < size; i++ ) {
+			array[i] = wrapped.get( i );
+		}
+		return private_wrap( array );
+	}
+
+	/**
+	 * <p>
+	 * {@code memoizedMap} returns a view. For each element {@code E} of this
+	 * tuple, the view shows the element returned by the argument
+	 * {@code stateless_function} when invoked with argument {@code E}.
+	 * </p>
+	 * 
+	 * <p>
+	 * Unlike {@link #map(Function)}, the view stores the element returned by the
+	 * argument {@code stateless_function} the first time each slot is
+	 * accessed, and returns the stored element at subsequent accesses. The view
+	 * may be accessed by concurrent threads, which share the stored elements.
+	 * Threads accessing the same slot for the first time at the same time may
+	 * invoke the argument {@code stateless_function} more than once, but they
+	 * all return the same element.
+	 * </p>
+	 * 
+	 * <p>
+	 * The size of this tuple is read at the time of this invocation.
+	 * </p>
+	 * 
+	 * @param <O>
+	 *          The type of elements returned by the argument
+	 *          {@code stateless_function}.
+	 * @param stateless_function
+	 *          A stateless function.
+	 * @return A complex view.
+	 * @since 1.0
+	 */
+	public <O> KnittingTuple<O> memoizedMap(
+			Function<? super I, O> stateless_function ) {
+		return wrap( new MemoizedMapTuple<>( wrapped, stateless_function ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code memoizedMap} returns a view. For each element {@code E} of this
+	 * tuple, the view shows the element returned by the argument
+	 * {@code stateless_function} when invoked with argument {@code E}.
+	 * </p>
+	 * 
+	 * <p>
+	 * Unlike {@link #memoizedMap(Function)}, the view stores the elements of
+	 * at most {@code max_cached} slots, evicting the least recently accessed
+	 * slot when full. This suits tuples too large to store an element for
+	 * each slot, accessed with some locality.
+	 * </p>
+	 * 
+	 * <p>
+	 * The slots are divided by index among up to sixteen segments, each with
+	 * its own lock and its own share of {@code max_cached}, so that threads
+	 * accessing different slots rarely contend. Eviction is least recently
+	 * accessed within each segment.
+	 * </p>
+	 * 
+	 * @param <O>
+	 *          The type of elements returned by the argument
+	 *          {@code stateless_function}.
+	 * @param stateless_function
+	 *          A stateless function.
+	 * @param max_cached
+	 *          The maximum number of slots whose elements are stored.
+	 * @return A complex view.
+	 * @throws IllegalArgumentException
+	 *           when {@code max_cached} is not positive.
+	 * @since 1.0
+	 */
+	public <O> KnittingTuple<O> memoizedMap(
+			Function<? super I, O> stateless_function, int max_cached )
+			throws IllegalArgumentException {
+		if ( max_cached < 1 ) {
+			throw new IllegalArgumentException( "max_cached must be positive" );
+		}
+		return wrap(
+				new LruMapTuple<>( wrapped, stateless_function, max_cached ) );
+	}
+
 	/**
 	 * <p>
 	 * {@code numbered} returns a view. For each element {@code E} of this tuple,
@@ -859,12 +1038,270 @@ public class KnittingTuple<I> implements
 		}
 	}
 
+	/**
+	 * <p>
+	 * {@code parallelCollect} returns a container holding all the elements of
+	 * this tuple, computed in parallel on the common fork-join pool.
+	 * </p>
+	 * 
+	 * <p>
+	 * The slots of this tuple are split into ranges, sized after the number of
+	 * available processors. For each range, this method obtains a container from
+	 * the argument {@code supplier} and adds to it the elements in the range
+	 * using the argument {@code accumulator}. Then, this method merges the
+	 * containers in order, invoking the argument {@code combiner} to merge the
+	 * second container into the first.
+	 * </p>
+	 * 
+	 * <p>
+	 * When this tuple is empty, this method returns a container obtained from
+	 * the argument {@code supplier}.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of container.
+	 * @param supplier
+	 *          A system that provides new empty containers.
+	 * @param accumulator
+	 *          A stateless function that adds an element to a container.
+	 * @param combiner
+	 *          A stateless function that adds all the elements of the second
+	 *          container to the first container.
+	 * @return A container holding all the elements of this tuple.
+	 * @since 1.0
+	 */
+	public <K> K parallelCollect( Supplier<K> supplier,
+			BiConsumer<K, ? super I> accumulator, BiConsumer<K, K> combiner ) {
+		K result = TupleForkJoin.collect( wrapped, supplier, accumulator,
+				combiner );
+		return result == null ? supplier.get( ) : result;
+	}
+
+	/**
+	 * <p>
+	 * {@code parallelConsume} feeds consumers with the elements of this tuple,
+	 * in parallel on the common fork-join pool.
+	 * </p>
+	 * 
+	 * <p>
+	 * The slots of this tuple are split into ranges, sized after the number of
+	 * available processors. Each worker thread obtains its own consumer from the
+	 * argument {@code consumer_provider}, hooking it to a local, temporary rook
+	 * shared by all workers, and passes to it the objects in the ranges it
+	 * processes. Invocations of the argument {@code consumer_provider} are
+	 * serialized. When all the slots have been processed, the rook is closed.
+	 * </p>
+	 * 
+	 * <p>
+	 * Each consumer sees the elements of each of its ranges in order, but there
+	 * is no guarantee on the order in which ranges are processed.
+	 * </p>
+	 * 
+	 * @param consumer_provider
+	 *          A system that provides consumers.
+	 * @since 1.0
+	 */
+	public void parallelConsume(
+			Ring<? extends Consumer<? super I>> consumer_provider ) {
+		TupleForkJoin.consume( wrapped, consumer_provider );
+	}
+
+	/**
+	 * <p>
+	 * {@code parallelFindAll} returns a cursor providing access to the indexes
+	 * of the first slots of all the subtuples of this tuple that are equal to
+	 * the argument tuple, in increasing order.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method is equivalent to
+	 * {@link #parallelFindAll(Tuple, Function, Equivalencer)} using
+	 * {@link java.util.Objects#hashCode(Object) Objects.hashCode} and a
+	 * {@link org.github.evenjn.lang.BasicEquivalencer BasicEquivalencer}.
+	 * </p>
+	 * 
+	 * @param <Y>
+	 *          The type of elements in the argument tuple.
+	 * @param other
+	 *          A tuple.
+	 * @return A cursor providing access to the indexes of the first slots of
+	 *         all the subtuples equal to the argument tuple.
+	 * @since 1.0
+	 */
+	@SuppressWarnings("unchecked")
+	public <Y> KnittingCursor<Integer> parallelFindAll( Tuple<Y> other ) {
+		return parallelFindAll( (Tuple<I>) other, Objects::hashCode,
+				private_equivalencer( ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code parallelFindAll} returns a cursor providing access to the indexes
+	 * of the first slots of all the subtuples of this tuple whose elements are
+	 * equivalent to the elements of the argument tuple, in increasing order.
+	 * Matching subtuples may overlap. When the argument tuple is empty, every
+	 * index from zero to the size of this tuple (included) is provided.
+	 * </p>
+	 * 
+	 * <p>
+	 * This tuple is split into chunks, overlapping by the size of the argument
+	 * tuple minus one, which are searched in parallel on the common fork-join
+	 * pool. Each chunk rolls a hash of the hashes of the elements over a window
+	 * as large as the argument tuple, and invokes the argument
+	 * {@code equivalencer} only where the hash of the window equals the hash of
+	 * the argument tuple. The search takes time linear in the size of this
+	 * tuple, plus the time to verify the candidates, and holds one array of
+	 * positions per chunk.
+	 * </p>
+	 * 
+	 * <p>
+	 * The argument {@code hasher} and {@code equivalencer} must be invoked
+	 * safely from several threads, and the hasher must assign equal integers to
+	 * equivalent objects. The search is complete when this method returns.
+	 * </p>
+	 * 
+	 * @param other
+	 *          A tuple.
+	 * @param hasher
+	 *          A function that assigns equal integers to equivalent objects.
+	 * @param equivalencer
+	 *          An equivalencer.
+	 * @return A cursor providing access to the indexes of the first slots of
+	 *         all the subtuples equivalent to the argument tuple.
+	 * @since 1.0
+	 */
+	public KnittingCursor<Integer> parallelFindAll( Tuple<? extends I> other,
+			Function<? super I, Integer> hasher,
+			Equivalencer<I, I> equivalencer ) {
+		final int[][] chunks =
+				TupleForkJoin.findAll( wrapped, other, hasher, equivalencer );
+		return KnittingCursor.wrap( new Cursor<Integer>( ) {
+
+			private int chunk = 0;
+
+			private int position = 0;
+
+			@Override
+			public Integer next( )
+					throws EndOfCursorException {
+				while ( chunk < chunks.length && position == chunks[chunk].length ) {
+					chunks[chunk++] = null;
+					position = 0;
+				}
+				if ( chunk == chunks.length ) {
+					throw EndOfCursorException.neo( );
+				}
+				return chunks[chunk][position++];
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code parallelMap} returns a new tuple. For each element {@code E} of
+	 * this tuple, the new tuple holds the element returned by the argument
+	 * {@code stateless_function} when invoked with argument {@code E}.
+	 * </p>
+	 * 
+	 * <p>
+	 * Unlike {@link #map(Function)}, this method invokes the argument
+	 * {@code stateless_function} exactly once for each element, in parallel on
+	 * the common fork-join pool, and stores the results into a new array. The
+	 * slots of this tuple are split into ranges, sized after the number of
+	 * available processors.
+	 * </p>
+	 * 
+	 * @param <O>
+	 *          The type of elements returned by the argument
+	 *          {@code stateless_function}.
+	 * @param stateless_function
+	 *          A stateless function.
+	 * @return A new tuple backed by an array.
+	 * @since 1.0
+	 */
+	public <O> KnittingTuple<O> parallelMap(
+			Function<? super I, O> stateless_function ) {
+		return private_wrap( TupleForkJoin.map( wrapped, stateless_function ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code parallelMaterialize} returns a tuple holding the elements of this
+	 * tuple in an array, computed in parallel on the common fork-join pool.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method behaves like {@link #materialize()}, except that the slots of
+	 * this tuple are split into ranges, sized after the number of available
+	 * processors, which are read in parallel. This tuple must support
+	 * concurrent invocations of {@link #get(int)}.
+	 * </p>
+	 * 
+	 * @return A tuple holding the elements of this tuple in an array.
+	 * @since 1.0
+	 */
+	public KnittingTuple<I> parallelMaterialize( ) {
+		if ( compact( wrapped ) ) {
+			return this;
+		}
+		return private_wrap( TupleForkJoin.map( wrapped, x -> x ) );
+	}
+
+	/**
+	 * <p>
+	 * {@code parallelReduce} returns the result of a computation taking into
+	 * account all the elements of this tuple, performed in parallel on the
+	 * common fork-join pool.
+	 * </p>
+	 * 
+	 * <p>
+	 * The slots of this tuple are split into ranges, sized after the number of
+	 * available processors. Each range is reduced as in
+	 * {@link #reduce(Object, BiFunction)}, starting from the argument
+	 * {@code zero}. Then, the partial results are merged in order using the
+	 * argument {@code combiner}.
+	 * </p>
+	 * 
+	 * <p>
+	 * The argument {@code combiner} must be associative, and the argument
+	 * {@code zero} must be an identity for it. For example, when reducing with
+	 * a sum, {@code zero} must be {@code 0}.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of argument {@code zero} and of the elements returned by
+	 *          the argument {@code accumulator}.
+	 * @param zero
+	 *          The initial value for the reduction of each range.
+	 * @param accumulator
+	 *          A stateless bifunction that will be invoked once for each element
+	 *          of this tuple.
+	 * @param combiner
+	 *          An associative bifunction that merges two partial results.
+	 * @return the result of a computation taking into account all the elements of
+	 *         this tuple.
+	 * @since 1.0
+	 */
+	public <K> K parallelReduce( K zero, BiFunction<K, ? super I, K> accumulator,
+			BinaryOperator<K> combiner ) {
+		return TupleForkJoin.reduce( wrapped, zero, accumulator, combiner );
+	}
+
 	/**
 	 * <p>
 	 * {@code prepend} returns a view of the concatenation of the argument tuple
 	 * before this tuple.
 	 * </p>
 	 * 
+	 * <p>
+	 * The sizes of the concatenated tuples are read at the time of this
+	 * invocation. Concatenations of concatenations are flattened, so that
+	 * accessing a slot of the view takes logarithmic time in the number of
+	 * concatenated tuples, however the view was built. Building a view by
+	 * repeated append and prepend takes amortized constant time per
+	 * invocation.
+	 * </p>
+	 * 
 	 * @param head
 	 *          A tuple to concatenate before this tuple.
 	 * @return A view of the concatenation of the argument tuple before this
@@ -872,21 +1309,7 @@ public class KnittingTuple<I> implements
 	 * @since 1.0
 	 */
 	public KnittingTuple<I> prepend( Tuple<I> head ) {
-		KnittingTuple<I> outer_this = this;
-		Tuple<I> result = new Tuple<I>( ) {
-
-			@Override
-			public I get( int index ) {
-				return index < head.size( ) ? head.get( index ) : outer_this
-						.get( index - head.size( ) );
-			}
-
-			@Override
-			public int size( ) {
-				return head.size( ) + outer_this.size( );
-			}
-		};
-		return wrap( result );
+		return wrap( ConcatenateTuple.concatenate( unwrap( head ), wrapped ) );
 	}
 
 	/**
@@ -917,17 +1340,8 @@ public class KnittingTuple<I> implements
 	 * @since 1.0
 	 */
 	public <K> K reduce( K zero, BiFunction<K, I, K> bifunction ) {
-		K reduction = zero;
 		try ( BasicRook rook = new BasicRook( ) ) {
-			Cursor<I> kc = pull( );
-			try {
-				for ( ;; ) {
-					reduction = bifunction.apply( reduction, kc.next( ) );
-				}
-			}
-			catch ( EndOfCursorException e ) {
-			}
-			return reduction;
+			return asKnittingCursor( ).reduce( zero, bifunction );
 		}
 	}
 
@@ -941,20 +1355,7 @@ public class KnittingTuple<I> implements
 	 * @since 1.0
 	 */
 	public KnittingTuple<I> reverse( ) {
-		int len = size( );
-		KnittingTuple<I> outer_this = this;
-		return wrap( new Tuple<I>( ) {
-
-			@Override
-			public I get( int index ) {
-				return outer_this.get( len - ( index + 1 ) );
-			}
-
-			@Override
-			public int size( ) {
-				return len;
-			}
-		} );
+		return wrap( ReverseTuple.reverse( wrapped ) );
 	}
 
 	/**
@@ -971,21 +1372,32 @@ public class KnittingTuple<I> implements
 		return wrapped.size( );
 	}
 
-	private Cursor<I> pull( ) {
-		return new Cursor<I>( ) {
+	@SuppressWarnings("unchecked")
+	private static <K> KnittingTuple<K> private_wrap( Object[] array ) {
+		return wrap( new ArrayTuple<>( (K[]) array ) );
+	}
 
-			final int size = wrapped.size( );
+	private static boolean compact( Tuple<?> tuple ) {
+		if ( tuple instanceof Subtuple ) {
+			tuple = ( (Subtuple<?>) tuple ).whole( );
+		}
+		return tuple instanceof ArrayTuple || tuple instanceof ArrayListTuple
+				|| tuple instanceof VectorTuple;
+	}
 
-			int i = 0;
+	private static <K> Tuple<K> unwrap( Tuple<K> tuple ) {
+		if ( tuple instanceof KnittingTuple ) {
+			return ( (KnittingTuple<K>) tuple ).wrapped;
+		}
+		return tuple;
+	}
 
-			@Override
-			public I next( )
-					throws EndOfCursorException {
-				if ( i >= size )
-					throw EndOfCursorException.neo( );
-				return wrapped.get( i++ );
-			}
-		};
+	private Cursor<I> pull( ) {
+		return new TupleCursor<>( wrapped );
+	}
+
+	private Spliterator<I> spliterator( ) {
+		return new TupleSpliterator<>( wrapped, 0, wrapped.size( ) );
 	}
 
 	/**
@@ -1078,7 +1490,7 @@ public class KnittingTuple<I> implements
 		if ( n > m ) {
 			throw new IllegalArgumentException( );
 		}
-		return wrap( new Subtuple<>( wrapped, n, m - n ) );
+		return wrap( Subtuple.sub( wrapped, n, m - n ) );
 	}
 
 	/**
@@ -1118,7 +1530,7 @@ public class KnittingTuple<I> implements
 		}
 		int final_len = len;
 		int final_skip = skip;
-		return wrap( new Subtuple<>( wrapped, final_skip, final_len ) );
+		return wrap( Subtuple.sub( wrapped, final_skip, final_len ) );
 	}
 
 	/**
@@ -1152,7 +1564,7 @@ public class KnittingTuple<I> implements
 			len = 0;
 		}
 		int final_len = len;
-		return wrap( new Subtuple<>( wrapped, 0, final_len ) );
+		return wrap( Subtuple.sub( wrapped, 0, final_len ) );
 	}
 
 	private KnittingTuple(Tuple<I> tuple) {
@@ -1201,6 +1613,50 @@ public class KnittingTuple<I> implements
 	private final static BasicEquivalencer<Object, Object> basic_equivalencer =
 			new BasicEquivalencer<Object, Object>( );
 
+	/**
+	 * <p>
+	 * {@code mapped} returns a new {@code KnittingTuple} providing access to the
+	 * fixed-width records stored in the argument {@code file}.
+	 * </p>
+	 * 
+	 * <p>
+	 * The file is mapped into memory, and is not read at the time of this
+	 * invocation. At each invocation of {@link #get(int)}, the returned tuple
+	 * invokes the argument {@code decoder} on the bytes of the record in that
+	 * slot. All views of the returned tuple, such as {@link #subTuple(int, int)}
+	 * and {@link #reverse()}, access the records in the same way, without
+	 * copying them.
+	 * </p>
+	 * 
+	 * <p>
+	 * The file should not be modified while the returned tuple is in use.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of objects returned by the argument {@code decoder}.
+	 * @param file
+	 *          A file of fixed-width records.
+	 * @param record_size
+	 *          The size of each record, in bytes.
+	 * @param decoder
+	 *          A stateless system that decodes records.
+	 * @return A new {@code KnittingTuple} providing access to the records in the
+	 *         argument {@code file}.
+	 * @throws IOException
+	 *           when the file cannot be opened or mapped.
+	 * @throws IllegalArgumentException
+	 *           when {@code record_size} is not positive, when the size of the
+	 *           file is not a multiple of {@code record_size}, or when the file
+	 *           holds more than {@code Integer.MAX_VALUE} records.
+	 * @since 1.0
+	 */
+	public static <K> KnittingTuple<K> mapped( Path file, int record_size,
+			RecordDecoder<K> decoder )
+			throws IOException,
+			IllegalArgumentException {
+		return wrap( new MappedTuple<>( file, record_size, decoder ) );
+	}
+
 	/**
 	 * <p>
 	 * {@code on} returns a new {@code KnittingTuple} providing access to the
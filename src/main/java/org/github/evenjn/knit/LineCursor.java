@@ -0,0 +1,215 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+
+/*
+ * Splits the content of a UTF-8 text file into lines.
+ * 
+ * The file is read through a channel into a large buffer, which is scanned
+ * for newline bytes. This is safe in UTF-8, where bytes of multi-byte
+ * sequences never look like ASCII characters. A line that spans two reads is
+ * accumulated in a separate array. Lines made of ASCII bytes only, which are
+ * the most common by far, are converted to strings without going through the
+ * UTF-8 decoder.
+ * 
+ * Lines are terminated by '\n', optionally preceded by '\r', which is
+ * removed. The last line need not be terminated.
+ * 
+ * A cursor may be restricted to a range of bytes. It then returns the lines
+ * whose first byte falls in the range, including the part of the last line
+ * that extends beyond the range. To find the first line, it starts reading at
+ * the byte before the range and skips through the first '\n'. Adjacent ranges
+ * therefore return each line exactly once.
+ */
+class LineCursor implements
+		Cursor<String>,
+		AutoCloseable {
+
+	private static final int buffer_size = 1 << 16;
+
+	private final FileChannel channel;
+
+	private final ByteBuffer buffer = ByteBuffer.allocate( buffer_size );
+
+	private final byte[] bytes = buffer.array( );
+
+	private int position = 0;
+
+	private int limit = 0;
+
+	private byte[] carry = new byte[256];
+
+	private int carry_length = 0;
+
+	private boolean closed = false;
+
+	private final long end;
+
+	private long base;
+
+	private boolean skip;
+
+	LineCursor(Path file) throws IOException {
+		this( file, 0, Long.MAX_VALUE );
+	}
+
+	LineCursor(Path file, long start, long end) throws IOException {
+		this.channel = FileChannel.open( file, StandardOpenOption.READ );
+		this.end = end;
+		this.skip = start > 0;
+		this.base = skip ? start - 1 : 0;
+		try {
+			channel.position( base );
+		}
+		catch ( IOException e ) {
+			channel.close( );
+			throw e;
+		}
+	}
+
+	private static String decode( byte[] array, int from, int to ) {
+		if ( to > from && array[to - 1] == '\r' ) {
+			to--;
+		}
+		for ( int i = from; i < to; i++ ) {
+			if ( array[i] < 0 ) {
+				return new String( array, from, to - from, StandardCharsets.UTF_8 );
+			}
+		}
+		return new String( array, from, to - from, StandardCharsets.ISO_8859_1 );
+	}
+
+	private void carry( int from, int to ) {
+		int length = to - from;
+		if ( carry_length + length > carry.length ) {
+			byte[] larger =
+					new byte[Math.max( carry.length * 2, carry_length + length )];
+			System.arraycopy( carry, 0, larger, 0, carry_length );
+			carry = larger;
+		}
+		System.arraycopy( bytes, from, carry, carry_length, length );
+		carry_length += length;
+	}
+
+	private boolean fill( ) {
+		base += limit;
+		buffer.clear( );
+		try {
+			int read;
+			do {
+				read = channel.read( buffer );
+			}
+			while ( read == 0 );
+			position = 0;
+			limit = read < 0 ? 0 : read;
+			return read > 0;
+		}
+		catch ( IOException e ) {
+			throw new UncheckedIOException( e );
+		}
+	}
+
+	@Override
+	public String next( )
+			throws EndOfCursorException {
+		if ( closed ) {
+			throw EndOfCursorException.neo( );
+		}
+		if ( skip ) {
+			skipFirst( );
+		}
+		if ( base + position >= end ) {
+			close( );
+			throw EndOfCursorException.neo( );
+		}
+		for ( ;; ) {
+			final byte[] bytes = this.bytes;
+			final int limit = this.limit;
+			for ( int i = position; i < limit; i++ ) {
+				if ( bytes[i] == '\n' ) {
+					String line;
+					if ( carry_length == 0 ) {
+						line = decode( bytes, position, i );
+					}
+					else {
+						carry( position, i );
+						line = decode( carry, 0, carry_length );
+						carry_length = 0;
+					}
+					position = i + 1;
+					return line;
+				}
+			}
+			carry( position, limit );
+			position = limit;
+			if ( !fill( ) ) {
+				close( );
+				if ( carry_length > 0 ) {
+					String line = decode( carry, 0, carry_length );
+					carry_length = 0;
+					return line;
+				}
+				throw EndOfCursorException.neo( );
+			}
+		}
+	}
+
+	/*
+	 * Skips the bytes up to the first '\n', which ends the line that precedes
+	 * the range, or the byte before the range when that byte is a '\n'.
+	 */
+	private void skipFirst( ) {
+		skip = false;
+		for ( ;; ) {
+			for ( int i = position; i < limit; i++ ) {
+				if ( bytes[i] == '\n' ) {
+					position = i + 1;
+					return;
+				}
+			}
+			position = limit;
+			if ( !fill( ) ) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void close( ) {
+		if ( !closed ) {
+			closed = true;
+			try {
+				channel.close( );
+			}
+			catch ( IOException e ) {
+				throw new UncheckedIOException( e );
+			}
+		}
+	}
+}
@@ -0,0 +1,625 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.OptionalInt;
+
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.github.evenjn.yarn.Tuple;
+
+/**
+ * 
+ * <h1>LongKnittingTuple</h1>
+ * 
+ * <p>
+ * A {@code LongKnittingTuple} provides access to a sequence of {@code long} values
+ * stored in a {@code long[]} array, without boxing them.
+ * </p>
+ * 
+ * <p>
+ * {@code LongKnittingTuple} is the primitive counterpart of
+ * {@link KnittingTuple}. Views such as {@link #head(int)}, {@link #subTuple(int,
+ * int)} and {@link #reverse()} share the array with the tuple they are obtained
+ * from, and are created in constant time. The array must not be modified while
+ * it is accessed via an {@code LongKnittingTuple}.
+ * </p>
+ * 
+ * <p>
+ * Transformations are methods that return a new {@code LongKnittingTuple}
+ * object (or something similar). The following methods are transformations:
+ * </p>
+ * 
+ * <ul>
+ * <li>{@link #append(LongKnittingTuple)}</li>
+ * <li>{@link #asLongKnittingCursor()}</li>
+ * <li>{@link #boxed()}</li>
+ * <li>{@link #head(int)}</li>
+ * <li>{@link #headless(int)}</li>
+ * <li>{@link #prepend(LongKnittingTuple)}</li>
+ * <li>{@link #reverse()}</li>
+ * <li>{@link #subTuple(int, int)}</li>
+ * <li>{@link #tail(int)}</li>
+ * <li>{@link #tailless(int)}</li>
+ * </ul>
+ *
+ * <p>
+ * Other methods are:
+ * </p>
+ * 
+ * <ul>
+ * <li>{@link #contains(LongKnittingTuple)}</li>
+ * <li>{@link #endsWith(LongKnittingTuple)}</li>
+ * <li>{@link #equivalentTo(LongKnittingTuple)}</li>
+ * <li>{@link #find(long, int)}</li>
+ * <li>{@link #findSubtuple(LongKnittingTuple, int)}</li>
+ * <li>{@link #get(int)}</li>
+ * <li>{@link #isEmpty()}</li>
+ * <li>{@link #size()}</li>
+ * <li>{@link #startsWith(LongKnittingTuple)}</li>
+ * <li>{@link #toArray()}</li>
+ * </ul>
+ *
+ * <p>
+ * This class is part of package {@link org.github.evenjn.knit Knit}.
+ * </p>
+ * 
+ * @since 1.0
+ */
+public class LongKnittingTuple {
+
+	private final long[] array;
+
+	private final int start;
+
+	private final int size;
+
+	private final boolean reversed;
+
+	private LongKnittingTuple(long[] array, int start, int size, boolean reversed) {
+		this.array = array;
+		this.start = start;
+		this.size = size;
+		this.reversed = reversed;
+	}
+
+	/*
+	 * Returns a view of the slots of this tuple between n (included) and n +
+	 * length (excluded), without checking the arguments.
+	 */
+	private LongKnittingTuple private_sub( int n, int length ) {
+		if ( reversed ) {
+			return new LongKnittingTuple( array, start + size - n - length, length,
+					true );
+		}
+		return new LongKnittingTuple( array, start + n, length, false );
+	}
+
+	private long private_get( int index ) {
+		return reversed ? array[start + size - 1 - index] : array[start + index];
+	}
+
+	/**
+	 * <p>
+	 * {@code append} returns a new tuple containing the values of this tuple
+	 * followed by the values of the argument tuple.
+	 * </p>
+	 * 
+	 * <p>
+	 * Unlike {@link KnittingTuple#append(Tuple)}, this method copies the values
+	 * into a new array, so that the result provides direct access to its values.
+	 * </p>
+	 * 
+	 * @param tail
+	 *          A tuple to concatenate after this tuple.
+	 * @return A new tuple containing the values of this tuple followed by the
+	 *         values of the argument tuple.
+	 * @since 1.0
+	 */
+	public LongKnittingTuple append( LongKnittingTuple tail ) {
+		long[] result = new long[size + tail.size];
+		copy( this, result, 0 );
+		copy( tail, result, size );
+		return wrap( result );
+	}
+
+	private static void copy( LongKnittingTuple tuple, long[] target, int offset ) {
+		if ( !tuple.reversed ) {
+			System.arraycopy( tuple.array, tuple.start, target, offset, tuple.size );
+			return;
+		}
+		for ( int i = 0; i < tuple.size; i++ ) {
+			target[offset + i] = tuple.private_get( i );
+		}
+	}
+
+	/**
+	 * <p>
+	 * {@code asLongKnittingCursor} returns a view of the values of this tuple, in
+	 * the form of a {@link LongKnittingCursor}.
+	 * </p>
+	 * 
+	 * @return A view of the values of this tuple, in the form of a
+	 *         {@link LongKnittingCursor}.
+	 * @since 1.0
+	 */
+	public LongKnittingCursor asLongKnittingCursor( ) {
+		return LongKnittingCursor.wrap( new LongCursor( ) {
+
+			private int i = 0;
+
+			@Override
+			public long next( )
+					throws EndOfCursorException {
+				if ( i >= size ) {
+					throw EndOfCursorException.neo( );
+				}
+				return private_get( i++ );
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code boxed} returns a view of the values of this tuple as {@code Long}
+	 * objects, in the form of a {@link KnittingTuple}.
+	 * </p>
+	 * 
+	 * <p>
+	 * The values are boxed each time they are accessed via the returned view.
+	 * </p>
+	 * 
+	 * @return A view of the values of this tuple as {@code Long} objects.
+	 * @since 1.0
+	 */
+	public KnittingTuple<Long> boxed( ) {
+		return KnittingTuple.wrap( new Tuple<Long>( ) {
+
+			@Override
+			public Long get( int index ) {
+				return LongKnittingTuple.this.get( index );
+			}
+
+			@Override
+			public int size( ) {
+				return size;
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code contains} returns {@code true} when the argument tuple is a
+	 * subtuple of this tuple; {@code false} otherwise.
+	 * </p>
+	 * 
+	 * @param other
+	 *          Another tuple.
+	 * @return {@code true} when the argument tuple is a subtuple of this tuple;
+	 *         {@code false} otherwise.
+	 * @since 1.0
+	 */
+	public boolean contains( LongKnittingTuple other ) {
+		return findSubtuple( other, 0 ).isPresent( );
+	}
+
+	/**
+	 * <p>
+	 * {@code endsWith} returns {@code true} when the argument tuple is a suffix
+	 * of this tuple; {@code false} otherwise.
+	 * </p>
+	 * 
+	 * @param other
+	 *          Another tuple.
+	 * @return {@code true} when the argument tuple is a suffix of this tuple;
+	 *         {@code false} otherwise.
+	 * @since 1.0
+	 */
+	public boolean endsWith( LongKnittingTuple other ) {
+		if ( size < other.size ) {
+			return false;
+		}
+		return matches( size - other.size, other );
+	}
+
+	/**
+	 * <p>
+	 * {@code equivalentTo} returns {@code true} when the argument tuple contains
+	 * the same values as this tuple, in the same order; {@code false}
+	 * otherwise.
+	 * </p>
+	 * 
+	 * @param other
+	 *          Another tuple.
+	 * @return {@code true} when the argument tuple contains the same values as
+	 *         this tuple, in the same order; {@code false} otherwise.
+	 * @since 1.0
+	 */
+	public boolean equivalentTo( LongKnittingTuple other ) {
+		return size == other.size && matches( 0, other );
+	}
+
+	/*
+	 * Returns true when the argument tuple appears in this tuple at the argument
+	 * offset. The caller guarantees that the argument tuple fits.
+	 */
+	private boolean matches( int offset, LongKnittingTuple other ) {
+		for ( int k = 0; k < other.size; k++ ) {
+			if ( private_get( offset + k ) != other.private_get( k ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * {@code find} returns the index of the first slot containing the argument
+	 * value, if such a slot exists with index greater than or equal to the
+	 * argument {@code skip}.
+	 * </p>
+	 * 
+	 * @param value
+	 *          A value.
+	 * @param skip
+	 *          The number of slots to skip.
+	 * @return The optional found slot index.
+	 * @throws IllegalArgumentException
+	 *           when {@code skip} is negative, or when it is larger than the size
+	 *           of this tuple.
+	 * @since 1.0
+	 */
+	public OptionalInt find( long value, int skip ) {
+		if ( skip > size || skip < 0 ) {
+			throw new IllegalArgumentException( );
+		}
+		for ( int i = skip; i < size; i++ ) {
+			if ( private_get( i ) == value ) {
+				return OptionalInt.of( i );
+			}
+		}
+		return OptionalInt.empty( );
+	}
+
+	/**
+	 * <p>
+	 * {@code findSubtuple} returns the index of the first slot of a subtuple
+	 * equal to the argument tuple, if such a subtuple exists with index greater
+	 * than or equal to the argument {@code skip}.
+	 * </p>
+	 * 
+	 * @param other
+	 *          Another tuple.
+	 * @param skip
+	 *          The number of slots to skip.
+	 * @return The index of the first slot of a subtuple equal to the argument
+	 *         tuple, if such a subtuple exists.
+	 * @throws IllegalArgumentException
+	 *           when {@code skip} is negative, or when it is larger than the size
+	 *           of this tuple.
+	 * @since 1.0
+	 */
+	public OptionalInt findSubtuple( LongKnittingTuple other, int skip ) {
+		if ( skip > size || skip < 0 ) {
+			throw new IllegalArgumentException( );
+		}
+		if ( other.size == 0 ) {
+			return OptionalInt.of( skip );
+		}
+		int limit = size - other.size;
+		long first = other.private_get( 0 );
+		for ( int i = skip; i <= limit; i++ ) {
+			if ( private_get( i ) == first && matches( i, other ) ) {
+				return OptionalInt.of( i );
+			}
+		}
+		return OptionalInt.empty( );
+	}
+
+	/**
+	 * <p>
+	 * {@code get} returns the value in the slot with the argument
+	 * {@code index}.
+	 * </p>
+	 * 
+	 * @param index
+	 *          A natural number. It must be non-negative.
+	 * @return The value in the slot with the argument {@code index}.
+	 * @throws IllegalArgumentException
+	 *           when {@code index} is negative, or when it is larger than or
+	 *           equal to the size of this tuple.
+	 * @since 1.0
+	 */
+	public long get( int index ) {
+		if ( index < 0 || index >= size ) {
+			throw new IllegalArgumentException( );
+		}
+		return private_get( index );
+	}
+
+	/**
+	 * <p>
+	 * {@code head} returns a view showing the first {@code show} values in this
+	 * tuple.
+	 * </p>
+	 * 
+	 * <p>
+	 * The returned view may contain less than {@code show} values. This happens
+	 * when this tuple's size is smaller than {@code show}.
+	 * </p>
+	 * 
+	 * @param show
+	 *          The number of values to show. A negative numbers counts as zero.
+	 * @return A view showing the first {@code show} values in this tuple.
+	 * @since 1.0
+	 */
+	public LongKnittingTuple head( int show ) {
+		int final_show = show < 0 ? 0 : show > size ? size : show;
+		return private_sub( 0, final_show );
+	}
+
+	/**
+	 * <p>
+	 * {@code headless} returns a view hiding the first {@code hide} values of
+	 * this tuple.
+	 * </p>
+	 * 
+	 * <p>
+	 * The returned view may be empty. This happens when this tuple's size is
+	 * smaller than {@code hide}.
+	 * </p>
+	 * 
+	 * @param hide
+	 *          The number of values to hide. A negative numbers counts as zero.
+	 * @return A view hiding the first {@code hide} values of this tuple.
+	 * @since 1.0
+	 */
+	public LongKnittingTuple headless( int hide ) {
+		int final_hide = hide < 0 ? 0 : hide > size ? size : hide;
+		return private_sub( final_hide, size - final_hide );
+	}
+
+	/**
+	 * <p>
+	 * {@code isEmpty} returns {@code true} when the size of this tuple is zero.
+	 * </p>
+	 * 
+	 * @return {@code true} when the size of this tuple is zero.
+	 * @since 1.0
+	 */
+	public boolean isEmpty( ) {
+		return size == 0;
+	}
+
+	/**
+	 * <p>
+	 * {@code prepend} returns a new tuple containing the values of the argument
+	 * tuple followed by the values of this tuple.
+	 * </p>
+	 * 
+	 * <p>
+	 * Unlike {@link KnittingTuple#prepend(Tuple)}, this method copies the values
+	 * into a new array, so that the result provides direct access to its values.
+	 * </p>
+	 * 
+	 * @param head
+	 *          A tuple to concatenate before this tuple.
+	 * @return A new tuple containing the values of the argument tuple followed by
+	 *         the values of this tuple.
+	 * @since 1.0
+	 */
+	public LongKnittingTuple prepend( LongKnittingTuple head ) {
+		return head.append( this );
+	}
+
+	/**
+	 * <p>
+	 * {@code reverse} returns a view of this tuple where the order of the values
+	 * is reversed.
+	 * </p>
+	 * 
+	 * @return a view of this tuple where the order of the values is reversed.
+	 * @since 1.0
+	 */
+	public LongKnittingTuple reverse( ) {
+		return new LongKnittingTuple( array, start, size, !reversed );
+	}
+
+	/**
+	 * <p>
+	 * {@code size} returns the size of this tuple.
+	 * </p>
+	 * 
+	 * @return The size of this tuple.
+	 * @since 1.0
+	 */
+	public int size( ) {
+		return size;
+	}
+
+	/**
+	 * <p>
+	 * {@code startsWith} returns {@code true} when the argument tuple is a prefix
+	 * of this tuple; {@code false} otherwise.
+	 * </p>
+	 * 
+	 * @param other
+	 *          Another tuple.
+	 * @return {@code true} when the argument tuple is a prefix of this tuple;
+	 *         {@code false} otherwise.
+	 * @since 1.0
+	 */
+	public boolean startsWith( LongKnittingTuple other ) {
+		return size >= other.size && matches( 0, other );
+	}
+
+	/**
+	 * <p>
+	 * {@code subTuple} returns a view showing values of this tuple in slots
+	 * between {@code n} and {@code m}, including {@code n} and excluding
+	 * {@code m}.
+	 * </p>
+	 * 
+	 * @param n
+	 *          The index, in this tuple, of the value that will appear first in
+	 *          the resulting view.
+	 * @param m
+	 *          One plus the index, in this tuple, of the value that will appear
+	 *          last in the resulting view.
+	 * @return A view showing values of this tuple in slots between {@code n}
+	 *         and {@code m}, including {@code n} and excluding {@code m}.
+	 * @throws IllegalArgumentException
+	 *           when {@code n} is negative, when {@code m} is larger than the size
+	 *           of this tuple, or when {@code n} is larger than {@code m}.
+	 * @since 1.0
+	 */
+	public LongKnittingTuple subTuple( int n, int m ) {
+		if ( n < 0 || m > size || n > m ) {
+			throw new IllegalArgumentException( );
+		}
+		return private_sub( n, m - n );
+	}
+
+	/**
+	 * <p>
+	 * {@code tail} returns a view of the last {@code show} values of this
+	 * tuple.
+	 * </p>
+	 * 
+	 * <p>
+	 * The returned view may contain less than {@code show} values. This happens
+	 * when this tuple's size is smaller than {@code show}.
+	 * </p>
+	 *
+	 * @param show
+	 *          The number of values to show. A negative numbers counts as zero.
+	 * @return A view of the last {@code show} values of this tuple.
+	 * @since 1.0
+	 */
+	public LongKnittingTuple tail( int show ) {
+		int final_show = show < 0 ? 0 : show > size ? size : show;
+		return private_sub( size - final_show, final_show );
+	}
+
+	/**
+	 * <p>
+	 * {@code tailless} returns a view hiding the last {@code hide} values of
+	 * this tuple.
+	 * </p>
+	 * 
+	 * <p>
+	 * The returned view may be empty. This happens when this tuple's size is
+	 * smaller than {@code hide}.
+	 * </p>
+	 *
+	 * @param hide
+	 *          The number of values to hide. A negative numbers counts as zero.
+	 * @return A view hiding the last {@code hide} values of this tuple.
+	 * @since 1.0
+	 */
+	public LongKnittingTuple tailless( int hide ) {
+		int final_hide = hide < 0 ? 0 : hide > size ? size : hide;
+		return private_sub( 0, size - final_hide );
+	}
+
+	/**
+	 * <p>
+	 * {@code toArray} returns a new array containing the values of this tuple.
+	 * </p>
+	 * 
+	 * @return A new array containing the values of this tuple.
+	 * @since 1.0
+	 */
+	public long[] toArray( ) {
+		long[] result = new long[size];
+		copy( this, result, 0 );
+		return result;
+	}
+
+	/**
+	 * <p>
+	 * {@code empty} returns an empty tuple.
+	 * </p>
+	 * 
+	 * @return An empty tuple.
+	 * @since 1.0
+	 */
+	public static LongKnittingTuple empty( ) {
+		return empty;
+	}
+
+	private static final LongKnittingTuple empty =
+			new LongKnittingTuple( new long[0], 0, 0, false );
+
+	/**
+	 * <p>
+	 * {@code on} returns a new tuple providing access to the argument values.
+	 * </p>
+	 * 
+	 * @param values
+	 *          Values to be wrapped in a new tuple.
+	 * @return A new tuple providing access to the argument values.
+	 * @since 1.0
+	 */
+	public static LongKnittingTuple on( long ... values ) {
+		return wrap( values );
+	}
+
+	/**
+	 * <p>
+	 * {@code wrap} returns a view of the values in the argument array.
+	 * </p>
+	 * 
+	 * <p>
+	 * The array is not copied.
+	 * </p>
+	 * 
+	 * @param array
+	 *          An array of values.
+	 * @return A view of the values in the argument array.
+	 * @since 1.0
+	 */
+	public static LongKnittingTuple wrap( long[] array ) {
+		return new LongKnittingTuple( array, 0, array.length, false );
+	}
+
+	/**
+	 * <p>
+	 * {@code wrap} returns a new tuple containing the values in the argument
+	 * tuple.
+	 * </p>
+	 * 
+	 * <p>
+	 * The values are unboxed and copied into a new array.
+	 * </p>
+	 * 
+	 * @param tuple
+	 *          A tuple of {@code Long} objects. None of them may be {@code null}.
+	 * @return A new tuple containing the values in the argument tuple.
+	 * @throws NullPointerException
+	 *           when the argument tuple contains {@code null}.
+	 * @since 1.0
+	 */
+	public static LongKnittingTuple wrap( Tuple<Long> tuple ) {
+		int size = tuple.size( );
+		long[] array = new long[size];
+		for ( int i = 0; i < size; i++ ) {
+			array[i] = tuple.get( i );
+		}
+		return wrap( array );
+	}
+}
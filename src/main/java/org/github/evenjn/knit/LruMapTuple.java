@@ -0,0 +1,109 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.github.evenjn.yarn.Tuple;
+
+/*
+ * A map view that stores the results of the function for the most recently
+ * accessed slots, up to a maximum number of slots.
+ * 
+ * The slots are striped over up to sixteen segments by index, so that
+ * threads accessing different slots rarely contend on the same lock. Each
+ * segment keeps its results in an access-ordered LinkedHashMap guarded by its
+ * own lock, and evicts its least recently accessed slot when full; the
+ * maximum number of slots is divided among the segments. The function is
+ * invoked outside the lock, and the first result stored for a slot is
+ * returned to every thread that computed it concurrently.
+ */
+class LruMapTuple<I, O> implements
+		Tuple<O> {
+
+	private static final int max_segments = 16;
+
+	private final Function<? super I, O> stateless_function;
+
+	private final Tuple<I> base;
+
+	private final int size;
+
+	private final LinkedHashMap<Integer, O>[] segments;
+
+	@SuppressWarnings("unchecked")
+	LruMapTuple(Tuple<I> base,
+			Function<? super I, O> stateless_function,
+			int max_cached) {
+		this.base = base;
+		this.stateless_function = stateless_function;
+		this.size = base.size( );
+		int count = Math.min( max_segments, max_cached );
+		this.segments =
+				(LinkedHashMap<Integer, O>[]) new LinkedHashMap<?, ?>[count];
+		for ( int s = 0; s < count; s++ ) {
+			int capacity = max_cached / count + ( s < max_cached % count ? 1 : 0 );
+			segments[s] = new LinkedHashMap<Integer, O>( 16, 0.75f, true ) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(
+						Map.Entry<Integer, O> eldest ) {
+					return size( ) > capacity;
+				}
+			};
+		}
+	}
+
+	@Override
+	public O get( int index ) {
+		if ( index < 0 || index >= size ) {
+			throw new IllegalArgumentException( );
+		}
+		Integer key = index;
+		LinkedHashMap<Integer, O> results = segments[index % segments.length];
+		synchronized ( results ) {
+			O result = results.get( key );
+			if ( result != null || results.containsKey( key ) ) {
+				return result;
+			}
+		}
+		O computed = stateless_function.apply( base.get( index ) );
+		synchronized ( results ) {
+			/*
+			 * Another thread may have stored a result for the same slot while the
+			 * function was running: that result wins, so that all threads see the
+			 * same instance while the slot is cached.
+			 */
+			if ( results.containsKey( key ) ) {
+				return results.get( key );
+			}
+			results.put( key, computed );
+		}
+		return computed;
+	}
+
+	@Override
+	public int size( ) {
+		return size;
+	}
+
+}
@@ -0,0 +1,104 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.github.evenjn.yarn.Tuple;
+
+/*
+ * A tuple of fixed-width records stored in a file, decoded on access.
+ * 
+ * The file is mapped into memory in segments, because a single mapping
+ * cannot exceed Integer.MAX_VALUE bytes. Each segment holds a whole number of
+ * records, so that no record straddles two segments. The channel is closed
+ * once the segments are mapped: the mappings stay valid until they are
+ * garbage collected.
+ */
+class MappedTuple<K> implements
+		Tuple<K> {
+
+	private final ByteBuffer[] segments;
+
+	private final int records_per_segment;
+
+	private final int record_size;
+
+	private final int size;
+
+	private final RecordDecoder<K> decoder;
+
+	MappedTuple(Path file, int record_size, RecordDecoder<K> decoder)
+			throws IOException {
+		this( file, record_size, decoder,
+				Integer.MAX_VALUE / Math.max( 1, record_size ) );
+	}
+
+	MappedTuple(Path file,
+			int record_size,
+			RecordDecoder<K> decoder,
+			int records_per_segment)
+			throws IOException {
+		if ( record_size < 1 ) {
+			throw new IllegalArgumentException( "record_size must be positive" );
+		}
+		this.record_size = record_size;
+		this.decoder = decoder;
+		this.records_per_segment = records_per_segment;
+		try ( FileChannel channel =
+				FileChannel.open( file, StandardOpenOption.READ ) ) {
+			long bytes = channel.size( );
+			if ( bytes % record_size != 0 ) {
+				throw new IllegalArgumentException(
+						"file size is not a multiple of record_size" );
+			}
+			long records = bytes / record_size;
+			if ( records > Integer.MAX_VALUE ) {
+				throw new IllegalArgumentException( "too many records" );
+			}
+			this.size = (int) records;
+			int segment_count = (int) ( ( records + records_per_segment - 1 )
+					/ records_per_segment );
+			this.segments = new ByteBuffer[segment_count];
+			long segment_bytes = (long) records_per_segment * record_size;
+			for ( int s = 0; s < segment_count; s++ ) {
+				long position = s * segment_bytes;
+				segments[s] = channel.map( FileChannel.MapMode.READ_ONLY, position,
+						Math.min( segment_bytes, bytes - position ) );
+			}
+		}
+	}
+
+	@Override
+	public K get( int index ) {
+		if ( index < 0 || index >= size ) {
+			throw new IllegalArgumentException( );
+		}
+		return decoder.decode( segments[index / records_per_segment],
+				( index % records_per_segment ) * record_size );
+	}
+
+	@Override
+	public int size( ) {
+		return size;
+	}
+}
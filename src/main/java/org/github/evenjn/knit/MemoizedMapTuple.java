@@ -0,0 +1,77 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import org.github.evenjn.yarn.Tuple;
+
+/*
+ * A map view that stores the result of the function for each slot the first
+ * time the slot is accessed.
+ * 
+ * Results are published through an AtomicReferenceArray, so that a thread
+ * reading a result stored by another thread sees it fully constructed. No
+ * lock is taken: two threads accessing an empty slot at the same time may
+ * both invoke the function, and the first result stored wins. A marker
+ * stands for null results.
+ */
+class MemoizedMapTuple<I, O> implements
+		Tuple<O> {
+
+	private static final Object null_result = new Object( );
+
+	private final Function<? super I, O> stateless_function;
+
+	private final Tuple<I> base;
+
+	private final AtomicReferenceArray<Object> results;
+
+	MemoizedMapTuple(Tuple<I> base, Function<? super I, O> stateless_function) {
+		this.base = base;
+		this.stateless_function = stateless_function;
+		this.results = new AtomicReferenceArray<>( base.size( ) );
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public O get( int index ) {
+		if ( index < 0 || index >= results.length( ) ) {
+			throw new IllegalArgumentException( );
+		}
+		Object result = results.get( index );
+		if ( result == null ) {
+			O computed = stateless_function.apply( base.get( index ) );
+			if ( !results.compareAndSet( index, null,
+					computed == null ? null_result : computed ) ) {
+				result = results.get( index );
+			}
+			else {
+				return computed;
+			}
+		}
+		return result == null_result ? null : (O) result;
+	}
+
+	@Override
+	public int size( ) {
+		return results.length( );
+	}
+
+}
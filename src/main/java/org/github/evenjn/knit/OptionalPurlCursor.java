@@ -0,0 +1,158 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.github.evenjn.lang.Rook;
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.github.evenjn.yarn.OptionalMap;
+import org.github.evenjn.yarn.OptionalPurl;
+import org.github.evenjn.yarn.OptionalRingMap;
+import org.github.evenjn.yarn.OptionalRingPurl;
+
+/*
+ * Shows the content of the optionals returned by a purl without wrapping
+ * each of them into a cursor.
+ */
+class OptionalPurlCursor<I, O> implements
+		PushCursor<O> {
+
+	private final Cursor<I> wrapped;
+
+	private final OptionalRingPurl<? super I, O> purl;
+
+	private final TemporaryRook temporary_rook;
+
+	private boolean end = false;
+
+	private OptionalPurlCursor(Rook rook,
+			Cursor<I> cursor,
+			OptionalRingPurl<? super I, O> purl) {
+		this.wrapped = cursor;
+		this.purl = purl;
+		this.temporary_rook = rook == null ? null : new TemporaryRook( rook );
+	}
+
+	static <I, O> OptionalPurlCursor<I, O> map( Cursor<I> cursor,
+			OptionalMap<? super I, O> map ) {
+		return new OptionalPurlCursor<>( null, cursor,
+				new OptionalRingPurl<I, O>( ) {
+
+					@Override
+					public Optional<O> next( Rook rook, I input ) {
+						return map.get( input );
+					}
+
+					@Override
+					public Optional<O> end( Rook rook ) {
+						return Optional.empty( );
+					}
+				} );
+	}
+
+	static <I, O> OptionalPurlCursor<I, O> map( Rook rook, Cursor<I> cursor,
+			OptionalRingMap<? super I, O> ring_map ) {
+		return new OptionalPurlCursor<>( rook, cursor,
+				new OptionalRingPurl<I, O>( ) {
+
+					@Override
+					public Optional<O> next( Rook rook, I input ) {
+						return ring_map.get( rook, input );
+					}
+
+					@Override
+					public Optional<O> end( Rook rook ) {
+						return Optional.empty( );
+					}
+				} );
+	}
+
+	static <I, O> OptionalPurlCursor<I, O> purl( Cursor<I> cursor,
+			OptionalPurl<? super I, O> purl ) {
+		return new OptionalPurlCursor<>( null, cursor,
+				new OptionalRingPurl<I, O>( ) {
+
+					@Override
+					public Optional<O> next( Rook rook, I input ) {
+						return purl.next( input );
+					}
+
+					@Override
+					public Optional<O> end( Rook rook ) {
+						return purl.end( );
+					}
+				} );
+	}
+
+	static <I, O> OptionalPurlCursor<I, O> purl( Rook rook, Cursor<I> cursor,
+			OptionalRingPurl<? super I, O> ring_purl ) {
+		return new OptionalPurlCursor<>( rook, cursor, ring_purl );
+	}
+
+	@Override
+	public O next( )
+			throws EndOfCursorException {
+		for ( ;; ) {
+			release( );
+			if ( end ) {
+				throw EndOfCursorException.neo( );
+			}
+			Optional<O> result;
+			try {
+				result = purl.next( temporary_rook, wrapped.next( ) );
+			}
+			catch ( EndOfCursorException e ) {
+				end = true;
+				result = purl.end( temporary_rook );
+			}
+			if ( result != null && result.isPresent( ) ) {
+				return result.get( );
+			}
+		}
+	}
+
+	@Override
+	public void forEachRemaining( Consumer<? super O> action ) {
+		if ( !end ) {
+			PushCursor.forEachRemaining( wrapped, input -> {
+				release( );
+				Optional<O> result = purl.next( temporary_rook, input );
+				if ( result != null && result.isPresent( ) ) {
+					action.accept( result.get( ) );
+				}
+			} );
+			release( );
+			end = true;
+			Optional<O> result = purl.end( temporary_rook );
+			if ( result != null && result.isPresent( ) ) {
+				action.accept( result.get( ) );
+			}
+		}
+		release( );
+	}
+
+	private void release( ) {
+		if ( temporary_rook != null ) {
+			temporary_rook.release( );
+		}
+	}
+
+}
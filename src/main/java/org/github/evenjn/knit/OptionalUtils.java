@@ -18,6 +18,7 @@
 package org.github.evenjn.knit;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.github.evenjn.lang.Rook;
 import org.github.evenjn.yarn.Cursable;
@@ -26,7 +27,7 @@ import org.github.evenjn.yarn.EndOfCursorException;
 import org.github.evenjn.yarn.Tuple;
 
 class OptionalCursor<I> implements
-		Cursor<I> {
+		PushCursor<I> {
 
 	private final Optional<I> optional;
 
@@ -49,6 +50,14 @@ class OptionalCursor<I> implements
 		throw EndOfCursorException.neo( );
 	}
 
+	@Override
+	public void forEachRemaining( Consumer<? super I> action ) {
+		if ( !consumed ) {
+			consumed = true;
+			optional.ifPresent( action );
+		}
+	}
+
 }
 
 class OptionalCursable<T> implements
@@ -0,0 +1,127 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.github.evenjn.lang.Rook;
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+
+/*
+ * Applies a function to the elements of the source cursor on a pool of worker
+ * threads, and returns the results in the order of the source.
+ * 
+ * The source is read on the consuming thread. At most window elements are in
+ * flight at any time: a new element is submitted only when the result at the
+ * head of the window is returned. The workers are shut down when the end is
+ * reached, when a function invocation fails, and when the rook is closed.
+ */
+class ParallelMapCursor<I, O> implements
+		Cursor<O>,
+		AutoCloseable {
+
+	private final Cursor<I> source;
+
+	private final Function<? super I, O> function;
+
+	private final int window;
+
+	private final ArrayDeque<Future<O>> pending;
+
+	private final ExecutorService executor;
+
+	private boolean end = false;
+
+	ParallelMapCursor(Rook rook,
+			Cursor<I> source,
+			Function<? super I, O> stateless_function,
+			int parallelism,
+			int window) {
+		this.source = source;
+		this.function = stateless_function;
+		this.window = window;
+		this.pending = new ArrayDeque<>( window );
+		this.executor = Executors.newFixedThreadPool( parallelism, runnable -> {
+			Thread thread = new Thread( runnable, "knit-parallel-map" );
+			thread.setDaemon( true );
+			return thread;
+		} );
+		rook.hook( this );
+	}
+
+	private void fill( ) {
+		while ( !end && pending.size( ) < window ) {
+			I element;
+			try {
+				element = source.next( );
+			}
+			catch ( EndOfCursorException e ) {
+				end = true;
+				break;
+			}
+			pending.addLast( executor.submit( ( ) -> function.apply( element ) ) );
+		}
+	}
+
+	@Override
+	public O next( )
+			throws EndOfCursorException {
+		fill( );
+		Future<O> head = pending.pollFirst( );
+		if ( head == null ) {
+			close( );
+			throw EndOfCursorException.neo( );
+		}
+		try {
+			return head.get( );
+		}
+		catch ( InterruptedException e ) {
+			close( );
+			Thread.currentThread( ).interrupt( );
+			throw new IllegalStateException( e );
+		}
+		catch ( ExecutionException e ) {
+			close( );
+			Throwable cause = e.getCause( );
+			if ( cause instanceof RuntimeException ) {
+				throw (RuntimeException) cause;
+			}
+			if ( cause instanceof Error ) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException( cause );
+		}
+	}
+
+	@Override
+	public void close( ) {
+		end = true;
+		for ( Future<O> future : pending ) {
+			future.cancel( true );
+		}
+		pending.clear( );
+		executor.shutdownNow( );
+	}
+
+}
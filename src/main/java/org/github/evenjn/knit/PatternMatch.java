@@ -0,0 +1,64 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+/**
+ * A {@code PatternMatch} object reports an occurrence of one of the patterns
+ * of a {@link org.github.evenjn.knit.TuplePatternSet TuplePatternSet} in a
+ * sequence of elements.
+ *
+ * @since 1.0
+ */
+public interface PatternMatch {
+
+	/**
+	 * <p>
+	 * Returns the number of elements in the sequence up to and including the
+	 * last element of the occurrence.
+	 * </p>
+	 * 
+	 * @return The number of elements up to and including the last element of
+	 *         the occurrence.
+	 * @since 1.0
+	 */
+	public long getEnd( );
+
+	/**
+	 * <p>
+	 * Returns the identifier of the pattern that occurs, that is the number of
+	 * patterns preceding it in the collection the set was compiled from.
+	 * </p>
+	 * 
+	 * @return The identifier of the pattern that occurs.
+	 * @since 1.0
+	 */
+	public int getPattern( );
+
+	/**
+	 * <p>
+	 * Returns the number of elements in the sequence before the first element
+	 * of the occurrence.
+	 * </p>
+	 * 
+	 * @return The number of elements before the first element of the
+	 *         occurrence.
+	 * @since 1.0
+	 */
+	public long getStart( );
+
+}
@@ -1,6 +1,6 @@
 /**
  *
- * Copyright 2017 Marco Trevisan
+ * Copyright 2018 Marco Trevisan
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -13,33 +13,40 @@
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
  * See the License for the specific language governing permissions and
  * limitations under the License.
- * 
+ *
  */
 package org.github.evenjn.knit;
 
-import java.util.function.Consumer;
+class PatternMatchImpl implements PatternMatch {
 
-import org.github.evenjn.yarn.Cursor;
-import org.github.evenjn.yarn.EndOfCursorException;
+	private final int pattern;
 
-class PeekCursor<I> implements
-		Cursor<I> {
+	private final long start;
 
-	private final Cursor<I> wrapped;
+	private final long end;
 
-	private final Consumer<? super I> consumer;
+	public PatternMatchImpl(int pattern, long start, long end) {
+		this.pattern = pattern;
+		this.start = start;
+		this.end = end;
+	}
 
-	PeekCursor(Cursor<I> cursor, Consumer<? super I> consumer) {
-		this.wrapped = cursor;
-		this.consumer = consumer;
+	@Override
+	public long getEnd( ) {
+		return end;
 	}
 
 	@Override
-	public I next( )
-			throws EndOfCursorException {
-		I next = wrapped.next( );
-		consumer.accept( next );
-		return next;
+	public int getPattern( ) {
+		return pattern;
 	}
 
+	@Override
+	public long getStart( ) {
+		return start;
+	}
+
+	public String toString( ) {
+		return pattern + " [" + start + ", " + end + ")";
+	}
 }
@@ -0,0 +1,63 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.function.Consumer;
+
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+
+/*
+ * A cursor that can push all its remaining elements to a consumer, detecting
+ * its end without throwing EndOfCursorException.
+ * 
+ * Each element is passed to the consumer before the next one is retrieved,
+ * exactly as it would happen invoking next() in a loop, so that objects that
+ * do not survive subsequent invocations of next() are still alive when the
+ * consumer receives them.
+ */
+interface PushCursor<T> extends
+		Cursor<T> {
+
+	void forEachRemaining( Consumer<? super T> action );
+
+	/*
+	 * Passes all the remaining elements of the argument cursor to the argument
+	 * action, pushing them when the cursor supports it and falling back to
+	 * next() otherwise.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> void forEachRemaining( Cursor<T> cursor,
+			Consumer<? super T> action ) {
+		if ( cursor instanceof PushCursor ) {
+			( (PushCursor<T>) cursor ).forEachRemaining( action );
+			return;
+		}
+		if ( cursor instanceof KnittingCursor ) {
+			( (KnittingCursor<T>) cursor ).private_for_each_remaining( action );
+			return;
+		}
+		try {
+			for ( ;; ) {
+				action.accept( cursor.next( ) );
+			}
+		}
+		catch ( EndOfCursorException e ) {
+		}
+	}
+}
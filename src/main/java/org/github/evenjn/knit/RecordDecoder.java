@@ -0,0 +1,59 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * A {@code RecordDecoder} decodes a fixed-width binary record into an object.
+ * </p>
+ * 
+ * <p>
+ * The decoder must read the record using the absolute {@code get} methods of
+ * the argument buffer, without changing its position or limit, so that the
+ * same buffer can be shared by concurrent readers.
+ * </p>
+ * 
+ * <p>
+ * This interface is part of package {@link org.github.evenjn.knit Knit}.
+ * </p>
+ * 
+ * @param <K>
+ *          The type of decoded objects.
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface RecordDecoder<K> {
+
+	/**
+	 * <p>
+	 * Decodes the record starting at the argument {@code offset} in the
+	 * argument {@code buffer}.
+	 * </p>
+	 * 
+	 * @param buffer
+	 *          A buffer holding the record.
+	 * @param offset
+	 *          The position of the first byte of the record in the buffer.
+	 * @return The decoded object.
+	 * @since 1.0
+	 */
+	K decode( ByteBuffer buffer, int offset );
+
+}
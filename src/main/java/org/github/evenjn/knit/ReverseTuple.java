@@ -0,0 +1,64 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import org.github.evenjn.yarn.Tuple;
+
+/*
+ * A view of a tuple in reverse order. Reversing a reversed tuple returns the
+ * original tuple. The size of the tuple is read once, at construction.
+ */
+class ReverseTuple<K> implements
+		Tuple<K> {
+
+	private final Tuple<K> tuple;
+
+	private final int last;
+
+	private ReverseTuple(Tuple<K> tuple) {
+		this.tuple = tuple;
+		this.last = tuple.size( ) - 1;
+	}
+
+	static <K> Tuple<K> reverse( Tuple<K> tuple ) {
+		if ( tuple instanceof ReverseTuple ) {
+			return ( (ReverseTuple<K>) tuple ).tuple;
+		}
+		if ( tuple.size( ) < 2 ) {
+			return tuple;
+		}
+		return new ReverseTuple<>( tuple );
+	}
+
+	Tuple<K> reversed( ) {
+		return tuple;
+	}
+
+	@Override
+	public K get( int index ) {
+		if ( index < 0 || index > last ) {
+			throw new IllegalArgumentException( );
+		}
+		return tuple.get( last - index );
+	}
+
+	@Override
+	public int size( ) {
+		return last + 1;
+	}
+}
@@ -0,0 +1,60 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.function.Consumer;
+
+import org.github.evenjn.lang.Rook;
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.github.evenjn.yarn.RingFunction;
+
+class RingMapCursor<I, O> implements
+		PushCursor<O> {
+
+	private final Cursor<I> wrapped;
+
+	private final RingFunction<? super I, O> ring_function;
+
+	private final TemporaryRook temporary_rook;
+
+	RingMapCursor(Rook rook,
+			Cursor<I> cursor,
+			RingFunction<? super I, O> ring_function) {
+		this.wrapped = cursor;
+		this.ring_function = ring_function;
+		this.temporary_rook = new TemporaryRook( rook );
+	}
+
+	@Override
+	public O next( )
+			throws EndOfCursorException {
+		temporary_rook.release( );
+		return ring_function.apply( temporary_rook, wrapped.next( ) );
+	}
+
+	@Override
+	public void forEachRemaining( Consumer<? super O> action ) {
+		PushCursor.forEachRemaining( wrapped, input -> {
+			temporary_rook.release( );
+			action.accept( ring_function.apply( temporary_rook, input ) );
+		} );
+		temporary_rook.release( );
+	}
+
+}
@@ -0,0 +1,450 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+import org.github.evenjn.lang.Rook;
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+
+/*
+ * Provides the elements of a source cursor which are not equal to elements
+ * appearing before them, holding at most max_elements distinct elements in
+ * memory at a time.
+ * 
+ * Elements are first checked against an in-memory hash set. When the set is
+ * full and a new element arrives, the set and the rest of the input are
+ * spilled into a number of temporary files, choosing the file by a few bits of
+ * the hash code of each element. Elements in the set are marked as already
+ * provided. Each file is then processed in the same way, using the next few
+ * bits of the hash code, so that a file that does not fit in memory is split
+ * again.
+ * 
+ * Each record carries the position of its element in the source. When order
+ * must be preserved, the output of each file is written to a further file,
+ * and these are merged by position. Otherwise, the files are processed one
+ * after the other, and elements are provided grouped by file.
+ * 
+ * The temporary files are deleted as soon as they have been read, and in any
+ * case when the rook this cursor is hooked to is closed.
+ */
+class SpillingDistinctCursor<K> implements
+		Cursor<K>,
+		AutoCloseable {
+
+	private static final int partition_bits = 4;
+
+	private static final int partitions = 1 << partition_bits;
+
+	/*
+	 * Beyond this level all the bits of the hash code have been used, and
+	 * splitting again would not separate elements any further.
+	 */
+	static final int max_level = 32 / partition_bits;
+
+	private static final int buffer_size = 1 << 16;
+
+	private final ElementSerializer<K> serializer;
+
+	private final int max_elements;
+
+	private final boolean preserve_order;
+
+	private final HashSet<Path> files = new HashSet<>( );
+
+	private final HashSet<FileRecords> inputs = new HashSet<>( );
+
+	private final Output root;
+
+	private boolean closed = false;
+
+	SpillingDistinctCursor(Rook rook,
+			Cursor<K> source,
+			ElementSerializer<K> serializer,
+			int max_elements,
+			boolean preserve_order) {
+		this.serializer = serializer;
+		this.max_elements = max_elements;
+		this.preserve_order = preserve_order;
+		this.root = new Level( new SourceRecords( source ), 0 );
+		rook.hook( this );
+	}
+
+	@Override
+	public K next( )
+			throws EndOfCursorException {
+		if ( closed ) {
+			throw new IllegalStateException( "The cursor has been closed." );
+		}
+		try {
+			return root.next( );
+		}
+		catch ( IOException e ) {
+			throw new UncheckedIOException( e );
+		}
+	}
+
+	@Override
+	public void close( ) {
+		if ( closed ) {
+			return;
+		}
+		closed = true;
+		IOException failure = null;
+		for ( FileRecords input : new ArrayList<>( inputs ) ) {
+			try {
+				input.close( );
+			}
+			catch ( IOException e ) {
+				failure = e;
+			}
+		}
+		for ( Path file : new ArrayList<>( files ) ) {
+			try {
+				delete( file );
+			}
+			catch ( IOException e ) {
+				failure = e;
+			}
+		}
+		if ( failure != null ) {
+			throw new UncheckedIOException( failure );
+		}
+	}
+
+	private Path create( )
+			throws IOException {
+		Path file = Files.createTempFile( "knit", ".distinct" );
+		files.add( file );
+		return file;
+	}
+
+	private void delete( Path file )
+			throws IOException {
+		files.remove( file );
+		Files.deleteIfExists( file );
+	}
+
+	/*
+	 * The hash code is mixed with the murmur3 finalizer, so that every bit of
+	 * the result depends on every bit of the hash code, and each level splits
+	 * elements whose hash codes differ in any bit.
+	 */
+	static int partition( Object element, int level ) {
+		int hash = Objects.hashCode( element );
+		hash ^= hash >>> 16;
+		hash *= 0x85EBCA6B;
+		hash ^= hash >>> 13;
+		hash *= 0xC2B2AE35;
+		hash ^= hash >>> 16;
+		return ( hash >>> ( 32 - partition_bits * ( level + 1 ) ) )
+				& ( partitions - 1 );
+	}
+
+	/*
+	 * A sequence of records, each holding an element, its position in the
+	 * source and whether it has been provided already.
+	 */
+	private abstract class Records {
+
+		K element;
+
+		long position;
+
+		boolean provided;
+
+		abstract boolean advance( )
+				throws IOException;
+
+		void close( )
+				throws IOException {
+		}
+	}
+
+	private class SourceRecords extends
+			Records {
+
+		private final Cursor<K> source;
+
+		private long count = 0;
+
+		SourceRecords(Cursor<K> source) {
+			this.source = source;
+		}
+
+		@Override
+		boolean advance( ) {
+			try {
+				element = source.next( );
+			}
+			catch ( EndOfCursorException e ) {
+				element = null;
+				return false;
+			}
+			position = count++;
+			provided = false;
+			return true;
+		}
+	}
+
+	private class FileRecords extends
+			Records {
+
+		private final Path file;
+
+		private final DataInputStream input;
+
+		private long remaining;
+
+		FileRecords(Path file, long count) throws IOException {
+			this.file = file;
+			this.remaining = count;
+			this.input = new DataInputStream( new BufferedInputStream(
+					Files.newInputStream( file ), buffer_size ) );
+			inputs.add( this );
+		}
+
+		@Override
+		boolean advance( )
+				throws IOException {
+			if ( remaining == 0 ) {
+				close( );
+				return false;
+			}
+			remaining--;
+			provided = input.readBoolean( );
+			position = input.readLong( );
+			element = serializer.read( input );
+			return true;
+		}
+
+		@Override
+		void close( )
+				throws IOException {
+			if ( inputs.remove( this ) ) {
+				input.close( );
+				delete( file );
+			}
+			element = null;
+		}
+	}
+
+	private class RecordsWriter {
+
+		private final Path file;
+
+		private final DataOutputStream output;
+
+		private long count = 0;
+
+		RecordsWriter() throws IOException {
+			this.file = create( );
+			this.output = new DataOutputStream(
+					new BufferedOutputStream( Files.newOutputStream( file ), buffer_size ) );
+		}
+
+		void write( K element, long position, boolean provided )
+				throws IOException {
+			output.writeBoolean( provided );
+			output.writeLong( position );
+			serializer.write( element, output );
+			count++;
+		}
+
+		FileRecords finish( )
+				throws IOException {
+			output.close( );
+			return new FileRecords( file, count );
+		}
+	}
+
+	/*
+	 * A source of distinct elements, which also tells the position in the
+	 * source of the last element provided.
+	 */
+	private abstract class Output {
+
+		long position;
+
+		abstract K next( )
+				throws EndOfCursorException,
+				IOException;
+	}
+
+	private class Level extends
+			Output {
+
+		private final Records input;
+
+		private final int level;
+
+		private HashSet<K> seen = new HashSet<>( );
+
+		private Output spilled = null;
+
+		Level(Records input, int level) {
+			this.input = input;
+			this.level = level;
+		}
+
+		@Override
+		K next( )
+				throws EndOfCursorException,
+				IOException {
+			if ( spilled == null ) {
+				for ( ;; ) {
+					if ( !input.advance( ) ) {
+						seen = null;
+						throw EndOfCursorException.neo( );
+					}
+					K element = input.element;
+					if ( seen.contains( element ) ) {
+						continue;
+					}
+					if ( seen.size( ) >= max_elements && level < max_level ) {
+						spilled = spill( );
+						break;
+					}
+					seen.add( element );
+					if ( !input.provided ) {
+						position = input.position;
+						return element;
+					}
+				}
+			}
+			K element = spilled.next( );
+			position = spilled.position;
+			return element;
+		}
+
+		/*
+		 * Writes the set and the current and remaining records of the input to
+		 * the partitions of the next level.
+		 */
+		private Output spill( )
+				throws IOException {
+			ArrayList<RecordsWriter> writers = new ArrayList<>( );
+			for ( int p = 0; p < partitions; p++ ) {
+				writers.add( new RecordsWriter( ) );
+			}
+			for ( K element : seen ) {
+				writers.get( partition( element, level ) ).write( element, -1, true );
+			}
+			seen = null;
+			do {
+				writers.get( partition( input.element, level ) ).write( input.element,
+						input.position, input.provided );
+			}
+			while ( input.advance( ) );
+			ArrayList<Level> levels = new ArrayList<>( );
+			for ( RecordsWriter writer : writers ) {
+				levels.add( new Level( writer.finish( ), level + 1 ) );
+			}
+			return preserve_order ? merge( levels ) : new Sequence( levels );
+		}
+	}
+
+	/*
+	 * Provides the output of each level in turn.
+	 */
+	private class Sequence extends
+			Output {
+
+		private final ArrayList<Level> levels;
+
+		private int current = 0;
+
+		Sequence(ArrayList<Level> levels) {
+			this.levels = levels;
+		}
+
+		@Override
+		K next( )
+				throws EndOfCursorException,
+				IOException {
+			while ( current < levels.size( ) ) {
+				try {
+					K element = levels.get( current ).next( );
+					position = levels.get( current ).position;
+					return element;
+				}
+				catch ( EndOfCursorException e ) {
+					levels.set( current++, null );
+				}
+			}
+			throw EndOfCursorException.neo( );
+		}
+	}
+
+	/*
+	 * Writes the output of each level to a file, in order of position, and
+	 * merges the files by position.
+	 */
+	private Output merge( ArrayList<Level> levels )
+			throws IOException {
+		PriorityQueue<FileRecords> queue = new PriorityQueue<>( partitions,
+				( a, b ) -> Long.compare( a.position, b.position ) );
+		for ( Level level : levels ) {
+			RecordsWriter writer = new RecordsWriter( );
+			for ( ;; ) {
+				K element;
+				try {
+					element = level.next( );
+				}
+				catch ( EndOfCursorException e ) {
+					break;
+				}
+				writer.write( element, level.position, false );
+			}
+			FileRecords records = writer.finish( );
+			if ( records.advance( ) ) {
+				queue.add( records );
+			}
+		}
+		return new Output( ) {
+
+			@Override
+			K next( )
+					throws EndOfCursorException,
+					IOException {
+				FileRecords head = queue.poll( );
+				if ( head == null ) {
+					throw EndOfCursorException.neo( );
+				}
+				K element = head.element;
+				position = head.position;
+				if ( head.advance( ) ) {
+					queue.add( head );
+				}
+				return element;
+			}
+		};
+	}
+}
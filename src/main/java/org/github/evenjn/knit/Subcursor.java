@@ -17,11 +17,14 @@
  */
 package org.github.evenjn.knit;
 
+import java.util.function.Consumer;
+
 import org.github.evenjn.yarn.Cursor;
 import org.github.evenjn.yarn.EndOfCursorException;
 
 class Subcursor<T> implements
-		Cursor<T> {
+		BatchCursor<T>,
+		PushCursor<T> {
 
 	private Cursor<T> wrapped;
 
@@ -60,4 +63,49 @@ class Subcursor<T> implements
 		return next;
 	}
 
+	@Override
+	public int nextBatch( Object[] buffer, int offset, int length ) {
+		try {
+			while ( i < start ) {
+				wrapped.next( );
+				i++;
+			}
+		}
+		catch ( EndOfCursorException e ) {
+			return 0;
+		}
+		int to_fill = length;
+		if ( this.length >= 0 ) {
+			to_fill = (int) Math.min( to_fill, (long) start + this.length - i );
+		}
+		int filled = BatchCursor.nextBatch( wrapped, buffer, offset, to_fill );
+		i += filled;
+		return filled;
+	}
+
+	/*
+	 * A limited subcursor stops at its limit without retrieving further
+	 * elements, so it reads the wrapped cursor with next().
+	 */
+	@Override
+	public void forEachRemaining( Consumer<? super T> action ) {
+		try {
+			while ( i < start ) {
+				wrapped.next( );
+				i++;
+			}
+			if ( length < 0 ) {
+				PushCursor.forEachRemaining( wrapped, action );
+				return;
+			}
+			while ( i < start + length ) {
+				T next = wrapped.next( );
+				i++;
+				action.accept( next );
+			}
+		}
+		catch ( EndOfCursorException e ) {
+		}
+	}
+
 }
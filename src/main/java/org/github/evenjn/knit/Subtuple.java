@@ -39,7 +39,7 @@ class Subtuple<K> implements
 			this.length = 0;
 		} else {
 			this.start = start;
-			if ( max < start + length ) {
+			if ( max - start < length ) {
 				this.length = max - start;
 			} else {
 				this.length = length;
@@ -47,6 +47,44 @@ class Subtuple<K> implements
 		}
 	}
 
+	/*
+	 * Returns a view of the argument range of the argument tuple, collapsing it
+	 * into the argument tuple when possible: the whole range of a tuple is the
+	 * tuple itself, a range of a subtuple is a range of the underlying tuple, a
+	 * range of a reversed tuple is the reverse of a range of the underlying
+	 * tuple, and a range of a concatenation is a concatenation of ranges of its
+	 * parts.
+	 */
+	static <K> Tuple<K> sub( Tuple<K> tuple, int start, int length ) {
+		Subtuple<K> normalized = new Subtuple<>( tuple, start, length );
+		if ( normalized.length == tuple.size( ) ) {
+			return tuple;
+		}
+		if ( normalized.length == 0 ) {
+			return normalized;
+		}
+		if ( tuple instanceof Subtuple ) {
+			Subtuple<K> outer = (Subtuple<K>) tuple;
+			return new Subtuple<>( outer.tuple, outer.start + normalized.start,
+					normalized.length );
+		}
+		if ( tuple instanceof ReverseTuple ) {
+			Tuple<K> inner = ( (ReverseTuple<K>) tuple ).reversed( );
+			return ReverseTuple.reverse( sub( inner,
+					inner.size( ) - normalized.start - normalized.length,
+					normalized.length ) );
+		}
+		if ( tuple instanceof ConcatenateTuple ) {
+			return ( (ConcatenateTuple<K>) tuple ).sub( normalized.start,
+					normalized.length );
+		}
+		return normalized;
+	}
+
+	Tuple<K> whole( ) {
+		return tuple;
+	}
+
 	@Override
 	public K get( int t ) {
 		if ( t < 0 || t >= length )
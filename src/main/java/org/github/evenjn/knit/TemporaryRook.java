@@ -0,0 +1,60 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import org.github.evenjn.lang.BasicRook;
+import org.github.evenjn.lang.Rook;
+
+/*
+ * A reusable temporary rook. It creates a BasicRook only when something is
+ * hooked to it, so that transformations invoking ring functions on each
+ * element do not allocate a rook per element when the functions do not
+ * acquire resources.
+ */
+class TemporaryRook implements
+		Rook,
+		AutoCloseable {
+
+	private BasicRook current = null;
+
+	TemporaryRook(Rook rook) {
+		rook.hook( this );
+	}
+
+	@Override
+	public <T extends AutoCloseable> T hook( T auto_closeable ) {
+		if ( current == null ) {
+			current = new BasicRook( );
+		}
+		return current.hook( auto_closeable );
+	}
+
+	void release( ) {
+		if ( current != null ) {
+			BasicRook to_close = current;
+			current = null;
+			to_close.close( );
+		}
+	}
+
+	@Override
+	public void close( ) {
+		release( );
+	}
+
+}
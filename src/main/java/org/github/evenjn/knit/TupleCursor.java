@@ -17,25 +17,30 @@
  */
 package org.github.evenjn.knit;
 
-import org.github.evenjn.yarn.Cursor;
+import java.util.function.Consumer;
+
 import org.github.evenjn.yarn.EndOfCursorException;
 import org.github.evenjn.yarn.Tuple;
 
 class TupleCursor<I> implements
-		Cursor<I> {
+		BatchCursor<I>,
+		PushCursor<I> {
 
 	private final Tuple<I> tuple;
 
+	private final int size;
+
 	private int i = 0;
 
 	TupleCursor(Tuple<I> tuple) {
 		this.tuple = tuple;
+		this.size = tuple.size( );
 	}
 
 	@Override
 	public I next( )
 			throws EndOfCursorException {
-		if ( i >= tuple.size( ) ) {
+		if ( i >= size ) {
 			throw EndOfCursorException.neo( );
 		}
 		I result = tuple.get( i );
@@ -43,4 +48,20 @@ class TupleCursor<I> implements
 		return result;
 	}
 
+	@Override
+	public int nextBatch( Object[] buffer, int offset, int length ) {
+		int filled = Math.min( length, size - i );
+		for ( int j = 0; j < filled; j++ ) {
+			buffer[offset + j] = tuple.get( i++ );
+		}
+		return filled;
+	}
+
+	@Override
+	public void forEachRemaining( Consumer<? super I> action ) {
+		while ( i < size ) {
+			action.accept( tuple.get( i++ ) );
+		}
+	}
+
 }
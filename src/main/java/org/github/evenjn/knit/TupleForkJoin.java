@@ -0,0 +1,347 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import org.github.evenjn.lang.BasicRook;
+import org.github.evenjn.lang.Equivalencer;
+import org.github.evenjn.lang.Ring;
+import org.github.evenjn.yarn.Tuple;
+
+/*
+ * Fork-join implementations of the parallel rolling methods of
+ * KnittingTuple.
+ * 
+ * The slots of the tuple are split in halves until a range is no larger than
+ * a threshold, chosen so that each worker of the common pool gets about four
+ * ranges. Ranges are then processed sequentially and their results combined
+ * in order.
+ */
+final class TupleForkJoin {
+
+	private static final int ranges_per_worker = 4;
+
+	private TupleForkJoin() {
+	}
+
+	private static ForkJoinPool pool( ) {
+		return ForkJoinPool.commonPool( );
+	}
+
+	private static int threshold( int size ) {
+		int ranges = pool( ).getParallelism( ) * ranges_per_worker;
+		return Math.max( 1, size / ranges );
+	}
+
+	static <I, K> K reduce( Tuple<I> tuple, K zero,
+			BiFunction<K, ? super I, K> accumulator, BinaryOperator<K> combiner ) {
+		int size = tuple.size( );
+		return pool( ).invoke( new Reduce<I, K>( tuple, 0, size, threshold( size ),
+				zero, accumulator, combiner ) );
+	}
+
+	static <I, K> K collect( Tuple<I> tuple, Supplier<K> supplier,
+			BiConsumer<K, ? super I> accumulator, BiConsumer<K, K> combiner ) {
+		return reduce( tuple, null, ( container, element ) -> {
+			K result = container == null ? supplier.get( ) : container;
+			accumulator.accept( result, element );
+			return result;
+		}, ( left, right ) -> {
+			if ( left == null ) {
+				return right;
+			}
+			if ( right != null ) {
+				combiner.accept( left, right );
+			}
+			return left;
+		} );
+	}
+
+	static <I, O> Object[] map( Tuple<I> tuple,
+			Function<? super I, O> stateless_function ) {
+		int size = tuple.size( );
+		Object[] result = new Object[size];
+		pool( ).invoke( new Each<I>( tuple, 0, size, threshold( size ),
+				( ) -> ( index, element ) -> result[index] = stateless_function
+						.apply( element ) ) );
+		return result;
+	}
+
+	/*
+	 * Each worker thread obtains its own consumer from the argument ring the
+	 * first time it processes a range. Consumers are hooked to a shared rook,
+	 * which is closed when all ranges have been processed.
+	 */
+	static <I> void consume( Tuple<I> tuple,
+			Ring<? extends Consumer<? super I>> consumer_provider ) {
+		int size = tuple.size( );
+		ConcurrentHashMap<Thread, Consumer<? super I>> consumers =
+				new ConcurrentHashMap<>( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			pool( ).invoke( new Each<I>( tuple, 0, size, threshold( size ), ( ) -> {
+				Consumer<? super I> consumer = consumers.computeIfAbsent(
+						Thread.currentThread( ), thread -> {
+							synchronized ( rook ) {
+								return consumer_provider.get( rook );
+							}
+						} );
+				return ( index, element ) -> consumer.accept( element );
+			} ) );
+		}
+	}
+
+	/*
+	 * Odd multiplier of the rolling hash, computed modulo 2^64.
+	 */
+	private static final long base = 0x9E3779B97F4A7C15L;
+
+	/*
+	 * Returns the positions of the subtuples of the argument tuple equivalent to
+	 * the argument pattern, as one array of increasing positions per chunk.
+	 * 
+	 * The possible positions are split into chunks, searched in parallel. Each
+	 * chunk reads the slots of its positions, plus the size of the pattern minus
+	 * one, rolling a polynomial hash of the element hashes over a window as
+	 * large as the pattern. The equivalencer is invoked only on windows whose
+	 * hash equals the hash of the pattern.
+	 */
+	static <I> int[][] findAll( Tuple<I> tuple, Tuple<? extends I> pattern,
+			Function<? super I, Integer> hasher, Equivalencer<I, I> equivalencer ) {
+		final int m = pattern.size( );
+		final int positions = tuple.size( ) - m + 1;
+		if ( positions <= 0 ) {
+			return new int[0][];
+		}
+		long pattern_hash = 0;
+		long power = 1;
+		for ( int k = 0; k < m; k++ ) {
+			pattern_hash = pattern_hash * base + hasher.apply( pattern.get( k ) );
+			power *= base;
+		}
+		final long target = pattern_hash;
+		final long leading = power;
+		final int chunk = Math.max( m, threshold( positions ) );
+		final int[][] result = new int[( positions - 1 ) / chunk + 1][];
+		pool( ).invoke( new Chunks( 0, result.length, c -> {
+			int start = c * chunk;
+			int end = Math.min( positions, start + chunk );
+			result[c] = findAll( tuple, pattern, hasher, equivalencer, target,
+					leading, start, end );
+		} ) );
+		return result;
+	}
+
+	private static <I> int[] findAll( Tuple<I> tuple, Tuple<? extends I> pattern,
+			Function<? super I, Integer> hasher, Equivalencer<I, I> equivalencer,
+			long target, long leading, int start, int end ) {
+		final int m = pattern.size( );
+		if ( m == 0 ) {
+			int[] all = new int[end - start];
+			for ( int i = start; i < end; i++ ) {
+				all[i - start] = i;
+			}
+			return all;
+		}
+		/*
+		 * The hashes of the elements in the window, in a ring.
+		 */
+		int[] window = new int[m];
+		long hash = 0;
+		for ( int k = 0; k < m; k++ ) {
+			window[k] = hasher.apply( tuple.get( start + k ) );
+			hash = hash * base + window[k];
+		}
+		int[] found = new int[16];
+		int count = 0;
+		for ( int i = start;; ) {
+			if ( hash == target && matches( tuple, pattern, equivalencer, i ) ) {
+				if ( count == found.length ) {
+					found = Arrays.copyOf( found, count * 2 );
+				}
+				found[count++] = i;
+			}
+			if ( ++i == end ) {
+				break;
+			}
+			int slot = ( i - 1 - start ) % m;
+			int entering = hasher.apply( tuple.get( i + m - 1 ) );
+			hash = hash * base + entering - window[slot] * leading;
+			window[slot] = entering;
+		}
+		return Arrays.copyOf( found, count );
+	}
+
+	private static <I> boolean matches( Tuple<I> tuple,
+			Tuple<? extends I> pattern, Equivalencer<I, I> equivalencer,
+			int position ) {
+		final int m = pattern.size( );
+		for ( int k = 0; k < m; k++ ) {
+			if ( !equivalencer.equivalent( tuple.get( position + k ),
+					pattern.get( k ) ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static class Chunks extends
+			RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int start;
+
+		private final int end;
+
+		private final IntConsumer leaf;
+
+		Chunks(int start, int end, IntConsumer leaf) {
+			this.start = start;
+			this.end = end;
+			this.leaf = leaf;
+		}
+
+		@Override
+		protected void compute( ) {
+			if ( end - start == 1 ) {
+				leaf.accept( start );
+				return;
+			}
+			int middle = ( start + end ) >>> 1;
+			invokeAll( new Chunks( start, middle, leaf ),
+					new Chunks( middle, end, leaf ) );
+		}
+	}
+
+	private interface IndexedConsumer<I> {
+
+		void accept( int index, I element );
+	}
+
+	private static class Each<I> extends
+			RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Tuple<I> tuple;
+
+		private final int start;
+
+		private final int end;
+
+		private final int threshold;
+
+		private final Supplier<IndexedConsumer<? super I>> leaf;
+
+		Each(Tuple<I> tuple,
+				int start,
+				int end,
+				int threshold,
+				Supplier<IndexedConsumer<? super I>> leaf) {
+			this.tuple = tuple;
+			this.start = start;
+			this.end = end;
+			this.threshold = threshold;
+			this.leaf = leaf;
+		}
+
+		@Override
+		protected void compute( ) {
+			if ( end - start <= threshold ) {
+				IndexedConsumer<? super I> consumer = leaf.get( );
+				for ( int i = start; i < end; i++ ) {
+					consumer.accept( i, tuple.get( i ) );
+				}
+				return;
+			}
+			int middle = ( start + end ) >>> 1;
+			invokeAll( new Each<I>( tuple, start, middle, threshold, leaf ),
+					new Each<I>( tuple, middle, end, threshold, leaf ) );
+		}
+	}
+
+	private static class Reduce<I, K> extends
+			RecursiveTask<K> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Tuple<I> tuple;
+
+		private final int start;
+
+		private final int end;
+
+		private final int threshold;
+
+		private final K zero;
+
+		private final BiFunction<K, ? super I, K> accumulator;
+
+		private final BinaryOperator<K> combiner;
+
+		Reduce(Tuple<I> tuple,
+				int start,
+				int end,
+				int threshold,
+				K zero,
+				BiFunction<K, ? super I, K> accumulator,
+				BinaryOperator<K> combiner) {
+			this.tuple = tuple;
+			this.start = start;
+			this.end = end;
+			this.threshold = threshold;
+			this.zero = zero;
+			this.accumulator = accumulator;
+			this.combiner = combiner;
+		}
+
+		private Reduce<I, K> sub( int start, int end ) {
+			return new Reduce<I, K>( tuple, start, end, threshold, zero, accumulator,
+					combiner );
+		}
+
+		@Override
+		protected K compute( ) {
+			if ( end - start <= threshold ) {
+				K reduction = zero;
+				for ( int i = start; i < end; i++ ) {
+					reduction = accumulator.apply( reduction, tuple.get( i ) );
+				}
+				return reduction;
+			}
+			int middle = ( start + end ) >>> 1;
+			Reduce<I, K> left = sub( start, middle );
+			Reduce<I, K> right = sub( middle, end );
+			right.fork( );
+			K left_result = left.compute( );
+			return combiner.apply( left_result, right.join( ) );
+		}
+	}
+}
@@ -0,0 +1,475 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import org.github.evenjn.yarn.Tuple;
+
+/**
+ * <p>
+ * A {@code TupleIndex} is a suffix array over the elements of a tuple, which
+ * answers queries about the subtuples equal to a pattern of size {@code M}.
+ * Where {@code N} is the size of the indexed tuple and {@code R} is the number
+ * of occurrences of the pattern, {@link #contains(Tuple)} and
+ * {@link #count(Tuple)} take {@code O(M log N)} time, {@link #find(Tuple)}
+ * takes {@code O(M log N + R)} time, and {@link #findAll(Tuple)} takes
+ * {@code O(M log N + R log R)} time, to sort the occurrences.
+ * </p>
+ * 
+ * <p>
+ * Elements are compared with {@link java.lang.Object#equals(Object) equals}:
+ * building the index assigns an integer code to each distinct element, using
+ * a hash map, and sorts the suffixes of the tuple of codes. The index does not
+ * refer to the indexed tuple after it is built: it holds the codes, the suffix
+ * array and the distinct elements. An index may be written to a binary output
+ * and read back, so that it can be reused across runs.
+ * </p>
+ * 
+ * <p>
+ * An index is immutable, and may be queried concurrently.
+ * </p>
+ * 
+ * <p>
+ * This class is part of package {@link org.github.evenjn.knit Knit}.
+ * </p>
+ * 
+ * @param <K>
+ *          The type of elements in the indexed tuple.
+ * @since 1.0
+ */
+public final class TupleIndex<K> {
+
+	private final Object[] elements;
+
+	private final HashMap<Object, Integer> codes_of_elements;
+
+	private final int[] codes;
+
+	private final int[] suffixes;
+
+	private TupleIndex(Object[] elements,
+			HashMap<Object, Integer> codes_of_elements,
+			int[] codes,
+			int[] suffixes) {
+		this.elements = elements;
+		this.codes_of_elements = codes_of_elements;
+		this.codes = codes;
+		this.suffixes = suffixes;
+	}
+
+	/**
+	 * <p>
+	 * {@code build} returns an index over the elements of the argument tuple.
+	 * </p>
+	 * 
+	 * <p>
+	 * The suffixes are sorted by prefix doubling: at each round, the groups of
+	 * suffixes sharing a prefix of the current length are sorted in parallel on
+	 * the common fork-join pool. The index takes memory for about four integers
+	 * for each slot of the argument tuple while it is built, and two integers
+	 * for each slot afterwards.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of elements in the argument tuple.
+	 * @param tuple
+	 *          The tuple to index.
+	 * @return An index over the elements of the argument tuple.
+	 * @since 1.0
+	 */
+	public static <K> TupleIndex<K> build( Tuple<K> tuple ) {
+		final int n = tuple.size( );
+		HashMap<Object, Integer> map = new HashMap<>( );
+		int[] codes = new int[n];
+		for ( int i = 0; i < n; i++ ) {
+			K element = tuple.get( i );
+			Integer code = map.get( element );
+			if ( code == null ) {
+				code = map.size( );
+				map.put( element, code );
+			}
+			codes[i] = code;
+		}
+		Object[] elements = new Object[map.size( )];
+		map.forEach( ( element, code ) -> elements[code] = element );
+		return new TupleIndex<>( elements, map, codes, sort( codes ) );
+	}
+
+	/*
+	 * Sorts the suffixes of the argument codes.
+	 * 
+	 * rank[i] is the position in the suffix array of the first suffix of the
+	 * group of suffix i, that is the suffixes sharing with it a prefix of the
+	 * current length. A group is sorted by the rank of the suffix starting that
+	 * length after each member, packed with the member in a long.
+	 */
+	private static int[] sort( int[] codes ) {
+		final int n = codes.length;
+		if ( n == 0 ) {
+			return new int[0];
+		}
+		long[] keys = new long[n];
+		IntStream.range( 0, n ).parallel( )
+				.forEach( i -> keys[i] = ( (long) codes[i] << 32 ) | i );
+		Arrays.parallelSort( keys );
+		int[] suffixes = new int[n];
+		int[] rank = new int[n];
+		int[] group_end = new int[n];
+		for ( int j = 0; j < n; j++ ) {
+			suffixes[j] = (int) keys[j];
+		}
+		split( keys, suffixes, rank, group_end, 0, n );
+		for ( int length = 1; length < n; length <<= 1 ) {
+			final int h = length;
+			int[] starts = unsorted_groups( group_end );
+			if ( starts.length == 0 ) {
+				break;
+			}
+			IntStream.range( 0, starts.length ).parallel( ).forEach( g -> {
+				int start = starts[g];
+				int end = group_end[start];
+				for ( int j = start; j < end; j++ ) {
+					int i = suffixes[j];
+					long next = i + h < n ? rank[i + h] + 1 : 0;
+					keys[j] = ( next << 32 ) | i;
+				}
+				Arrays.sort( keys, start, end );
+			} );
+			IntStream.range( 0, starts.length ).parallel( ).forEach( g -> {
+				int start = starts[g];
+				for ( int j = start; j < group_end[start]; j++ ) {
+					suffixes[j] = (int) keys[j];
+				}
+			} );
+			/*
+			 * Ranks are updated only after all the groups have been sorted, because
+			 * sorting a group reads the ranks of suffixes in other groups.
+			 */
+			for ( int start : starts ) {
+				split( keys, suffixes, rank, group_end, start, group_end[start] );
+			}
+		}
+		return suffixes;
+	}
+
+	/*
+	 * Splits the argument range of the suffix array into groups of equal keys
+	 * (comparing the high 32 bits), updating ranks and group ends.
+	 */
+	private static void split( long[] keys, int[] suffixes, int[] rank,
+			int[] group_end, int start, int end ) {
+		int group = start;
+		for ( int j = start; j < end; j++ ) {
+			if ( j > start && ( keys[j] >>> 32 ) != ( keys[j - 1] >>> 32 ) ) {
+				group_end[group] = j;
+				group = j;
+			}
+			rank[suffixes[j]] = group;
+		}
+		group_end[group] = end;
+	}
+
+	private static int[] unsorted_groups( int[] group_end ) {
+		int count = 0;
+		for ( int j = 0; j < group_end.length; j = group_end[j] ) {
+			if ( group_end[j] - j > 1 ) {
+				count++;
+			}
+		}
+		int[] result = new int[count];
+		count = 0;
+		for ( int j = 0; j < group_end.length; j = group_end[j] ) {
+			if ( group_end[j] - j > 1 ) {
+				result[count++] = j;
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Returns the codes of the elements of the argument pattern, or null when
+	 * some element does not occur in the indexed tuple.
+	 */
+	private int[] encode( Tuple<? extends K> pattern ) {
+		final int m = pattern.size( );
+		int[] result = new int[m];
+		for ( int k = 0; k < m; k++ ) {
+			Integer code = codes_of_elements.get( pattern.get( k ) );
+			if ( code == null ) {
+				return null;
+			}
+			result[k] = code;
+		}
+		return result;
+	}
+
+	/*
+	 * Compares the prefix of the argument suffix with the argument pattern.
+	 */
+	private int compare( int suffix, int[] pattern ) {
+		final int n = codes.length;
+		for ( int k = 0; k < pattern.length; k++ ) {
+			if ( suffix + k >= n ) {
+				return -1;
+			}
+			int difference = Integer.compare( codes[suffix + k], pattern[k] );
+			if ( difference != 0 ) {
+				return difference;
+			}
+		}
+		return 0;
+	}
+
+	/*
+	 * Returns the range of the suffix array holding the suffixes that start
+	 * with the argument pattern, as {start, end}.
+	 */
+	private int[] range( int[] pattern ) {
+		int low = 0;
+		int high = suffixes.length;
+		while ( low < high ) {
+			int middle = ( low + high ) >>> 1;
+			if ( compare( suffixes[middle], pattern ) < 0 ) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		int start = low;
+		high = suffixes.length;
+		while ( low < high ) {
+			int middle = ( low + high ) >>> 1;
+			if ( compare( suffixes[middle], pattern ) <= 0 ) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return new int[] { start, low };
+	}
+
+	/*
+	 * Returns the positions of the occurrences of the argument pattern, in
+	 * increasing order.
+	 */
+	private int[] positions( Tuple<? extends K> pattern ) {
+		if ( pattern.size( ) == 0 ) {
+			return IntStream.rangeClosed( 0, codes.length ).toArray( );
+		}
+		int[] encoded = encode( pattern );
+		if ( encoded == null ) {
+			return new int[0];
+		}
+		int[] range = range( encoded );
+		int[] result = Arrays.copyOfRange( suffixes, range[0], range[1] );
+		Arrays.sort( result );
+		return result;
+	}
+
+	/**
+	 * <p>
+	 * {@code contains} returns {@code true} when the argument tuple is a subtuple
+	 * of the indexed tuple; {@code false} otherwise.
+	 * </p>
+	 * 
+	 * @param pattern
+	 *          A tuple.
+	 * @return {@code true} when the argument tuple is a subtuple of the indexed
+	 *         tuple; {@code false} otherwise.
+	 * @since 1.0
+	 */
+	public boolean contains( Tuple<? extends K> pattern ) {
+		return count( pattern ) > 0;
+	}
+
+	/**
+	 * <p>
+	 * {@code count} returns the number of subtuples of the indexed tuple equal
+	 * to the argument tuple. Occurrences may overlap. When the argument tuple
+	 * is empty, this method returns the size of the indexed tuple plus one.
+	 * </p>
+	 * 
+	 * @param pattern
+	 *          A tuple.
+	 * @return The number of subtuples of the indexed tuple equal to the argument
+	 *         tuple.
+	 * @since 1.0
+	 */
+	public int count( Tuple<? extends K> pattern ) {
+		if ( pattern.size( ) == 0 ) {
+			return codes.length + 1;
+		}
+		int[] encoded = encode( pattern );
+		if ( encoded == null ) {
+			return 0;
+		}
+		int[] range = range( encoded );
+		return range[1] - range[0];
+	}
+
+	/**
+	 * <p>
+	 * {@code find} returns the index of the first slot of the first subtuple of
+	 * the indexed tuple equal to the argument tuple, if such a subtuple exists.
+	 * </p>
+	 * 
+	 * <p>
+	 * The suffix array is sorted by content, not by position, so this method
+	 * visits every occurrence to find the first one. For a pattern that occurs
+	 * often, {@link #contains(Tuple)} is cheaper.
+	 * </p>
+	 * 
+	 * @param pattern
+	 *          A tuple.
+	 * @return The index of the first slot of the first subtuple equal to the
+	 *         argument tuple, if such a subtuple exists.
+	 * @since 1.0
+	 */
+	public Optional<Integer> find( Tuple<? extends K> pattern ) {
+		if ( pattern.size( ) == 0 ) {
+			return Optional.of( 0 );
+		}
+		int[] encoded = encode( pattern );
+		if ( encoded == null ) {
+			return Optional.empty( );
+		}
+		int[] range = range( encoded );
+		if ( range[0] == range[1] ) {
+			return Optional.empty( );
+		}
+		int first = Integer.MAX_VALUE;
+		for ( int j = range[0]; j < range[1]; j++ ) {
+			first = Math.min( first, suffixes[j] );
+		}
+		return Optional.of( first );
+	}
+
+	/**
+	 * <p>
+	 * {@code findAll} returns a cursor providing access to the indexes of the
+	 * first slots of all the subtuples of the indexed tuple equal to the
+	 * argument tuple, in increasing order.
+	 * </p>
+	 * 
+	 * <p>
+	 * Occurrences may overlap. When the argument tuple is empty, every index
+	 * from zero to the size of the indexed tuple (included) is provided. The
+	 * occurrences are collected and sorted before the cursor is returned.
+	 * </p>
+	 * 
+	 * @param pattern
+	 *          A tuple.
+	 * @return A cursor providing access to the indexes of the first slots of
+	 *         all the subtuples equal to the argument tuple.
+	 * @since 1.0
+	 */
+	public KnittingCursor<Integer> findAll( Tuple<? extends K> pattern ) {
+		return IntKnittingCursor.wrap( positions( pattern ) ).boxed( );
+	}
+
+	/**
+	 * <p>
+	 * {@code size} returns the size of the indexed tuple.
+	 * </p>
+	 * 
+	 * @return The size of the indexed tuple.
+	 * @since 1.0
+	 */
+	public int size( ) {
+		return codes.length;
+	}
+
+	/**
+	 * <p>
+	 * {@code write} writes this index to the argument output, using the argument
+	 * {@code serializer} to write the distinct elements of the indexed tuple.
+	 * </p>
+	 * 
+	 * @param output
+	 *          The output to write to.
+	 * @param serializer
+	 *          A system that writes elements.
+	 * @throws IOException
+	 *           when writing fails.
+	 * @since 1.0
+	 */
+	@SuppressWarnings("unchecked")
+	public void write( DataOutput output, ElementSerializer<K> serializer )
+			throws IOException {
+		output.writeInt( elements.length );
+		for ( Object element : elements ) {
+			serializer.write( (K) element, output );
+		}
+		output.writeInt( codes.length );
+		for ( int code : codes ) {
+			output.writeInt( code );
+		}
+		for ( int suffix : suffixes ) {
+			output.writeInt( suffix );
+		}
+	}
+
+	/**
+	 * <p>
+	 * {@code read} returns an index read from the argument input, using the
+	 * argument {@code serializer} to read the distinct elements of the indexed
+	 * tuple.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of elements in the indexed tuple.
+	 * @param input
+	 *          The input to read from, positioned where an index was written
+	 *          by {@link #write(DataOutput, ElementSerializer)}.
+	 * @param serializer
+	 *          A system that reads elements.
+	 * @return An index read from the argument input.
+	 * @throws IOException
+	 *           when reading fails.
+	 * @since 1.0
+	 */
+	public static <K> TupleIndex<K> read( DataInput input,
+			ElementSerializer<K> serializer )
+			throws IOException {
+		Object[] elements = new Object[input.readInt( )];
+		HashMap<Object, Integer> map = new HashMap<>( elements.length * 2 );
+		for ( int c = 0; c < elements.length; c++ ) {
+			elements[c] = serializer.read( input );
+			map.put( elements[c], c );
+		}
+		int n = input.readInt( );
+		int[] codes = new int[n];
+		for ( int i = 0; i < n; i++ ) {
+			codes[i] = input.readInt( );
+		}
+		int[] suffixes = new int[n];
+		for ( int j = 0; j < n; j++ ) {
+			suffixes[j] = input.readInt( );
+		}
+		return new TupleIndex<>( elements, map, codes, suffixes );
+	}
+}
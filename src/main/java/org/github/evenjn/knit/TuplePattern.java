@@ -0,0 +1,255 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.Optional;
+
+import org.github.evenjn.lang.BasicEquivalencer;
+import org.github.evenjn.lang.Equivalencer;
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.github.evenjn.yarn.Tuple;
+
+/**
+ * <p>
+ * A {@code TuplePattern} is a compiled form of a tuple, which finds the
+ * subtuples of other tuples equivalent to it in linear time.
+ * </p>
+ * 
+ * <p>
+ * Compiling a pattern copies its elements and computes, for each prefix of
+ * the pattern, the length of the longest proper prefix that is also a suffix
+ * of it (the prefix function of the Knuth-Morris-Pratt algorithm). Searching
+ * a tuple of size {@code N} then requires at most {@code 2N} comparisons,
+ * however repetitive the tuples are. A compiled pattern is immutable, and may
+ * be used to search any number of tuples, also concurrently.
+ * </p>
+ * 
+ * <p>
+ * The equivalencer used to compare elements must be an equivalence relation:
+ * reflexive, symmetric and transitive. The equivalencer is invoked with an
+ * element of the searched tuple as first argument and an element of the
+ * pattern as second argument.
+ * </p>
+ * 
+ * <p>
+ * This class is part of package {@link org.github.evenjn.knit Knit}.
+ * </p>
+ * 
+ * @param <K>
+ *          The type of elements in the pattern.
+ * @since 1.0
+ */
+public final class TuplePattern<K> {
+
+	private static final BasicEquivalencer<Object, Object> basic_equivalencer =
+			new BasicEquivalencer<Object, Object>( );
+
+	private final Object[] pattern;
+
+	private final int[] prefix;
+
+	private final Equivalencer<Object, Object> equivalencer;
+
+	@SuppressWarnings("unchecked")
+	private TuplePattern(Tuple<K> pattern,
+			Equivalencer<? super K, ? super K> equivalencer) {
+		final int size = pattern.size( );
+		this.pattern = new Object[size];
+		for ( int i = 0; i < size; i++ ) {
+			this.pattern[i] = pattern.get( i );
+		}
+		this.equivalencer = (Equivalencer<Object, Object>) equivalencer;
+		this.prefix = new int[size];
+		int k = 0;
+		for ( int i = 1; i < size; i++ ) {
+			while ( k > 0 && !equivalent( this.pattern[i], k ) ) {
+				k = prefix[k - 1];
+			}
+			if ( equivalent( this.pattern[i], k ) ) {
+				k++;
+			}
+			prefix[i] = k;
+		}
+	}
+
+	private boolean equivalent( Object element, int index ) {
+		return equivalencer.equivalent( element, pattern[index] );
+	}
+
+	/**
+	 * <p>
+	 * {@code compile} returns a pattern that finds subtuples equal to the
+	 * argument tuple, comparing elements with
+	 * {@link java.lang.Object#equals(Object) equals}.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of elements in the argument tuple.
+	 * @param pattern
+	 *          The tuple to find.
+	 * @return A pattern that finds subtuples equal to the argument tuple.
+	 * @since 1.0
+	 */
+	public static <K> TuplePattern<K> compile( Tuple<K> pattern ) {
+		return new TuplePattern<>( pattern, basic_equivalencer );
+	}
+
+	/**
+	 * <p>
+	 * {@code compile} returns a pattern that finds subtuples equivalent to the
+	 * argument tuple, comparing elements with the argument
+	 * {@code equivalencer}.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of elements in the argument tuple.
+	 * @param pattern
+	 *          The tuple to find.
+	 * @param equivalencer
+	 *          An equivalence relation.
+	 * @return A pattern that finds subtuples equivalent to the argument tuple.
+	 * @since 1.0
+	 */
+	public static <K> TuplePattern<K> compile( Tuple<K> pattern,
+			Equivalencer<? super K, ? super K> equivalencer ) {
+		return new TuplePattern<>( pattern, equivalencer );
+	}
+
+	/**
+	 * <p>
+	 * {@code find} returns the index of the first slot of the first subtuple of
+	 * the argument tuple that is equivalent to this pattern, and that does not
+	 * start before the argument number {@code skip}, if such a subtuple exists.
+	 * </p>
+	 * 
+	 * <p>
+	 * When this pattern is empty, this method returns {@code skip}.
+	 * </p>
+	 * 
+	 * @param tuple
+	 *          The tuple to search.
+	 * @param skip
+	 *          The number of slots to skip.
+	 * @return The index of the first slot of the first matching subtuple, if
+	 *         such a subtuple exists.
+	 * @throws IllegalArgumentException
+	 *           when {@code skip} is negative, or when it is larger than the
+	 *           size of the argument tuple.
+	 * @since 1.0
+	 */
+	public Optional<Integer> find( Tuple<? extends K> tuple, int skip ) {
+		if ( skip < 0 || skip > tuple.size( ) ) {
+			throw new IllegalArgumentException( );
+		}
+		if ( pattern.length == 0 ) {
+			return Optional.of( skip );
+		}
+		int found = next( tuple, skip, new int[1] );
+		return found < 0 ? Optional.empty( ) : Optional.of( found );
+	}
+
+	/**
+	 * <p>
+	 * {@code findAll} returns a cursor providing access to the indexes of the
+	 * first slots of all the subtuples of the argument tuple that are equivalent
+	 * to this pattern, in increasing order.
+	 * </p>
+	 * 
+	 * <p>
+	 * Matching subtuples may overlap. When this pattern is empty, every index
+	 * from zero to the size of the argument tuple (included) is provided. The
+	 * argument tuple is searched lazily, as the cursor advances.
+	 * </p>
+	 * 
+	 * @param tuple
+	 *          The tuple to search.
+	 * @return A cursor providing access to the indexes of the first slots of
+	 *         all the matching subtuples.
+	 * @since 1.0
+	 */
+	public KnittingCursor<Integer> findAll( Tuple<? extends K> tuple ) {
+		return KnittingCursor.wrap( new Cursor<Integer>( ) {
+
+			private int position = 0;
+
+			private final int[] matched = new int[1];
+
+			@Override
+			public Integer next( )
+					throws EndOfCursorException {
+				if ( pattern.length == 0 ) {
+					if ( position > tuple.size( ) ) {
+						throw EndOfCursorException.neo( );
+					}
+					return position++;
+				}
+				int found = TuplePattern.this.next( tuple, position, matched );
+				if ( found < 0 ) {
+					position = tuple.size( );
+					throw EndOfCursorException.neo( );
+				}
+				position = found + pattern.length;
+				return found;
+			}
+		} );
+	}
+
+	/*
+	 * Runs the matcher from slot start of the argument tuple, having already
+	 * matched the first matched[0] elements of the pattern with the slots
+	 * preceding start. Returns the index of the first slot of the next match,
+	 * or -1. On return, matched[0] holds the number of pattern elements that
+	 * the slots up to the end of the match are known to match, so that
+	 * searching can resume at the end of the match.
+	 */
+	private int next( Tuple<? extends K> tuple, int start, int[] matched ) {
+		final Object[] pattern = this.pattern;
+		final int[] prefix = this.prefix;
+		final int m = pattern.length;
+		final int n = tuple.size( );
+		int k = matched[0];
+		for ( int i = start; i < n; i++ ) {
+			Object element = tuple.get( i );
+			while ( k > 0 && !equivalent( element, k ) ) {
+				k = prefix[k - 1];
+			}
+			if ( equivalent( element, k ) ) {
+				k++;
+			}
+			if ( k == m ) {
+				matched[0] = prefix[m - 1];
+				return i - m + 1;
+			}
+		}
+		matched[0] = 0;
+		return -1;
+	}
+
+	/**
+	 * <p>
+	 * {@code size} returns the number of elements in this pattern.
+	 * </p>
+	 * 
+	 * @return The number of elements in this pattern.
+	 * @since 1.0
+	 */
+	public int size( ) {
+		return pattern.length;
+	}
+}
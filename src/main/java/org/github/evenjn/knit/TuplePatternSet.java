@@ -0,0 +1,369 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.github.evenjn.yarn.Tuple;
+
+/**
+ * <p>
+ * A {@code TuplePatternSet} is a compiled collection of non-empty patterns,
+ * which finds all their occurrences in a sequence of elements in one pass,
+ * at a cost that does not depend on the number of patterns.
+ * </p>
+ * 
+ * <p>
+ * Compiling a set builds an Aho-Corasick automaton: a trie of the patterns
+ * where each node links to the node of its longest proper suffix that is also
+ * in the trie. Elements are compared with
+ * {@link java.lang.Object#equals(Object) equals}. Matching reads each element
+ * once, and holds only the current node of the automaton, so it works on
+ * cursors of any length.
+ * </p>
+ * 
+ * <p>
+ * A set is immutable, and may be used by several cursors concurrently.
+ * </p>
+ * 
+ * <p>
+ * This class is part of package {@link org.github.evenjn.knit Knit}.
+ * </p>
+ * 
+ * @param <K>
+ *          The type of elements in the patterns.
+ * @since 1.0
+ */
+public final class TuplePatternSet<K> {
+
+	/*
+	 * Maps each element that occurs in some pattern to a code.
+	 */
+	private final HashMap<Object, Integer> codes;
+
+	/*
+	 * For each code, the child of the root along it, or -1. The root is visited
+	 * most often, so its children are looked up directly.
+	 */
+	private final int[] root_children;
+
+	/*
+	 * The children of node n are at indexes from children_start[n] to
+	 * children_start[n + 1] (excluded) of child_codes and child_nodes, in
+	 * increasing order of code, and are looked up by binary search.
+	 */
+	private final int[] children_start;
+
+	private final int[] child_codes;
+
+	private final int[] child_nodes;
+
+	/*
+	 * For each node, the node of its longest proper suffix in the trie.
+	 */
+	private final int[] fail;
+
+	/*
+	 * For each node, the first pattern ending at it, or -1.
+	 */
+	private final int[] first_pattern;
+
+	/*
+	 * For each node, the nearest node along the fail links where a pattern
+	 * ends, or 0 (the root, where no pattern ends).
+	 */
+	private final int[] dictionary;
+
+	/*
+	 * For each pattern, the next pattern ending at the same node, or -1.
+	 */
+	private final int[] next_pattern;
+
+	private final int[] sizes;
+
+	private TuplePatternSet(HashMap<Object, Integer> codes,
+			int[] root_children, int[] children_start, int[] child_codes,
+			int[] child_nodes, int[] fail, int[] first_pattern, int[] dictionary,
+			int[] next_pattern, int[] sizes) {
+		this.codes = codes;
+		this.root_children = root_children;
+		this.children_start = children_start;
+		this.child_codes = child_codes;
+		this.child_nodes = child_nodes;
+		this.fail = fail;
+		this.first_pattern = first_pattern;
+		this.dictionary = dictionary;
+		this.next_pattern = next_pattern;
+		this.sizes = sizes;
+	}
+
+	/**
+	 * <p>
+	 * {@code compile} returns a set of the argument patterns. Each pattern is
+	 * identified by the number of patterns preceding it in the argument
+	 * collection. Equal patterns are reported separately.
+	 * </p>
+	 * 
+	 * @param <K>
+	 *          The type of elements in the patterns.
+	 * @param patterns
+	 *          The patterns.
+	 * @return A set of the argument patterns.
+	 * @throws IllegalArgumentException
+	 *           when a pattern is empty.
+	 * @since 1.0
+	 */
+	public static <K> TuplePatternSet<K> compile(
+			Iterable<? extends Tuple<? extends K>> patterns )
+			throws IllegalArgumentException {
+		HashMap<Object, Integer> codes = new HashMap<>( );
+		HashMap<Long, Integer> children = new HashMap<>( );
+		ArrayList<Integer> ends = new ArrayList<>( );
+		ArrayList<Integer> sizes = new ArrayList<>( );
+		int[] parent = new int[16];
+		int[] depth = new int[16];
+		int[] code_from_parent = new int[16];
+		int nodes = 1;
+		for ( Tuple<? extends K> pattern : patterns ) {
+			final int size = pattern.size( );
+			if ( size == 0 ) {
+				throw new IllegalArgumentException( "empty pattern" );
+			}
+			int node = 0;
+			for ( int i = 0; i < size; i++ ) {
+				Object element = pattern.get( i );
+				Integer code = codes.get( element );
+				if ( code == null ) {
+					code = codes.size( );
+					codes.put( element, code );
+				}
+				long key = ( (long) node << 32 ) | code;
+				Integer child = children.get( key );
+				if ( child == null ) {
+					if ( nodes == parent.length ) {
+						parent = Arrays.copyOf( parent, nodes * 2 );
+						depth = Arrays.copyOf( depth, nodes * 2 );
+						code_from_parent = Arrays.copyOf( code_from_parent, nodes * 2 );
+					}
+					child = nodes++;
+					parent[child] = node;
+					depth[child] = depth[node] + 1;
+					code_from_parent[child] = code;
+					children.put( key, child );
+				}
+				node = child;
+			}
+			ends.add( node );
+			sizes.add( size );
+		}
+
+		int[] first_pattern = new int[nodes];
+		Arrays.fill( first_pattern, -1 );
+		int[] next_pattern = new int[ends.size( )];
+		for ( int p = ends.size( ) - 1; p >= 0; p-- ) {
+			int node = ends.get( p );
+			next_pattern[p] = first_pattern[node];
+			first_pattern[node] = p;
+		}
+
+		/*
+		 * Links are computed in order of depth, so that the links of shallower
+		 * nodes are available.
+		 */
+		int max_depth = 0;
+		for ( int node = 0; node < nodes; node++ ) {
+			max_depth = Math.max( max_depth, depth[node] );
+		}
+		int[] by_depth = new int[max_depth + 2];
+		for ( int node = 0; node < nodes; node++ ) {
+			by_depth[depth[node] + 1]++;
+		}
+		for ( int d = 1; d < by_depth.length; d++ ) {
+			by_depth[d] += by_depth[d - 1];
+		}
+		int[] order = new int[nodes];
+		for ( int node = 0; node < nodes; node++ ) {
+			order[by_depth[depth[node]]++] = node;
+		}
+		/*
+		 * The trie is moved from the hash map to arrays, sorting the keys
+		 * (node << 32 | code) so that the children of each node are contiguous
+		 * and in increasing order of code.
+		 */
+		int[] root_children = new int[codes.size( )];
+		Arrays.fill( root_children, -1 );
+		int[] children_start = new int[nodes + 1];
+		long[] keys = new long[children.size( )];
+		int k = 0;
+		for ( Long key : children.keySet( ) ) {
+			keys[k++] = key;
+		}
+		Arrays.sort( keys );
+		int[] child_codes = new int[keys.length];
+		int[] child_nodes = new int[keys.length];
+		for ( k = 0; k < keys.length; k++ ) {
+			int node = (int) ( keys[k] >>> 32 );
+			int code = (int) keys[k];
+			int child = children.get( keys[k] );
+			if ( node == 0 ) {
+				root_children[code] = child;
+			}
+			child_codes[k] = code;
+			child_nodes[k] = child;
+			children_start[node + 1]++;
+		}
+		for ( int node = 0; node < nodes; node++ ) {
+			children_start[node + 1] += children_start[node];
+		}
+
+		int[] pattern_sizes = new int[sizes.size( )];
+		for ( int p = 0; p < pattern_sizes.length; p++ ) {
+			pattern_sizes[p] = sizes.get( p );
+		}
+		int[] fail = new int[nodes];
+		int[] dictionary = new int[nodes];
+		TuplePatternSet<K> result = new TuplePatternSet<>( codes, root_children,
+				children_start, child_codes, child_nodes, fail, first_pattern,
+				dictionary, next_pattern, pattern_sizes );
+		for ( int o = 1; o < nodes; o++ ) {
+			int node = order[o];
+			int link = 0;
+			if ( parent[node] != 0 ) {
+				link = result.step( fail[parent[node]], code_from_parent[node] );
+			}
+			fail[node] = link;
+			dictionary[node] = first_pattern[link] >= 0 ? link : dictionary[link];
+		}
+		return result;
+	}
+
+	/*
+	 * Returns the child of the argument node along the argument code, or -1.
+	 */
+	private int child( int node, int code ) {
+		if ( node == 0 ) {
+			return root_children[code];
+		}
+		int low = children_start[node];
+		int high = children_start[node + 1] - 1;
+		while ( low <= high ) {
+			int middle = ( low + high ) >>> 1;
+			int difference = child_codes[middle] - code;
+			if ( difference < 0 ) {
+				low = middle + 1;
+			}
+			else if ( difference > 0 ) {
+				high = middle - 1;
+			}
+			else {
+				return child_nodes[middle];
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Returns the node reached from the argument node reading the argument
+	 * code, following fail links until a child along code is found.
+	 */
+	private int step( int node, int code ) {
+		for ( ;; ) {
+			int child = child( node, code );
+			if ( child >= 0 ) {
+				return child;
+			}
+			if ( node == 0 ) {
+				return 0;
+			}
+			node = fail[node];
+		}
+	}
+
+	/**
+	 * <p>
+	 * {@code findAll} returns a cursor providing access to all the occurrences
+	 * of the patterns in this set in the argument cursor.
+	 * </p>
+	 * 
+	 * <p>
+	 * Occurrences are provided in order of end position. Occurrences with the
+	 * same end position are provided from the longest pattern to the shortest;
+	 * equal patterns are provided in order of identifier. Occurrences may
+	 * overlap. The argument cursor is read lazily, as the returned cursor
+	 * advances.
+	 * </p>
+	 * 
+	 * @param cursor
+	 *          The cursor to search.
+	 * @return A cursor providing access to all the occurrences of the patterns
+	 *         in this set.
+	 * @since 1.0
+	 */
+	public KnittingCursor<PatternMatch> findAll( Cursor<? extends K> cursor ) {
+		return KnittingCursor.wrap( new Cursor<PatternMatch>( ) {
+
+			private int node = 0;
+
+			private long position = 0;
+
+			/*
+			 * The node whose patterns are being reported, and the next pattern to
+			 * report.
+			 */
+			private int reported_node = 0;
+
+			private int reported_pattern = -1;
+
+			@Override
+			public PatternMatch next( )
+					throws EndOfCursorException {
+				while ( reported_pattern < 0 ) {
+					Integer code = codes.get( cursor.next( ) );
+					position++;
+					node = code == null ? 0 : step( node, code );
+					reported_node = first_pattern[node] >= 0 ? node : dictionary[node];
+					reported_pattern = first_pattern[reported_node];
+				}
+				int pattern = reported_pattern;
+				reported_pattern = next_pattern[pattern];
+				if ( reported_pattern < 0 ) {
+					reported_node = dictionary[reported_node];
+					reported_pattern = first_pattern[reported_node];
+				}
+				return new PatternMatchImpl( pattern, position - sizes[pattern],
+						position );
+			}
+		} );
+	}
+
+	/**
+	 * <p>
+	 * {@code size} returns the number of patterns in this set.
+	 * </p>
+	 * 
+	 * @return The number of patterns in this set.
+	 * @since 1.0
+	 */
+	public int size( ) {
+		return sizes.length;
+	}
+}
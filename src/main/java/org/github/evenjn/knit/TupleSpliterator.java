@@ -0,0 +1,89 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.github.evenjn.yarn.Tuple;
+
+/*
+ * A spliterator over a range of slots of a tuple. It knows its exact size and
+ * splits by halving the range, so that tuples can feed parallel streams.
+ *
+ * It does not report IMMUTABLE: a wrapped tuple may be a view over an array
+ * or a list that its owner can still modify.
+ */
+class TupleSpliterator<I> implements
+		Spliterator<I> {
+
+	private final Tuple<I> tuple;
+
+	private int index;
+
+	private final int end;
+
+	TupleSpliterator(Tuple<I> tuple, int start, int end) {
+		this.tuple = tuple;
+		this.index = start;
+		this.end = end;
+	}
+
+	@Override
+	public boolean tryAdvance( Consumer<? super I> action ) {
+		if ( index < end ) {
+			action.accept( tuple.get( index++ ) );
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void forEachRemaining( Consumer<? super I> action ) {
+		final int end = this.end;
+		while ( index < end ) {
+			action.accept( tuple.get( index++ ) );
+		}
+	}
+
+	@Override
+	public Spliterator<I> trySplit( ) {
+		int middle = ( index + end ) >>> 1;
+		if ( middle <= index ) {
+			return null;
+		}
+		Spliterator<I> prefix = new TupleSpliterator<>( tuple, index, middle );
+		index = middle;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize( ) {
+		return end - index;
+	}
+
+	@Override
+	public long getExactSizeIfKnown( ) {
+		return end - index;
+	}
+
+	@Override
+	public int characteristics( ) {
+		return ORDERED | SIZED | SUBSIZED;
+	}
+}
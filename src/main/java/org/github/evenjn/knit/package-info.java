@@ -10,10 +10,24 @@
  * </p>
  * 
  * <ul>
+ * <li>{@link org.github.evenjn.knit.DoubleCursor DoubleCursor}</li>
+ * <li>{@link org.github.evenjn.knit.DoubleKnittingCursor DoubleKnittingCursor}</li>
+ * <li>{@link org.github.evenjn.knit.ElementSerializer ElementSerializer}</li>
+ * <li>{@link org.github.evenjn.knit.IntCursor IntCursor}</li>
+ * <li>{@link org.github.evenjn.knit.IntKnittingCursor IntKnittingCursor}</li>
+ * <li>{@link org.github.evenjn.knit.IntKnittingTuple IntKnittingTuple}</li>
  * <li>{@link org.github.evenjn.knit.KnittingCursable KnittingCursable}</li>
  * <li>{@link org.github.evenjn.knit.KnittingCursor KnittingCursor}</li>
  * <li>{@link org.github.evenjn.knit.KnittingTuple KnittingTuple}</li>
+ * <li>{@link org.github.evenjn.knit.LongCursor LongCursor}</li>
+ * <li>{@link org.github.evenjn.knit.LongKnittingCursor LongKnittingCursor}</li>
+ * <li>{@link org.github.evenjn.knit.LongKnittingTuple LongKnittingTuple}</li>
  * <li>{@link org.github.evenjn.knit.Numbered Numbered}</li>
+ * <li>{@link org.github.evenjn.knit.PatternMatch PatternMatch}</li>
+ * <li>{@link org.github.evenjn.knit.RecordDecoder RecordDecoder}</li>
+ * <li>{@link org.github.evenjn.knit.TupleIndex TupleIndex}</li>
+ * <li>{@link org.github.evenjn.knit.TuplePattern TuplePattern}</li>
+ * <li>{@link org.github.evenjn.knit.TuplePatternSet TuplePatternSet}</li>
  * </ul>
  * 
  * @since 1.0
@@ -0,0 +1,188 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.github.evenjn.lang.BasicRook;
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.github.evenjn.yarn.OptionalPurl;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class AllocationTest {
+
+	private static final int elements = 4_000_000;
+
+	/*
+	 * Anything below one byte per element proves that no object is allocated
+	 * per element.
+	 */
+	private static final long budget = elements / 4;
+
+	private static final Integer constant = 42;
+
+	private static final Optional<Integer> present = Optional.of( constant );
+
+	/*
+	 * A cursor that does not allocate.
+	 */
+	private static class Repeat implements
+			Cursor<Integer> {
+
+		private int left;
+
+		Repeat(int times) {
+			this.left = times;
+		}
+
+		@Override
+		public Integer next( )
+				throws EndOfCursorException {
+			if ( left-- == 0 ) {
+				throw EndOfCursorException.neo( );
+			}
+			return constant;
+		}
+	}
+
+	/*
+	 * Reads the argument cursor through hasNext() and next(), rather than
+	 * through the rolling methods, which take the push path.
+	 */
+	private static int drain( KnittingCursor<Integer> cursor ) {
+		int count = 0;
+		try {
+			while ( cursor.hasNext( ) ) {
+				cursor.next( );
+				count++;
+			}
+		}
+		catch ( EndOfCursorException e ) {
+			throw new IllegalStateException( e );
+		}
+		return count;
+	}
+
+	private static long allocated( Supplier<KnittingCursor<Integer>> pipeline,
+			ToIntFunction<KnittingCursor<Integer>> consumer ) {
+		java.lang.management.ThreadMXBean bean =
+				ManagementFactory.getThreadMXBean( );
+		Assume.assumeTrue( bean instanceof com.sun.management.ThreadMXBean );
+		com.sun.management.ThreadMXBean sun_bean =
+				(com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue( sun_bean.isThreadAllocatedMemorySupported( ) );
+		sun_bean.setThreadAllocatedMemoryEnabled( true );
+		long thread = Thread.currentThread( ).getId( );
+
+		/*
+		 * Warm up, so that class loading and linking are not measured.
+		 */
+		consumer.applyAsInt( pipeline.get( ) );
+		long before = sun_bean.getThreadAllocatedBytes( thread );
+		int count = consumer.applyAsInt( pipeline.get( ) );
+		long after = sun_bean.getThreadAllocatedBytes( thread );
+		assertEquals( "count", elements, count );
+		return after - before;
+	}
+
+	private static void assertNoGarbage( String message,
+			Supplier<KnittingCursor<Integer>> pipeline ) {
+		long bytes = allocated( pipeline, KnittingCursor::count );
+		assertTrue( message + " allocated " + bytes + " bytes", bytes < budget );
+		bytes = allocated( pipeline, AllocationTest::drain );
+		assertTrue( message + " allocated " + bytes + " bytes through next()",
+				bytes < budget );
+	}
+
+	@Test
+	public void testMap( ) {
+		assertNoGarbage( "map", ( ) -> KnittingCursor
+				.wrap( new Repeat( elements ) ).map( x -> x ) );
+	}
+
+	@Test
+	public void testRingMap( ) {
+		try ( BasicRook rook = new BasicRook( ) ) {
+			assertNoGarbage( "ring map", ( ) -> KnittingCursor
+					.wrap( new Repeat( elements ) ).map( rook, ( r, x ) -> x ) );
+		}
+	}
+
+	@Test
+	public void testFlatmapOptional( ) {
+		assertNoGarbage( "flatmap optional", ( ) -> KnittingCursor
+				.wrap( new Repeat( elements ) ).flatmapOptional( x -> present ) );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			assertNoGarbage( "flatmap optional with rook",
+					( ) -> KnittingCursor.wrap( new Repeat( elements ) )
+							.flatmapOptional( rook, ( r, x ) -> present ) );
+		}
+	}
+
+	@Test
+	public void testPurlOptional( ) {
+		assertNoGarbage( "purl optional",
+				( ) -> KnittingCursor.wrap( new Repeat( elements ) )
+						.purlOptional( new OptionalPurl<Integer, Integer>( ) {
+
+							@Override
+							public Optional<Integer> next( Integer input ) {
+								return present;
+							}
+
+							@Override
+							public Optional<Integer> end( ) {
+								return Optional.empty( );
+							}
+						} ) );
+	}
+
+	@Test
+	public void testTemporaryRook( )
+			throws EndOfCursorException {
+		ArrayList<String> log = new ArrayList<>( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			KnittingCursor<Integer> cursor = KnittingCursor.on( 1, 2, 3 )
+					.map( rook, ( r, x ) -> {
+						r.hook( ( ) -> log.add( "close " + x ) );
+						log.add( "open " + x );
+						return x;
+					} );
+			cursor.next( );
+			cursor.next( );
+			assertEquals( "lazy", "[open 1, close 1, open 2]", log.toString( ) );
+		}
+		assertEquals( "abandoned", "[open 1, close 1, open 2, close 2]",
+				log.toString( ) );
+	}
+
+	@Test
+	public void testPurlOptionalEnd( ) {
+		ArrayList<Integer> result = KnittingCursor.on( 1, 1, 2, 3, 3 )
+				.purlOptional( new OptionalPurl<Integer, Integer>( ) {
+
+					private Integer previous = null;
+
+					@Override
+					public Optional<Integer> next( Integer input ) {
+						Optional<Integer> output = input.equals( previous )
+								? Optional.empty( ) : Optional.ofNullable( previous );
+						previous = input;
+						return output;
+					}
+
+					@Override
+					public Optional<Integer> end( ) {
+						return Optional.ofNullable( previous );
+					}
+				} ).collect( new ArrayList<>( ) );
+		assertEquals( "squeeze", "[1, 2, 3]", result.toString( ) );
+	}
+}
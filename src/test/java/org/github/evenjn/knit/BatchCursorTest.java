@@ -0,0 +1,107 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.junit.Test;
+
+public class BatchCursorTest {
+
+	private static Integer[] range( int from, int to ) {
+		Integer[] result = new Integer[to - from];
+		for ( int i = from; i < to; i++ ) {
+			result[i - from] = i;
+		}
+		return result;
+	}
+
+	/*
+	 * A foreign cursor that reuses the object it returns.
+	 */
+	private static class Reuse implements
+			Cursor<int[]> {
+
+		private final int[] current = new int[1];
+
+		private final int limit;
+
+		Reuse(int limit) {
+			this.limit = limit;
+		}
+
+		@Override
+		public int[] next( )
+				throws EndOfCursorException {
+			if ( current[0] == limit ) {
+				throw EndOfCursorException.neo( );
+			}
+			current[0]++;
+			return current;
+		}
+	}
+
+	@Test
+	public void testNextBatch( ) {
+		KnittingCursor<Integer> cursor = KnittingCursor.wrap( range( 0, 300 ) )
+				.append( KnittingCursor.wrap( Arrays.asList( range( 300, 500 ) ) ) )
+				.headless( 10 ).head( 450 ).filter( x -> x % 2 == 0 );
+		assertEquals( "has next", true, cursor.hasNext( ) );
+		Integer[] buffer = new Integer[100];
+		ArrayList<Integer> result = new ArrayList<>( );
+		int filled;
+		do {
+			filled = cursor.nextBatch( buffer );
+			result.addAll( Arrays.asList( buffer ).subList( 0, filled ) );
+		}
+		while ( filled == buffer.length );
+		assertEquals( "size", 225, result.size( ) );
+		assertEquals( "first", 10, (int) result.get( 0 ) );
+		assertEquals( "last", 458, (int) result.get( 224 ) );
+		assertEquals( "end", 0, cursor.nextBatch( buffer ) );
+	}
+
+	@Test
+	public void testRolling( ) {
+		KnittingCursable<Integer> cursable = KnittingCursable.wrap( range( 0, 1000 ) )
+				.headless( 1 ).map( x -> x * 2 );
+		assertEquals( "count", 999, cursable.count( ) );
+		assertEquals( "collect", 999,
+				cursable.collect( new ArrayList<>( ) ).size( ) );
+		assertEquals( "reduce", 999000, (int) cursable.reduce( 0, ( a, b ) -> a + b ) );
+		int[] sum = new int[1];
+		cursable.consume( rook -> x -> sum[0] += x );
+		assertEquals( "consume", 999000, sum[0] );
+	}
+
+	@Test
+	public void testForeignCursorsAreNotBatchedWhenReduced( ) {
+		int reduction = KnittingCursor.wrap( new Reuse( 1000 ) )
+				.append( KnittingCursor.on( new int[] { 1 } ) ).headless( 1 )
+				.map( a -> a ).reduce( 0, ( a, b ) -> a + b[0] );
+		assertEquals( "reduce", 500500, reduction );
+	}
+
+	@Test
+	public void testStagesSeeRecycledElementsBeforeTheSourceAdvances( ) {
+		ArrayList<Integer> peeked = new ArrayList<>( );
+		KnittingCursor<Integer> cursor = KnittingCursor.wrap( new Reuse( 300 ) )
+				.peek( a -> peeked.add( a[0] ) ).map( a -> a[0] );
+		Integer[] buffer = new Integer[200];
+		ArrayList<Integer> result = new ArrayList<>( );
+		int filled;
+		do {
+			filled = cursor.nextBatch( buffer );
+			result.addAll( Arrays.asList( buffer ).subList( 0, filled ) );
+		}
+		while ( filled == buffer.length );
+		assertEquals( "size", 300, result.size( ) );
+		for ( int i = 0; i < 300; i++ ) {
+			assertEquals( "element", i + 1, (int) result.get( i ) );
+			assertEquals( "peeked", i + 1, (int) peeked.get( i ) );
+		}
+	}
+}
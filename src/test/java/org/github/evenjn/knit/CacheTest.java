@@ -0,0 +1,86 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.github.evenjn.lang.BasicRook;
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.junit.Test;
+
+public class CacheTest {
+
+	private static KnittingCursable<Integer> range( int size,
+			AtomicInteger computed ) {
+		Integer[] array = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			array[i] = i;
+		}
+		return KnittingCursable.wrap( array )
+				.peek( x -> computed.incrementAndGet( ) );
+	}
+
+	@Test
+	public void testReplay( ) {
+		for ( int size : new int[] { 0, 1, 1023, 1024, 1025, 5000 } ) {
+			AtomicInteger computed = new AtomicInteger( );
+			KnittingCursable<Integer> cached = range( size, computed ).cache( );
+			assertEquals( "count", size, cached.count( ) );
+			assertEquals( "replay", size, cached.count( ) );
+			ArrayList<Integer> list = cached.collect( new ArrayList<>( ) );
+			for ( int i = 0; i < size; i++ ) {
+				assertEquals( "element", Integer.valueOf( i ), list.get( i ) );
+			}
+			assertEquals( "computed once", size, computed.get( ) );
+		}
+	}
+
+	@Test
+	public void testInterleaved( )
+			throws EndOfCursorException {
+		AtomicInteger computed = new AtomicInteger( );
+		KnittingCursable<Integer> cached = range( 3000, computed ).cache( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			KnittingCursor<Integer> first = cached.pull( rook );
+			KnittingCursor<Integer> second = cached.pull( rook );
+			for ( int i = 0; i < 3000; i++ ) {
+				assertEquals( "first", Integer.valueOf( i ), first.next( ) );
+				assertEquals( "second", Integer.valueOf( i ), second.next( ) );
+			}
+			assertTrue( "end", !first.hasNext( ) && !second.hasNext( ) );
+		}
+		assertTrue( "equivalent",
+				cached.equivalentTo( range( 3000, new AtomicInteger( ) ) ) );
+		assertTrue( "bounded", computed.get( ) <= 6000 );
+	}
+
+	@Test
+	public void testBudget( ) {
+		AtomicInteger computed = new AtomicInteger( );
+		KnittingCursable<Integer> cached = range( 5000, computed ).cache( 2048 );
+		assertEquals( "count", 5000, cached.count( ) );
+		assertEquals( "first pull", 5000, computed.get( ) );
+		assertEquals( "cached prefix", 2048, cached.head( 2048 ).count( ) );
+		assertEquals( "no recomputation", 5000, computed.get( ) );
+		assertEquals( "replay", 5000, cached.count( ) );
+		assertEquals( "recomputed suffix", 10000, computed.get( ) );
+		assertEquals( "last", Integer.valueOf( 4999 ),
+				cached.headless( 4999 ).one( ) );
+	}
+
+	@Test
+	public void testBudgetSmallerThanOneChunk( ) {
+		AtomicInteger computed = new AtomicInteger( );
+		KnittingCursable<Integer> cached = range( 300, computed ).cache( 500 );
+		assertEquals( "count", 300, cached.count( ) );
+		assertEquals( "replay", 300, cached.count( ) );
+		assertEquals( "no recomputation", 300, computed.get( ) );
+		computed.set( 0 );
+		cached = range( 5000, computed ).cache( 1 );
+		cached.count( );
+		assertEquals( "first chunk", 1024, cached.head( 1024 ).count( ) );
+		assertEquals( "first chunk not recomputed", 5000, computed.get( ) );
+	}
+}
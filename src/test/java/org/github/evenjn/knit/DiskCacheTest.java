@@ -0,0 +1,87 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.github.evenjn.lang.BasicRook;
+import org.junit.Test;
+
+public class DiskCacheTest {
+
+	private static final ElementSerializer<String> strings =
+			new ElementSerializer<String>( ) {
+
+				@Override
+				public void write( String element, DataOutput output )
+						throws IOException {
+					output.writeUTF( element );
+				}
+
+				@Override
+				public String read( DataInput input )
+						throws IOException {
+					return input.readUTF( );
+				}
+			};
+
+	private static KnittingCursable<String> range( int size,
+			AtomicInteger computed ) {
+		String[] array = new String[size];
+		for ( int i = 0; i < size; i++ ) {
+			array[i] = "e" + i;
+		}
+		return KnittingCursable.wrap( array )
+				.peek( x -> computed.incrementAndGet( ) );
+	}
+
+	@Test
+	public void testReplay( ) {
+		AtomicInteger computed = new AtomicInteger( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			KnittingCursable<String> cached =
+					range( 10000, computed ).cache( rook, strings );
+			assertEquals( "count", 10000, cached.count( ) );
+			ArrayList<String> list = cached.collect( new ArrayList<>( ) );
+			assertEquals( "size", 10000, list.size( ) );
+			assertEquals( "element", "e9999", list.get( 9999 ) );
+			assertTrue( "equivalent",
+					cached.equivalentTo( range( 10000, new AtomicInteger( ) ) ) );
+			assertEquals( "computed once", 10000, computed.get( ) );
+		}
+	}
+
+	@Test
+	public void testAbandoned( ) {
+		AtomicInteger computed = new AtomicInteger( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			KnittingCursable<String> cached =
+					range( 100, computed ).cache( rook, strings );
+			assertEquals( "head", "e0", cached.head( 1 ).one( ) );
+			assertEquals( "count", 100, cached.count( ) );
+			assertEquals( "replay", 100, cached.count( ) );
+			assertEquals( "computed", 101, computed.get( ) );
+		}
+	}
+
+	@Test
+	public void testClosed( ) {
+		KnittingCursable<String> cached;
+		try ( BasicRook rook = new BasicRook( ) ) {
+			cached = range( 10, new AtomicInteger( ) ).cache( rook, strings );
+			cached.count( );
+		}
+		try {
+			cached.count( );
+			fail( "exception expected" );
+		}
+		catch ( IllegalStateException e ) {
+		}
+	}
+}
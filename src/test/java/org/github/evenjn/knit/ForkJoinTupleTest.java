@@ -0,0 +1,100 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class ForkJoinTupleTest {
+
+	private static KnittingTuple<Integer> range( int size ) {
+		Integer[] array = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			array[i] = i;
+		}
+		return KnittingTuple.wrap( array );
+	}
+
+	@Test
+	public void testParallelReduce( ) {
+		KnittingTuple<Integer> tuple = range( 100000 );
+		assertEquals( "sum", Long.valueOf( 4999950000L ), tuple
+				.parallelReduce( 0L, ( sum, x ) -> sum + x, ( a, b ) -> a + b ) );
+		assertEquals( "order", "0123456789", range( 10 ).parallelReduce( "",
+				( s, x ) -> s + x, ( a, b ) -> a + b ) );
+		assertEquals( "empty", "z", range( 0 ).parallelReduce( "z",
+				( s, x ) -> s + x, ( a, b ) -> a + b ) );
+	}
+
+	@Test
+	public void testParallelCollect( ) {
+		ArrayList<Integer> list = range( 10000 ).reverse( ).parallelCollect(
+				ArrayList::new, ArrayList::add, ArrayList::addAll );
+		assertEquals( "size", 10000, list.size( ) );
+		assertEquals( "first", Integer.valueOf( 9999 ), list.get( 0 ) );
+		assertEquals( "last", Integer.valueOf( 0 ), list.get( 9999 ) );
+		assertTrue( "empty", range( 0 )
+				.parallelCollect( ArrayList::new, ArrayList::add, ArrayList::addAll )
+				.isEmpty( ) );
+	}
+
+	@Test
+	public void testParallelMap( ) {
+		AtomicInteger invocations = new AtomicInteger( );
+		KnittingTuple<String> mapped = range( 1000 ).parallelMap( x -> {
+			invocations.incrementAndGet( );
+			return "e" + x;
+		} );
+		mapped.get( 7 );
+		mapped.get( 7 );
+		assertEquals( "invocations", 1000, invocations.get( ) );
+		assertEquals( "size", 1000, mapped.size( ) );
+		assertEquals( "element", "e7", mapped.get( 7 ) );
+		assertTrue( "equivalent", mapped.equivalentTo( range( 1000 )
+				.map( x -> "e" + x ) ) );
+	}
+
+	@Test
+	public void testParallelConsume( ) {
+		AtomicLong sum = new AtomicLong( );
+		AtomicInteger opened = new AtomicInteger( );
+		AtomicInteger closed = new AtomicInteger( );
+		range( 100000 ).parallelConsume( rook -> {
+			opened.incrementAndGet( );
+			rook.hook( ( ) -> closed.incrementAndGet( ) );
+			return x -> sum.addAndGet( x );
+		} );
+		assertEquals( "sum", 4999950000L, sum.get( ) );
+		assertTrue( "opened", opened.get( ) >= 1 );
+		assertEquals( "closed", opened.get( ), closed.get( ) );
+	}
+
+	@Test
+	public void testParallelFindAll( ) {
+		Random random = new Random( 1 );
+		Integer[] haystack = new Integer[20000];
+		for ( int i = 0; i < haystack.length; i++ ) {
+			haystack[i] = random.nextInt( 2 );
+		}
+		KnittingTuple<Integer> tuple = KnittingTuple.wrap( haystack );
+		for ( int m = 0; m < 12; m++ ) {
+			KnittingTuple<Integer> pattern = tuple.subTuple( 5000, 5000 + m );
+			assertEquals( "size " + m,
+					TuplePattern.compile( pattern ).findAll( tuple )
+							.collect( new ArrayList<>( ) ),
+					tuple.parallelFindAll( pattern ).collect( new ArrayList<>( ) ) );
+		}
+		assertEquals( "longer", 0, range( 3 ).parallelFindAll( range( 4 ) ).count( ) );
+		/*
+		 * A constant hasher makes every window a candidate.
+		 */
+		assertEquals( "verified", "[2, 5]", KnittingTuple.on( 1, 2, 3, 4, 5, 3, 4 )
+				.parallelFindAll( KnittingTuple.on( 3, 4 ), x -> 0, Integer::equals )
+				.collect( new ArrayList<>( ) ).toString( ) );
+	}
+}
@@ -0,0 +1,35 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+public class FusedCursorTest {
+
+	@Test
+	public void testChain( ) {
+		ArrayList<Integer> peeked = new ArrayList<>( );
+		ArrayList<String> result = KnittingCursor.on( 1, 2, 3, 4, 5, 6 )
+				.map( x -> x * 10 )
+				.filter( x -> x != 30 )
+				.peek( peeked::add )
+				.numbered( )
+				.filter( n -> n.getNumber( ) % 2 == 0 )
+				.map( n -> n.getNumber( ) + ":" + n.get( ) )
+				.collect( new ArrayList<>( ) );
+		assertEquals( "peek", "[10, 20, 40, 50, 60]", peeked.toString( ) );
+		assertEquals( "chain", "[0:10, 2:40, 4:60]", result.toString( ) );
+	}
+
+	@Test
+	public void testCursablePullsAreIndependent( ) {
+		KnittingCursable<Numbered<Integer>> numbered = KnittingCursable
+				.on( 1, 2, 3, 4 ).filter( x -> x > 1 ).numbered( );
+		for ( int pull = 0; pull < 2; pull++ ) {
+			assertEquals( "numbered", "[0 2, 1 3, 2 4]",
+					numbered.collect( new ArrayList<>( ) ).toString( ) );
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.github.evenjn.lang.BasicRook;
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.junit.Test;
+
+public class GenerateTest {
+
+	@Test
+	public void testGenerate( ) {
+		try ( BasicRook rook = new BasicRook( ) ) {
+			ArrayList<Integer> result = KnittingCursor.<Integer> generate( rook,
+					sink -> {
+						for ( int i = 0; i < 10000; i++ ) {
+							sink.accept( i );
+						}
+					} ).collect( new ArrayList<>( ) );
+			assertEquals( "size", 10000, result.size( ) );
+			for ( int i = 0; i < 10000; i++ ) {
+				assertEquals( "element", Integer.valueOf( i ), result.get( i ) );
+			}
+		}
+	}
+
+	@Test
+	public void testCursable( ) {
+		AtomicInteger runs = new AtomicInteger( );
+		KnittingCursable<String> cursable = KnittingCursable.generate( sink -> {
+			runs.incrementAndGet( );
+			sink.accept( "a" );
+			sink.accept( "b" );
+		} );
+		assertEquals( "first", 2, cursable.count( ) );
+		assertEquals( "second", "ab",
+				cursable.reduce( "", ( s, x ) -> s + x ) );
+		assertEquals( "runs", 2, runs.get( ) );
+	}
+
+	@Test
+	public void testFailure( ) {
+		ArrayList<Integer> seen = new ArrayList<>( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			KnittingCursor.<Integer> generate( rook, sink -> {
+				sink.accept( 1 );
+				sink.accept( 2 );
+				throw new UnsupportedOperationException( "three" );
+			} ).consume( r -> seen::add );
+			fail( "exception expected" );
+		}
+		catch ( UnsupportedOperationException e ) {
+			assertEquals( "message", "three", e.getMessage( ) );
+		}
+		assertEquals( "elements before failure", 2, seen.size( ) );
+	}
+
+	@Test
+	public void testRook( )
+			throws EndOfCursorException,
+			InterruptedException {
+		AtomicBoolean unwound = new AtomicBoolean( );
+		BasicRook rook = new BasicRook( );
+		KnittingCursor<Integer> generated =
+				KnittingCursor.generate( rook, sink -> {
+					try {
+						for ( int i = 0;; i++ ) {
+							sink.accept( i );
+						}
+					}
+					finally {
+						unwound.set( true );
+					}
+				} );
+		generated.next( );
+		rook.close( );
+		for ( int i = 0; i < 100 && !unwound.get( ); i++ ) {
+			Thread.sleep( 10 );
+		}
+		assertTrue( "unwound", unwound.get( ) );
+	}
+
+	@Test
+	public void testThreadFactory( ) {
+		AtomicInteger created = new AtomicInteger( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			int count = KnittingCursor.<Integer> generate( rook, sink -> {
+				sink.accept( 1 );
+			}, runnable -> {
+				created.incrementAndGet( );
+				Thread thread = new Thread( runnable );
+				thread.setDaemon( true );
+				return thread;
+			} ).count( );
+			assertEquals( "count", 1, count );
+		}
+		assertEquals( "created", 1, created.get( ) );
+	}
+}
@@ -0,0 +1,93 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LinesTest {
+
+	private static Path write( String content )
+			throws IOException {
+		Path file = Files.createTempFile( "knit", ".txt" );
+		file.toFile( ).deleteOnExit( );
+		Files.write( file, content.getBytes( StandardCharsets.UTF_8 ) );
+		return file;
+	}
+
+	private static List<String> lines( String content )
+			throws IOException {
+		return KnittingCursable.lines( write( content ) )
+				.collect( new ArrayList<>( ) );
+	}
+
+	@Test
+	public void testTerminators( )
+			throws IOException {
+		assertEquals( "empty", Arrays.asList( ), lines( "" ) );
+		assertEquals( "one", Arrays.asList( "a" ), lines( "a" ) );
+		assertEquals( "terminated", Arrays.asList( "a" ), lines( "a\n" ) );
+		assertEquals( "blank", Arrays.asList( "", "" ), lines( "\n\n" ) );
+		assertEquals( "crlf", Arrays.asList( "a", "b", "c" ),
+				lines( "a\r\nb\nc\r\n" ) );
+	}
+
+	@Test
+	public void testUtf8( )
+			throws IOException {
+		assertEquals( "utf8", Arrays.asList( "caff\u00e8", "\u65e5\u672c",
+				"ascii" ), lines( "caff\u00e8\n\u65e5\u672c\nascii" ) );
+	}
+
+	@Test
+	public void testLongLines( )
+			throws IOException {
+		StringBuilder content = new StringBuilder( );
+		List<String> expected = new ArrayList<>( );
+		for ( int i = 0; i < 50; i++ ) {
+			StringBuilder line = new StringBuilder( );
+			for ( int j = 0; j < i * 997; j++ ) {
+				line.append( j % 3 == 0 ? '\u00e0' : 'x' );
+			}
+			expected.add( line.toString( ) );
+			content.append( line ).append( "\r\n" );
+		}
+		Path file = write( content.toString( ) );
+		assertEquals( "lines", expected,
+				KnittingCursable.lines( file ).collect( new ArrayList<>( ) ) );
+		assertEquals( "again", expected.size( ),
+				KnittingCursable.lines( file ).count( ) );
+	}
+
+	@Test
+	public void testPartitions( )
+			throws IOException {
+		StringBuilder content = new StringBuilder( );
+		List<String> expected = new ArrayList<>( );
+		for ( int i = 0; i < 1000; i++ ) {
+			String line = i % 17 == 0 ? "" : "line " + i;
+			expected.add( line );
+			content.append( line ).append( '\n' );
+		}
+		content.append( "last" );
+		expected.add( "last" );
+		Path file = write( content.toString( ) );
+		for ( int partitions : new int[] { 1, 2, 3, 7, 100, 20000 } ) {
+			KnittingTuple<KnittingCursable<String>> parts =
+					KnittingCursable.lines( file, partitions );
+			assertEquals( "partitions", partitions, parts.size( ) );
+			List<String> actual = new ArrayList<>( );
+			for ( KnittingCursable<String> part : parts.asIterable( ) ) {
+				part.collect( actual );
+			}
+			assertEquals( "lines", expected, actual );
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class MappedTupleTest {
+
+	/*
+	 * Writes records made of an int holding the index and an int holding the
+	 * index modulo 10.
+	 */
+	private static Path write( int records )
+			throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate( records * 8 );
+		for ( int i = 0; i < records; i++ ) {
+			buffer.putInt( i ).putInt( i % 10 );
+		}
+		Path file = Files.createTempFile( "knit", ".records" );
+		file.toFile( ).deleteOnExit( );
+		Files.write( file, buffer.array( ) );
+		return file;
+	}
+
+	private static final RecordDecoder<Integer> first =
+			( buffer, offset ) -> buffer.getInt( offset );
+
+	@Test
+	public void testMapped( )
+			throws IOException {
+		KnittingTuple<Integer> tuple = KnittingTuple.mapped( write( 1000 ), 8,
+				( buffer, offset ) -> buffer.getInt( offset + 4 ) );
+		assertEquals( "size", 1000, tuple.size( ) );
+		assertEquals( "get", Integer.valueOf( 7 ), tuple.get( 997 ) );
+		assertEquals( "find", Optional.of( 3 ), tuple.find( 3, 0 ) );
+		assertEquals( "findSubtuple", Optional.of( 12 ),
+				tuple.findSubtuple( KnittingTuple.on( 2, 3, 4 ), 10 ) );
+		assertEquals( "reverse", Integer.valueOf( 9 ),
+				tuple.reverse( ).subTuple( 10, 20 ).get( 0 ) );
+	}
+
+	@Test
+	public void testSegments( )
+			throws IOException {
+		Path file = write( 1001 );
+		KnittingTuple<Integer> segmented =
+				KnittingTuple.wrap( new MappedTuple<>( file, 8, first, 100 ) );
+		KnittingTuple<Integer> whole = KnittingTuple.mapped( file, 8, first );
+		assertEquals( "size", 1001, segmented.size( ) );
+		assertTrue( "equivalent", segmented.equivalentTo( whole ) );
+		assertEquals( "last", Integer.valueOf( 1000 ), segmented.get( 1000 ) );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPartialRecord( )
+			throws IOException {
+		KnittingTuple.mapped( write( 10 ), 3, first );
+	}
+}
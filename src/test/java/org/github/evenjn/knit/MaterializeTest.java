@@ -0,0 +1,54 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class MaterializeTest {
+
+	private static KnittingTuple<Integer> range( int size ) {
+		Integer[] array = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			array[i] = i % 10;
+		}
+		return KnittingTuple.wrap( array );
+	}
+
+	@Test
+	public void testMaterialize( ) {
+		AtomicInteger invocations = new AtomicInteger( );
+		KnittingTuple<Integer> mapped = range( 1000 ).map( x -> {
+			invocations.incrementAndGet( );
+			return x * 2;
+		} );
+		KnittingTuple<Integer> materialized = mapped.materialize( );
+		assertEquals( "invocations", 1000, invocations.get( ) );
+		assertEquals( "find", Optional.of( 997 ), materialized
+				.findSubtuple( KnittingTuple.on( 14, 16, 18 ), 990 ) );
+		assertTrue( "equivalent", materialized.equivalentTo( mapped ) );
+		assertEquals( "no more invocations", 2000, invocations.get( ) );
+		assertSame( "compact", materialized, materialized.materialize( ) );
+	}
+
+	@Test
+	public void testCompact( ) {
+		KnittingTuple<Integer> tuple = range( 100 );
+		assertSame( "array", tuple, tuple.materialize( ) );
+		KnittingTuple<Integer> sub = tuple.subTuple( 10, 20 );
+		assertSame( "subtuple", sub, sub.parallelMaterialize( ) );
+	}
+
+	@Test
+	public void testParallelMaterialize( ) {
+		KnittingTuple<Integer> chain =
+				range( 10000 ).append( range( 5000 ) ).reverse( ).map( x -> x + 1 );
+		KnittingTuple<Integer> materialized = chain.parallelMaterialize( );
+		assertEquals( "size", 15000, materialized.size( ) );
+		assertTrue( "equivalent", materialized.equivalentTo( chain ) );
+	}
+}
@@ -0,0 +1,115 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class MemoizedMapTest {
+
+	private static KnittingTuple<Integer> range( int size ) {
+		Integer[] array = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			array[i] = i % 10;
+		}
+		return KnittingTuple.wrap( array );
+	}
+
+	@Test
+	public void testMemoized( ) {
+		AtomicInteger invocations = new AtomicInteger( );
+		KnittingTuple<Integer> mapped = range( 1000 ).memoizedMap( x -> {
+			invocations.incrementAndGet( );
+			return x * 2;
+		} );
+		mapped.findSubtuple( KnittingTuple.on( 14, 16, 18, 0 ), 0 );
+		mapped.findSubtuple( KnittingTuple.on( 2, 2 ), 0 );
+		assertTrue( "equivalent",
+				mapped.equivalentTo( range( 1000 ).map( x -> x * 2 ) ) );
+		assertEquals( "once per slot", 1000, invocations.get( ) );
+	}
+
+	@Test
+	public void testNull( ) {
+		AtomicInteger invocations = new AtomicInteger( );
+		KnittingTuple<Integer> mapped = range( 3 ).memoizedMap( x -> {
+			invocations.incrementAndGet( );
+			return null;
+		} );
+		assertNull( "null", mapped.get( 1 ) );
+		assertNull( "null again", mapped.get( 1 ) );
+		assertEquals( "once", 1, invocations.get( ) );
+	}
+
+	@Test
+	public void testConcurrent( ) {
+		AtomicInteger invocations = new AtomicInteger( );
+		KnittingTuple<String> mapped = range( 10000 ).memoizedMap( x -> {
+			invocations.incrementAndGet( );
+			return "e" + x;
+		} );
+		long length = KnittingTuple.wrap( new Integer[8] ).asParallelStream( )
+				.mapToLong( ignored -> mapped.asStream( )
+						.mapToLong( String::length ).sum( ) )
+				.sum( );
+		assertEquals( "length", 8 * 20000, length );
+		assertTrue( "shared", invocations.get( ) < 8 * 10000 );
+	}
+
+	@Test
+	public void testLru( ) {
+		AtomicInteger invocations = new AtomicInteger( );
+		KnittingTuple<Integer> mapped = range( 1000 ).memoizedMap( x -> {
+			invocations.incrementAndGet( );
+			return x + 1;
+		}, 10 );
+		for ( int round = 0; round < 5; round++ ) {
+			for ( int i = 0; i < 10; i++ ) {
+				assertEquals( "element", Integer.valueOf( i % 10 + 1 ),
+						mapped.get( i ) );
+			}
+		}
+		assertEquals( "window", 10, invocations.get( ) );
+		mapped.get( 500 );
+		mapped.get( 0 );
+		assertEquals( "evicted", 12, invocations.get( ) );
+	}
+
+	@Test
+	public void testLruConcurrentMiss( )
+			throws Exception {
+		/*
+		 * Both threads miss on the same slot and compute a result before either
+		 * stores it.
+		 */
+		CountDownLatch both_computing = new CountDownLatch( 2 );
+		KnittingTuple<Object> mapped = range( 10 ).memoizedMap( x -> {
+			both_computing.countDown( );
+			try {
+				both_computing.await( );
+			}
+			catch ( InterruptedException e ) {
+				throw new IllegalStateException( e );
+			}
+			return new Object( );
+		}, 5 );
+		ExecutorService executor = Executors.newFixedThreadPool( 2 );
+		try {
+			Future<Object> first = executor.submit( ( ) -> mapped.get( 3 ) );
+			Future<Object> second = executor.submit( ( ) -> mapped.get( 3 ) );
+			assertSame( "first", first.get( ), second.get( ) );
+			assertSame( "stored", first.get( ), mapped.get( 3 ) );
+		}
+		finally {
+			executor.shutdown( );
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.github.evenjn.lang.BasicRook;
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.junit.Test;
+
+public class ParallelMapTest {
+
+	private static KnittingCursor<Integer> range( int size ) {
+		Integer[] array = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			array[i] = i;
+		}
+		return KnittingCursor.wrap( array );
+	}
+
+	private static void sleep( int millis ) {
+		try {
+			Thread.sleep( millis );
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread( ).interrupt( );
+		}
+	}
+
+	@Test
+	public void testOrder( ) {
+		try ( BasicRook rook = new BasicRook( ) ) {
+			ArrayList<Integer> result = range( 1000 ).parallelMap( rook, x -> {
+				if ( x % 7 == 0 ) {
+					sleep( 1 );
+				}
+				return x * 2;
+			}, 4, 16 ).collect( new ArrayList<>( ) );
+			assertEquals( "size", 1000, result.size( ) );
+			for ( int i = 0; i < 1000; i++ ) {
+				assertEquals( "element", Integer.valueOf( i * 2 ), result.get( i ) );
+			}
+		}
+	}
+
+	@Test
+	public void testWindow( )
+			throws EndOfCursorException {
+		AtomicInteger read = new AtomicInteger( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			KnittingCursor<Integer> mapped = range( 1000 )
+					.peek( x -> read.incrementAndGet( ) )
+					.parallelMap( rook, x -> x, 2, 8 );
+			assertTrue( "has next", mapped.hasNext( ) );
+			assertEquals( "window", 8, read.get( ) );
+			assertEquals( "head", Integer.valueOf( 0 ), mapped.next( ) );
+		}
+	}
+
+	@Test
+	public void testException( ) {
+		try ( BasicRook rook = new BasicRook( ) ) {
+			range( 100 ).parallelMap( rook, x -> {
+				if ( x == 50 ) {
+					throw new UnsupportedOperationException( "fifty" );
+				}
+				return x;
+			}, 3, 10 ).count( );
+			fail( "exception expected" );
+		}
+		catch ( UnsupportedOperationException e ) {
+			assertEquals( "message", "fifty", e.getMessage( ) );
+		}
+	}
+
+	@Test
+	public void testRook( )
+			throws EndOfCursorException {
+		AtomicInteger evaluated = new AtomicInteger( );
+		BasicRook rook = new BasicRook( );
+		KnittingCursor<Integer> mapped = range( 1000 ).parallelMap( rook, x -> {
+			evaluated.incrementAndGet( );
+			return x;
+		}, 2, 4 );
+		mapped.next( );
+		rook.close( );
+		sleep( 50 );
+		assertTrue( "stopped", evaluated.get( ) <= 5 );
+	}
+}
@@ -0,0 +1,82 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.github.evenjn.lang.BasicRook;
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.junit.Test;
+
+public class PrefetchTest {
+
+	private static KnittingCursor<Integer> range( int size ) {
+		Integer[] array = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			array[i] = i;
+		}
+		return KnittingCursor.wrap( array );
+	}
+
+	@Test
+	public void testOrder( ) {
+		try ( BasicRook rook = new BasicRook( ) ) {
+			ArrayList<Integer> result =
+					range( 100000 ).prefetch( rook, 5 ).collect( new ArrayList<>( ) );
+			assertEquals( "size", 100000, result.size( ) );
+			for ( int i = 0; i < 100000; i++ ) {
+				assertEquals( "element", Integer.valueOf( i ), result.get( i ) );
+			}
+		}
+	}
+
+	@Test
+	public void testBackgroundThread( ) {
+		AtomicReference<Thread> reader = new AtomicReference<>( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			range( 10 ).peek( x -> reader.set( Thread.currentThread( ) ) )
+					.prefetch( rook, 4 ).count( );
+		}
+		assertNotEquals( "thread", Thread.currentThread( ), reader.get( ) );
+	}
+
+	@Test
+	public void testFailure( ) {
+		ArrayList<Integer> seen = new ArrayList<>( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			range( 100 ).map( x -> {
+				if ( x == 50 ) {
+					throw new UnsupportedOperationException( "fifty" );
+				}
+				return x;
+			} ).prefetch( rook, 8 ).consume( r -> seen::add );
+			fail( "exception expected" );
+		}
+		catch ( UnsupportedOperationException e ) {
+			assertEquals( "message", "fifty", e.getMessage( ) );
+		}
+		assertEquals( "elements before failure", 50, seen.size( ) );
+	}
+
+	@Test
+	public void testRook( )
+			throws EndOfCursorException,
+			InterruptedException {
+		AtomicInteger read = new AtomicInteger( );
+		BasicRook rook = new BasicRook( );
+		KnittingCursor<Integer> prefetched = range( 100000 )
+				.peek( x -> read.incrementAndGet( ) ).prefetch( rook, 16 );
+		prefetched.next( );
+		rook.close( );
+		Thread.sleep( 50 );
+		int after_close = read.get( );
+		Thread.sleep( 50 );
+		assertEquals( "stopped", after_close, read.get( ) );
+		assertFalse( "bounded", after_close > 100 );
+	}
+}
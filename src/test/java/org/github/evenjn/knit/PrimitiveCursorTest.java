@@ -0,0 +1,52 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+
+import org.github.evenjn.yarn.EndOfCursorException;
+import org.junit.Test;
+
+public class PrimitiveCursorTest {
+
+	@Test
+	public void testRolling( ) {
+		assertEquals( "sum", 3L * Integer.MAX_VALUE,
+				IntKnittingCursor.on( Integer.MAX_VALUE, Integer.MAX_VALUE,
+						Integer.MAX_VALUE ).sum( ) );
+		assertEquals( "min", -3, IntKnittingCursor.on( 4, -3, 8 ).min( ).getAsInt( ) );
+		assertEquals( "max", 8L, LongKnittingCursor.on( 4, -3, 8 ).max( ).getAsLong( ) );
+		assertFalse( "empty", DoubleKnittingCursor.empty( ).max( ).isPresent( ) );
+		assertEquals( "count", 3, DoubleKnittingCursor.on( 1, 2, 3 ).count( ) );
+		assertEquals( "reduce", 24,
+				IntKnittingCursor.on( 2, 3, 4 ).reduce( 1, ( a, b ) -> a * b ) );
+		assertEquals( "double sum", 1.5,
+				DoubleKnittingCursor.on( 0.5, 0.25, 0.75 ).sum( ), 0.0 );
+	}
+
+	@Test
+	public void testTransformations( ) {
+		int[] result = IntKnittingCursor.wrap( new int[] { 1, 2, 3, 4, 5, 6, 7 } )
+				.headless( 1 ).head( 5 ).filter( x -> x % 2 == 0 ).map( x -> x * 10 )
+				.toArray( );
+		assertArrayEquals( "chain", new int[] { 20, 40, 60 }, result );
+		ArrayList<String> strings = KnittingCursor.on( "a", "bb", "ccc" )
+				.mapToInt( String::length ).mapToLong( x -> x * 1000000000000L )
+				.mapToDouble( x -> x / 2.0 ).mapToObj( Double::toString )
+				.collect( new ArrayList<>( ) );
+		assertEquals( "bridge", "[5.0E11, 1.0E12, 1.5E12]", strings.toString( ) );
+		assertEquals( "boxed", "[1, 2]", LongKnittingCursor.on( 1, 2 ).boxed( )
+				.collect( new ArrayList<>( ) ).toString( ) );
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testProtocol( )
+			throws EndOfCursorException {
+		IntKnittingCursor cursor = IntKnittingCursor.on( 1, 2, 3 );
+		assertEquals( "has next", true, cursor.hasNext( ) );
+		assertEquals( "next", 1, cursor.next( ) );
+		cursor.sum( );
+	}
+}
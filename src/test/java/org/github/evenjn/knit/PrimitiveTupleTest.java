@@ -0,0 +1,51 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PrimitiveTupleTest {
+
+	@Test
+	public void testViews( ) {
+		IntKnittingTuple tuple = IntKnittingTuple.on( 0, 1, 2, 3, 4, 5, 6, 7 );
+		assertArrayEquals( "head", new int[] { 0, 1, 2 },
+				tuple.head( 3 ).toArray( ) );
+		assertArrayEquals( "reverse sub", new int[] { 5, 4, 3 },
+				tuple.reverse( ).subTuple( 2, 5 ).toArray( ) );
+		assertArrayEquals( "reverse reverse", new int[] { 0, 1 },
+				tuple.reverse( ).headless( 3 ).tail( 2 ).reverse( ).toArray( ) );
+		assertArrayEquals( "append", new int[] { 7, 6, 0, 1 },
+				tuple.tail( 2 ).reverse( ).append( tuple.head( 2 ) ).toArray( ) );
+		assertEquals( "tailless", 0, tuple.tailless( 20 ).size( ) );
+		assertEquals( "boxed", "[2, 3]",
+				tuple.subTuple( 2, 4 ).boxed( ).asKnittingCursor( )
+						.collect( new java.util.ArrayList<>( ) ).toString( ) );
+		assertEquals( "cursor", 28L, tuple.asIntKnittingCursor( ).sum( ) );
+	}
+
+	@Test
+	public void testSearch( ) {
+		LongKnittingTuple tuple = LongKnittingTuple.on( 1, 2, 1, 2, 3, 1, 2, 3 );
+		LongKnittingTuple pattern = LongKnittingTuple.on( 1, 2, 3 );
+		assertEquals( "find", 2, tuple.find( 1, 1 ).getAsInt( ) );
+		assertEquals( "findSubtuple", 2, tuple.findSubtuple( pattern, 0 ).getAsInt( ) );
+		assertEquals( "findSubtuple skip", 5,
+				tuple.findSubtuple( pattern, 3 ).getAsInt( ) );
+		assertFalse( "findSubtuple none",
+				tuple.findSubtuple( pattern, 6 ).isPresent( ) );
+		assertTrue( "contains", tuple.contains( pattern.reverse( ).reverse( ) ) );
+		assertTrue( "starts", tuple.startsWith( LongKnittingTuple.on( 1, 2 ) ) );
+		assertTrue( "ends", tuple.endsWith( pattern ) );
+		assertTrue( "equivalent", tuple.reverse( ).equivalentTo(
+				LongKnittingTuple.wrap( KnittingTuple.on( 3L, 2L, 1L, 3L, 2L, 1L, 2L, 1L ) ) ) );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetOutOfRange( ) {
+		IntKnittingTuple.on( 1, 2, 3 ).headless( 1 ).get( 2 );
+	}
+}
@@ -0,0 +1,41 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+
+import org.github.evenjn.lang.BasicRook;
+import org.junit.Test;
+
+public class PushCursorTest {
+
+	@Test
+	public void testTemporaryRookIsReleasedAfterConsumption( ) {
+		ArrayList<String> log = new ArrayList<>( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			KnittingCursor.on( 1, 2 ).map( rook, ( r, x ) -> {
+				r.hook( ( ) -> log.add( "close " + x ) );
+				return x;
+			} ).consume( r -> x -> log.add( "consume " + x ) );
+		}
+		assertEquals( "order", "[consume 1, close 1, consume 2, close 2]",
+				log.toString( ) );
+	}
+
+	@Test
+	public void testCachedElementIsPushed( ) {
+		KnittingCursor<Integer> tail = KnittingCursor.on( 3, 4 );
+		tail.hasNext( );
+		assertEquals( "append", "[1, 2, 3, 4]", KnittingCursor.on( 1, 2 )
+				.append( tail ).collect( new ArrayList<>( ) ).toString( ) );
+	}
+
+	@Test
+	public void testHeadStopsAtLimit( ) {
+		ArrayList<Integer> pulled = new ArrayList<>( );
+		int count = KnittingCursor.on( 1, 2, 3, 4, 5 ).peek( pulled::add )
+				.headless( 1 ).head( 2 ).count( );
+		assertEquals( "count", 2, count );
+		assertEquals( "pulled", "[1, 2, 3]", pulled.toString( ) );
+	}
+}
@@ -0,0 +1,150 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.github.evenjn.lang.BasicRook;
+import org.junit.Test;
+
+public class SpillingDistinctTest {
+
+	private static final ElementSerializer<Integer> serializer =
+			new ElementSerializer<Integer>( ) {
+
+				@Override
+				public void write( Integer element, DataOutput output )
+						throws IOException {
+					output.writeInt( element );
+				}
+
+				@Override
+				public Integer read( DataInput input )
+						throws IOException {
+					return input.readInt( );
+				}
+			};
+
+	private static Integer[] data( int size, int distinct ) {
+		Random random = new Random( 1 );
+		Integer[] result = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			result[i] = random.nextInt( distinct );
+		}
+		return result;
+	}
+
+	@Test
+	public void testOrdered( ) {
+		Integer[] data = data( 20000, 5000 );
+		ArrayList<Integer> expected =
+				KnittingCursor.wrap( data ).distinct( ).collect( new ArrayList<>( ) );
+		for ( int max_elements : new int[] { 1, 7, 100, 5000, 10000 } ) {
+			try ( BasicRook rook = new BasicRook( ) ) {
+				assertEquals( "max " + max_elements, expected,
+						KnittingCursor.wrap( data )
+								.distinct( rook, serializer, max_elements, true )
+								.collect( new ArrayList<>( ) ) );
+			}
+		}
+	}
+
+	@Test
+	public void testUnordered( ) {
+		Integer[] data = data( 20000, 5000 );
+		ArrayList<Integer> expected =
+				KnittingCursor.wrap( data ).distinct( ).collect( new ArrayList<>( ) );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			ArrayList<Integer> actual = KnittingCursor.wrap( data )
+					.distinct( rook, serializer, 100, false )
+					.collect( new ArrayList<>( ) );
+			assertEquals( "prefix", expected.subList( 0, 100 ),
+					actual.subList( 0, 100 ) );
+			Collections.sort( expected );
+			Collections.sort( actual );
+			assertEquals( expected, actual );
+		}
+	}
+
+	@Test
+	public void testSameHashCode( ) {
+		/*
+		 * "Aa" and "BB" have the same hash code, so all these strings do: they
+		 * cannot be separated, and are deduplicated in memory at the last level.
+		 */
+		ElementSerializer<String> strings = new ElementSerializer<String>( ) {
+
+			@Override
+			public void write( String element, DataOutput output )
+					throws IOException {
+				output.writeUTF( element );
+			}
+
+			@Override
+			public String read( DataInput input )
+					throws IOException {
+				return input.readUTF( );
+			}
+		};
+		ArrayList<String> data = new ArrayList<>( );
+		for ( int round = 0; round < 3; round++ ) {
+			for ( int i = 0; i < 128; i++ ) {
+				StringBuilder builder = new StringBuilder( );
+				for ( int b = 0; b < 7; b++ ) {
+					builder.append( ( i >> b & 1 ) == 0 ? "Aa" : "BB" );
+				}
+				data.add( builder.toString( ) );
+			}
+		}
+		try ( BasicRook rook = new BasicRook( ) ) {
+			assertEquals( data.subList( 0, 128 ), KnittingCursor.wrap( data )
+					.distinct( rook, strings, 10, true ).collect( new ArrayList<>( ) ) );
+		}
+	}
+
+	private static long temporary_files( )
+			throws IOException {
+		try ( Stream<Path> files = Files
+				.list( Paths.get( System.getProperty( "java.io.tmpdir" ) ) ) ) {
+			return files.filter( p -> p.toString( ).endsWith( ".distinct" ) )
+					.count( );
+		}
+	}
+
+	@Test
+	public void testFilesDeleted( )
+			throws IOException {
+		long before = temporary_files( );
+		try ( BasicRook rook = new BasicRook( ) ) {
+			KnittingCursor.wrap( data( 1000, 500 ) )
+					.distinct( rook, serializer, 10, false ).head( 50 ).count( );
+		}
+		assertEquals( before, temporary_files( ) );
+	}
+
+	@Test
+	public void testHighBitsOfHashCode( ) {
+		/*
+		 * The hash codes of these values differ only in their high 16 bits. Each
+		 * level, including the deepest ones, must still split them.
+		 */
+		for ( int level = 0; level < SpillingDistinctCursor.max_level; level++ ) {
+			HashSet<Integer> partitions = new HashSet<>( );
+			for ( int i = 1; i <= 64; i++ ) {
+				partitions.add( SpillingDistinctCursor.partition( i << 16, level ) );
+			}
+			assertTrue( "level " + level, partitions.size( ) > 1 );
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TupleIndexTest {
+
+	private static KnittingTuple<Integer> tuple( int ... values ) {
+		Integer[] array = new Integer[values.length];
+		for ( int i = 0; i < values.length; i++ ) {
+			array[i] = values[i];
+		}
+		return KnittingTuple.wrap( array );
+	}
+
+	private static ArrayList<Integer> naive( KnittingTuple<Integer> haystack,
+			KnittingTuple<Integer> needle ) {
+		ArrayList<Integer> result = new ArrayList<>( );
+		for ( int i = 0; i + needle.size( ) <= haystack.size( ); i++ ) {
+			if ( haystack.subTuple( i, i + needle.size( ) )
+					.equivalentTo( needle ) ) {
+				result.add( i );
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void testAgainstNaive( ) {
+		Random random = new Random( 1 );
+		for ( int round = 0; round < 500; round++ ) {
+			int[] h = new int[random.nextInt( 60 )];
+			for ( int i = 0; i < h.length; i++ ) {
+				h[i] = random.nextInt( 1 + round % 3 );
+			}
+			KnittingTuple<Integer> haystack = tuple( h );
+			TupleIndex<Integer> index = haystack.index( );
+			assertEquals( h.length, index.size( ) );
+			for ( int query = 0; query < 10; query++ ) {
+				int[] n = new int[1 + random.nextInt( 5 )];
+				for ( int i = 0; i < n.length; i++ ) {
+					n[i] = random.nextInt( 4 );
+				}
+				KnittingTuple<Integer> needle = tuple( n );
+				ArrayList<Integer> expected = naive( haystack, needle );
+				assertEquals( expected,
+						index.findAll( needle ).collect( new ArrayList<>( ) ) );
+				assertEquals( expected.size( ), index.count( needle ) );
+				assertEquals( !expected.isEmpty( ), index.contains( needle ) );
+				assertEquals(
+						expected.isEmpty( ) ? Optional.empty( )
+								: Optional.of( expected.get( 0 ) ),
+						index.find( needle ) );
+			}
+		}
+	}
+
+	@Test
+	public void testEmpty( ) {
+		TupleIndex<Integer> index = tuple( ).index( );
+		assertEquals( 0, index.size( ) );
+		assertFalse( index.contains( tuple( 1 ) ) );
+		assertEquals( 1, index.count( tuple( ) ) );
+		assertEquals( 4, tuple( 1, 2, 3 ).index( ).findAll( tuple( ) ).count( ) );
+	}
+
+	@Test
+	public void testWriteRead( )
+			throws IOException {
+		ElementSerializer<String> serializer = new ElementSerializer<String>( ) {
+
+			@Override
+			public void write( String element, DataOutput output )
+					throws IOException {
+				output.writeUTF( element );
+			}
+
+			@Override
+			public String read( DataInput input )
+					throws IOException {
+				return input.readUTF( );
+			}
+		};
+		TupleIndex<String> index =
+				KnittingTuple.on( "a", "b", "r", "a", "c", "a", "d", "a", "b", "r", "a" )
+						.index( );
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream( );
+		index.write( new DataOutputStream( bytes ), serializer );
+		TupleIndex<String> read = TupleIndex.read(
+				new DataInputStream( new ByteArrayInputStream( bytes.toByteArray( ) ) ),
+				serializer );
+		assertEquals( 11, read.size( ) );
+		assertEquals( 2, read.count( KnittingTuple.on( "a", "b", "r", "a" ) ) );
+		assertTrue( read.contains( KnittingTuple.on( "c", "a", "d" ) ) );
+		assertEquals( Optional.of( 4 ), read.find( KnittingTuple.on( "c", "a" ) ) );
+	}
+}
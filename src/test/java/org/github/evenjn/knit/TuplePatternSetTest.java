@@ -0,0 +1,85 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TuplePatternSetTest {
+
+	private static KnittingTuple<Integer> tuple( int ... values ) {
+		Integer[] array = new Integer[values.length];
+		for ( int i = 0; i < values.length; i++ ) {
+			array[i] = values[i];
+		}
+		return KnittingTuple.wrap( array );
+	}
+
+	private static String show( PatternMatch match ) {
+		return match.getPattern( ) + "@" + match.getStart( ) + "-"
+				+ match.getEnd( );
+	}
+
+	@Test
+	public void testAgainstNaive( ) {
+		Random random = new Random( 1 );
+		for ( int round = 0; round < 500; round++ ) {
+			ArrayList<KnittingTuple<Integer>> patterns = new ArrayList<>( );
+			int count = 1 + random.nextInt( 6 );
+			for ( int p = 0; p < count; p++ ) {
+				int[] n = new int[1 + random.nextInt( 4 )];
+				for ( int i = 0; i < n.length; i++ ) {
+					n[i] = random.nextInt( 3 );
+				}
+				patterns.add( tuple( n ) );
+			}
+			int[] h = new int[random.nextInt( 40 )];
+			for ( int i = 0; i < h.length; i++ ) {
+				h[i] = random.nextInt( 3 );
+			}
+			KnittingTuple<Integer> haystack = tuple( h );
+
+			ArrayList<String> expected = new ArrayList<>( );
+			for ( int end = 1; end <= h.length; end++ ) {
+				ArrayList<Integer> ending = new ArrayList<>( );
+				for ( int p = 0; p < count; p++ ) {
+					int size = patterns.get( p ).size( );
+					if ( size <= end && haystack.subTuple( end - size, end )
+							.equivalentTo( patterns.get( p ) ) ) {
+						ending.add( p );
+					}
+				}
+				ending.sort( ( a, b ) -> a.equals( b ) ? 0
+						: patterns.get( a ).size( ) != patterns.get( b ).size( )
+								? patterns.get( b ).size( ) - patterns.get( a ).size( )
+								: a - b );
+				for ( int p : ending ) {
+					expected.add( p + "@" + ( end - patterns.get( p ).size( ) ) + "-"
+							+ end );
+				}
+			}
+			TuplePatternSet<Integer> set = TuplePatternSet.compile( patterns );
+			assertEquals( count, set.size( ) );
+			assertEquals( expected, haystack.asKnittingCursor( ).match( set )
+					.map( TuplePatternSetTest::show ).collect( new ArrayList<>( ) ) );
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyPattern( ) {
+		TuplePatternSet.compile( Arrays.asList( tuple( 1 ), tuple( ) ) );
+	}
+
+	@Test
+	public void testWords( ) {
+		TuplePatternSet<String> set = TuplePatternSet.compile( Arrays.asList(
+				KnittingTuple.on( "he" ), KnittingTuple.on( "she" ),
+				KnittingTuple.on( "his", "hers" ), KnittingTuple.on( "she", "his" ) ) );
+		assertEquals( Arrays.asList( "1@1-2", "3@1-3", "2@2-4" ),
+				KnittingCursor.on( "and", "she", "his", "hers" ).match( set )
+						.map( TuplePatternSetTest::show ).collect( new ArrayList<>( ) ) );
+	}
+}
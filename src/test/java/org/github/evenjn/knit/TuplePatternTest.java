@@ -0,0 +1,92 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TuplePatternTest {
+
+	private static KnittingTuple<Integer> tuple( int ... values ) {
+		Integer[] array = new Integer[values.length];
+		for ( int i = 0; i < values.length; i++ ) {
+			array[i] = values[i];
+		}
+		return KnittingTuple.wrap( array );
+	}
+
+	private static int naive( KnittingTuple<Integer> haystack,
+			KnittingTuple<Integer> needle, int skip ) {
+		for ( int i = skip; i + needle.size( ) <= haystack.size( ); i++ ) {
+			if ( haystack.subTuple( i, i + needle.size( ) )
+					.equivalentTo( needle ) ) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Test
+	public void testAgainstNaive( ) {
+		Random random = new Random( 1 );
+		for ( int round = 0; round < 2000; round++ ) {
+			int[] h = new int[random.nextInt( 30 )];
+			int[] n = new int[1 + random.nextInt( 4 )];
+			for ( int i = 0; i < h.length; i++ ) {
+				h[i] = random.nextInt( 2 );
+			}
+			for ( int i = 0; i < n.length; i++ ) {
+				n[i] = random.nextInt( 2 );
+			}
+			KnittingTuple<Integer> haystack = tuple( h );
+			KnittingTuple<Integer> needle = tuple( n );
+			int skip = random.nextInt( h.length + 1 );
+			int expected = naive( haystack, needle, skip );
+			assertEquals( "find",
+					expected < 0 ? Optional.empty( ) : Optional.of( expected ),
+					haystack.findSubtuple( needle, skip ) );
+			ArrayList<Integer> all = new ArrayList<>( );
+			for ( int i = naive( haystack, needle, 0 ); i >= 0; i =
+					naive( haystack, needle, i + 1 ) ) {
+				all.add( i );
+			}
+			assertEquals( "findAll", all, TuplePattern.compile( needle )
+					.findAll( haystack ).collect( new ArrayList<>( ) ) );
+		}
+	}
+
+	@Test
+	public void testLinear( ) {
+		int[] h = new int[100000];
+		int[] n = new int[1000];
+		n[n.length - 1] = 1;
+		AtomicInteger accesses = new AtomicInteger( );
+		KnittingTuple<Integer> haystack = tuple( h ).map( x -> {
+			accesses.incrementAndGet( );
+			return x;
+		} );
+		assertEquals( "absent", Optional.empty( ),
+				haystack.findSubtuple( tuple( n ), 0 ) );
+		assertEquals( "accesses", 100000, accesses.get( ) );
+	}
+
+	@Test
+	public void testEquivalencer( ) {
+		TuplePattern<String> pattern = TuplePattern.compile(
+				KnittingTuple.on( "a", "b" ), ( x, y ) -> x.equalsIgnoreCase( y ) );
+		assertEquals( "find", Optional.of( 2 ),
+				pattern.find( KnittingTuple.on( "b", "a", "A", "B" ), 0 ) );
+		assertEquals( "empty", Arrays.asList( 0, 1 ),
+				TuplePattern.compile( KnittingTuple.empty( ) )
+						.findAll( KnittingTuple.on( "x" ) )
+						.collect( new ArrayList<>( ) ) );
+		assertTrue( "contains",
+				KnittingTuple.on( 1, 2, 1, 2, 3 ).contains( KnittingTuple.on( 2, 3 ) ) );
+	}
+}
@@ -0,0 +1,52 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class TupleSpliteratorTest {
+
+	private static KnittingTuple<Integer> range( int size ) {
+		Integer[] array = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			array[i] = i;
+		}
+		return KnittingTuple.wrap( array );
+	}
+
+	@Test
+	public void testSized( ) {
+		Spliterator<Integer> spliterator =
+				range( 100 ).headless( 10 ).asStream( ).spliterator( );
+		assertTrue( "sized", spliterator.hasCharacteristics( Spliterator.SIZED ) );
+		assertTrue( "subsized",
+				spliterator.hasCharacteristics( Spliterator.SUBSIZED ) );
+		assertFalse( "immutable",
+				spliterator.hasCharacteristics( Spliterator.IMMUTABLE ) );
+		assertEquals( "size", 90, spliterator.getExactSizeIfKnown( ) );
+		Spliterator<Integer> prefix = spliterator.trySplit( );
+		assertEquals( "prefix", 45, prefix.getExactSizeIfKnown( ) );
+		assertEquals( "suffix", 45, spliterator.getExactSizeIfKnown( ) );
+	}
+
+	@Test
+	public void testParallel( ) {
+		KnittingTuple<Integer> tuple = range( 100000 ).reverse( );
+		assertEquals( "sum", 4999950000L,
+				tuple.asParallelStream( ).mapToLong( x -> x ).sum( ) );
+		Object[] array = tuple.asParallelStream( ).map( x -> x * 2 ).toArray( );
+		assertEquals( "first", 199998, array[0] );
+		assertEquals( "last", 0, array[99999] );
+		assertArrayEquals( "ordered", tuple.head( 5 ).asStream( ).toArray( ),
+				tuple.asParallelStream( ).limit( 5 ).toArray( ) );
+		assertEquals( "collect", "99999,99998,99997", tuple.head( 3 )
+				.asParallelStream( ).map( String::valueOf )
+				.collect( Collectors.joining( "," ) ) );
+	}
+}
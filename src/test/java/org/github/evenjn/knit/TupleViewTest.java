@@ -0,0 +1,91 @@
+package org.github.evenjn.knit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+public class TupleViewTest {
+
+	private static KnittingTuple<Integer> range( int from, int to ) {
+		Integer[] array = new Integer[to - from];
+		for ( int i = from; i < to; i++ ) {
+			array[i - from] = i;
+		}
+		return KnittingTuple.wrap( array );
+	}
+
+	@Test
+	public void testRepeatedAppend( ) {
+		KnittingTuple<Integer> tuple = KnittingTuple.empty( );
+		for ( int i = 0; i < 10000; i++ ) {
+			tuple = tuple.append( range( i, i + 1 ) );
+		}
+		assertEquals( "size", 10000, tuple.size( ) );
+		for ( int i = 0; i < 10000; i++ ) {
+			assertEquals( "element", Integer.valueOf( i ), tuple.get( i ) );
+		}
+		KnittingTuple<Integer> prepended = KnittingTuple.empty( );
+		for ( int i = 9999; i >= 0; i-- ) {
+			prepended = prepended.prepend( range( i, i + 1 ) );
+		}
+		assertTrue( "prepended", prepended.equivalentTo( tuple ) );
+	}
+
+	@Test
+	public void testManyAppends( ) {
+		final int appends = 100000;
+		KnittingTuple<Integer> tuple = KnittingTuple.empty( );
+		KnittingTuple<Integer> prepended = KnittingTuple.empty( );
+		KnittingTuple<Integer> half = null;
+		for ( int i = 0; i < appends; i++ ) {
+			tuple = tuple.append( range( i, i + 1 ) );
+			prepended = prepended.prepend( range( appends - i - 1, appends - i ) );
+			if ( i == appends / 2 ) {
+				half = tuple;
+			}
+		}
+		assertEquals( "size", appends, tuple.size( ) );
+		assertEquals( "prepended size", appends, prepended.size( ) );
+		for ( int i = 0; i < appends; i++ ) {
+			assertEquals( "element", Integer.valueOf( i ), tuple.get( i ) );
+			assertEquals( "prepended", Integer.valueOf( i ), prepended.get( i ) );
+		}
+		KnittingTuple<Integer> branch = half.append( range( -1, 0 ) );
+		assertEquals( "branch size", appends / 2 + 2, branch.size( ) );
+		assertEquals( "branch", Integer.valueOf( -1 ),
+				branch.get( appends / 2 + 1 ) );
+		assertEquals( "shared", Integer.valueOf( appends / 2 + 1 ),
+				tuple.get( appends / 2 + 1 ) );
+		assertEquals( "half size", appends / 2 + 1, half.size( ) );
+	}
+
+	@Test
+	public void testSubtupleOfConcatenation( ) {
+		KnittingTuple<Integer> tuple = range( 0, 10 ).append( range( 10, 20 ) )
+				.append( KnittingTuple.empty( ) ).append( range( 20, 30 ) );
+		assertTrue( "middle",
+				tuple.subTuple( 5, 25 ).equivalentTo( range( 5, 25 ) ) );
+		assertTrue( "within part",
+				tuple.subTuple( 12, 15 ).equivalentTo( range( 12, 15 ) ) );
+		assertTrue( "nested", tuple.subTuple( 5, 25 ).subTuple( 3, 18 )
+				.headless( 1 ).equivalentTo( range( 9, 23 ) ) );
+		assertEquals( "empty", 0, tuple.subTuple( 7, 7 ).size( ) );
+	}
+
+	@Test
+	public void testReverse( ) {
+		KnittingTuple<Integer> tuple = range( 0, 100 );
+		assertTrue( "double reverse",
+				tuple.reverse( ).reverse( ).equivalentTo( tuple ) );
+		assertTrue( "subtuple of reverse", tuple.reverse( ).subTuple( 10, 20 )
+				.reverse( ).equivalentTo( range( 80, 90 ) ) );
+		ArrayList<Integer> collected =
+				tuple.append( range( 100, 103 ) ).reverse( ).head( 4 )
+						.collect( new ArrayList<>( ) );
+		assertEquals( "reverse of concatenation", "[102, 101, 100, 99]",
+				collected.toString( ) );
+	}
+}
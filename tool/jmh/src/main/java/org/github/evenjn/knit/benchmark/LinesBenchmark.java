@@ -0,0 +1,120 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.github.evenjn.knit.KnittingCursable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link org.github.evenjn.knit.KnittingCursable#lines(Path)
+ * KnittingCursable.lines} against a {@link java.io.BufferedReader
+ * BufferedReader} loop and against {@link java.nio.file.Files#lines(Path)
+ * Files.lines}, reading a file of {@code size} ASCII lines of 80 characters.
+ *
+ * {@code linesPartitionedKnit} reads the file as one range per available
+ * processor, consuming the ranges in parallel.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinesBenchmark {
+
+	@Param({ "10000", "1000000" })
+	public int size;
+
+	private Path file;
+
+	@Setup
+	public void setup( )
+			throws IOException {
+		file = Files.createTempFile( "knit", ".txt" );
+		StringBuilder line = new StringBuilder( );
+		for ( int i = 0; i < 80; i++ ) {
+			line.append( (char) ( 'a' + i % 26 ) );
+		}
+		try ( Writer writer =
+				Files.newBufferedWriter( file, StandardCharsets.UTF_8 ) ) {
+			for ( int i = 0; i < size; i++ ) {
+				writer.write( line.toString( ) );
+				writer.write( '\n' );
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown( )
+			throws IOException {
+		Files.deleteIfExists( file );
+	}
+
+	@Benchmark
+	public void linesKnit( Blackhole bh ) {
+		KnittingCursable.lines( file ).consume( rook -> bh::consume );
+	}
+
+	@Benchmark
+	public void linesPartitionedKnit( Blackhole bh ) {
+		KnittingCursable
+				.lines( file, Runtime.getRuntime( ).availableProcessors( ) )
+				.parallelConsume( r -> part -> part.consume( rook -> bh::consume ) );
+	}
+
+	@Benchmark
+	public void linesLoop( Blackhole bh )
+			throws IOException {
+		try ( BufferedReader reader =
+				Files.newBufferedReader( file, StandardCharsets.UTF_8 ) ) {
+			String line;
+			while ( ( line = reader.readLine( ) ) != null ) {
+				bh.consume( line );
+			}
+		}
+	}
+
+	@Benchmark
+	public void linesStream( Blackhole bh )
+			throws IOException {
+		try ( Stream<String> lines = Files.lines( file ) ) {
+			lines.forEach( bh::consume );
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.github.evenjn.knit.KnittingCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the per-element overhead of a ten-stage pipeline of cheap
+ * stateless transformations, where the cost of the pipeline dominates the
+ * cost of the user functions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+
+	@Param({ "100", "10000", "1000000" })
+	public int size;
+
+	private Integer[] data;
+
+	@Setup
+	public void setup( ) {
+		data = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			data[i] = i % 1000;
+		}
+	}
+
+	@Benchmark
+	public void tenStagesKnit( Blackhole bh ) {
+		KnittingCursor.wrap( data )
+				.map( x -> x + 1 )
+				.filter( x -> x != 7 )
+				.map( x -> x * 3 )
+				.filter( x -> x != 21 )
+				.map( x -> x - 1 )
+				.peek( bh::consume )
+				.map( x -> x + 2 )
+				.filter( x -> x != 33 )
+				.map( x -> x / 2 )
+				.numbered( )
+				.consume( rook -> bh::consume );
+	}
+
+	@Benchmark
+	public void tenStagesLoop( Blackhole bh ) {
+		int number = 0;
+		for ( Integer x : data ) {
+			Integer y = x + 1;
+			if ( y == 7 ) {
+				continue;
+			}
+			y = y * 3;
+			if ( y == 21 ) {
+				continue;
+			}
+			y = y - 1;
+			bh.consume( y );
+			y = y + 2;
+			if ( y == 33 ) {
+				continue;
+			}
+			y = y / 2;
+			bh.consume( number++ );
+			bh.consume( y );
+		}
+	}
+
+	@Benchmark
+	public void tenStagesStream( Blackhole bh ) {
+		int[] number = new int[1];
+		Arrays.stream( data )
+				.map( x -> x + 1 )
+				.filter( x -> x != 7 )
+				.map( x -> x * 3 )
+				.filter( x -> x != 21 )
+				.map( x -> x - 1 )
+				.peek( bh::consume )
+				.map( x -> x + 2 )
+				.filter( x -> x != 33 )
+				.map( x -> x / 2 )
+				.forEach( x -> {
+					bh.consume( number[0]++ );
+					bh.consume( x );
+				} );
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.github.evenjn.knit.IntKnittingCursor;
+import org.github.evenjn.knit.KnittingCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares a numeric pipeline (filter, map, sum) over boxed
+ * {@link org.github.evenjn.knit.KnittingCursor KnittingCursor},
+ * {@link org.github.evenjn.knit.IntKnittingCursor IntKnittingCursor}, a
+ * hand-written loop and {@link java.util.stream.IntStream IntStream}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveBenchmark {
+
+	@Param({ "100", "10000", "1000000" })
+	public int size;
+
+	private int[] data;
+
+	private Integer[] boxed;
+
+	@Setup
+	public void setup( ) {
+		data = new int[size];
+		boxed = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			data[i] = i;
+			boxed[i] = i;
+		}
+	}
+
+	@Benchmark
+	public long sumBoxedKnit( ) {
+		return KnittingCursor.wrap( boxed ).filter( x -> x % 3 != 0 )
+				.map( x -> x * 7 ).reduce( 0L, ( a, b ) -> a + b );
+	}
+
+	@Benchmark
+	public long sumIntKnit( ) {
+		return IntKnittingCursor.wrap( data ).filter( x -> x % 3 != 0 )
+				.map( x -> x * 7 ).sum( );
+	}
+
+	@Benchmark
+	public long sumLoop( ) {
+		long result = 0;
+		for ( int x : data ) {
+			if ( x % 3 != 0 ) {
+				result += x * 7;
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	public long sumStream( ) {
+		return Arrays.stream( data ).filter( x -> x % 3 != 0 ).map( x -> x * 7 )
+				.asLongStream( ).sum( );
+	}
+}
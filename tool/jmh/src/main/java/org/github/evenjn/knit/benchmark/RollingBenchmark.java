@@ -0,0 +1,172 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.github.evenjn.knit.KnittingCursable;
+import org.github.evenjn.knit.KnittingCursor;
+import org.github.evenjn.knit.KnittingTuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the rolling methods {@code collect}, {@code reduce} and
+ * {@code count} of {@link org.github.evenjn.knit.KnittingCursor
+ * KnittingCursor} and {@link org.github.evenjn.knit.KnittingCursable
+ * KnittingCursable} against a hand-written loop and against
+ * {@link java.util.stream.Stream Stream}.
+ *
+ * The {@code parallel} benchmarks compare the fork-join rolling methods of
+ * {@link org.github.evenjn.knit.KnittingTuple KnittingTuple} against a
+ * parallel stream.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RollingBenchmark {
+
+	@Param({ "100", "10000", "1000000" })
+	public int size;
+
+	private Integer[] data;
+
+	private KnittingCursable<Integer> cursable;
+
+	private KnittingTuple<Integer> tuple;
+
+	@Setup
+	public void setup( ) {
+		data = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			data[i] = i % 1000;
+		}
+		cursable = KnittingCursable.wrap( data );
+		tuple = KnittingTuple.wrap( data );
+	}
+
+	@Benchmark
+	public ArrayList<Integer> collectKnit( ) {
+		return KnittingCursor.wrap( data ).collect( new ArrayList<>( ) );
+	}
+
+	@Benchmark
+	public ArrayList<Integer> collectCursableKnit( ) {
+		return cursable.collect( new ArrayList<>( ) );
+	}
+
+	@Benchmark
+	public ArrayList<Integer> collectLoop( ) {
+		ArrayList<Integer> result = new ArrayList<>( );
+		for ( Integer x : data ) {
+			result.add( x );
+		}
+		return result;
+	}
+
+	@Benchmark
+	public ArrayList<Integer> collectStream( ) {
+		return Arrays.stream( data )
+				.collect( Collectors.toCollection( ArrayList::new ) );
+	}
+
+	@Benchmark
+	public Integer reduceKnit( ) {
+		return KnittingCursor.wrap( data ).reduce( 0, ( a, b ) -> a + b );
+	}
+
+	@Benchmark
+	public Integer reduceCursableKnit( ) {
+		return cursable.reduce( 0, ( a, b ) -> a + b );
+	}
+
+	@Benchmark
+	public Integer reduceLoop( ) {
+		Integer result = 0;
+		for ( Integer x : data ) {
+			result = result + x;
+		}
+		return result;
+	}
+
+	@Benchmark
+	public Integer reduceStream( ) {
+		return Arrays.stream( data ).reduce( 0, ( a, b ) -> a + b );
+	}
+
+	@Benchmark
+	public int countKnit( ) {
+		return KnittingCursor.wrap( data ).count( );
+	}
+
+	@Benchmark
+	public int countCursableKnit( ) {
+		return cursable.count( );
+	}
+
+	@Benchmark
+	public int countLoop( ) {
+		int result = 0;
+		for ( @SuppressWarnings("unused")
+		Integer x : data ) {
+			result++;
+		}
+		return result;
+	}
+
+	@Benchmark
+	public long countStream( ) {
+		return Arrays.stream( data ).count( );
+	}
+
+	@Benchmark
+	public Long parallelReduceKnit( ) {
+		return tuple.parallelReduce( 0L, ( a, b ) -> a + b, ( a, b ) -> a + b );
+	}
+
+	@Benchmark
+	public Long parallelReduceStream( ) {
+		return Arrays.stream( data ).parallel( ).reduce( 0L, ( a, b ) -> a + b,
+				( a, b ) -> a + b );
+	}
+
+	@Benchmark
+	public Object parallelMapKnit( ) {
+		return tuple.parallelMap( x -> x + 1 );
+	}
+
+	@Benchmark
+	public Object[] parallelMapStream( ) {
+		return Arrays.stream( data ).parallel( ).map( x -> x + 1 ).toArray( );
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.github.evenjn.knit.KnittingCursable;
+import org.github.evenjn.knit.KnittingCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of rolling methods on short pipelines, such as a
+ * per-sentence cursable of a dozen tokens that is pulled millions of times.
+ * With short pipelines the fixed cost of a pass (building the cursors and
+ * detecting the end) dominates the cost of visiting the elements.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TinyPipelineBenchmark {
+
+	private static final int size = 12;
+
+	private Integer[] sentence;
+
+	private KnittingCursable<Integer> pipeline;
+
+	@Setup
+	public void setup( ) {
+		sentence = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			sentence[i] = i;
+		}
+		pipeline = KnittingCursable.wrap( sentence ).filter( x -> x % 3 != 0 )
+				.map( x -> x + 1 );
+	}
+
+	@Benchmark
+	public int countCursorKnit( ) {
+		return KnittingCursor.wrap( sentence ).count( );
+	}
+
+	@Benchmark
+	public int countKnit( ) {
+		return pipeline.count( );
+	}
+
+	@Benchmark
+	public ArrayList<Integer> collectKnit( ) {
+		return pipeline.collect( new ArrayList<>( ) );
+	}
+
+	@Benchmark
+	public Integer reduceKnit( ) {
+		return pipeline.reduce( 0, ( a, b ) -> a + b );
+	}
+
+	@Benchmark
+	public void consumeKnit( Blackhole bh ) {
+		pipeline.consume( rook -> bh::consume );
+	}
+
+	@Benchmark
+	public int countLoop( ) {
+		int result = 0;
+		for ( Integer x : sentence ) {
+			if ( x % 3 != 0 ) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	public long countStream( ) {
+		return Arrays.stream( sentence ).filter( x -> x % 3 != 0 ).map( x -> x + 1 )
+				.count( );
+	}
+}
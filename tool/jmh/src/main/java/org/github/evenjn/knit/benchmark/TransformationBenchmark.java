@@ -0,0 +1,691 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.github.evenjn.knit.KnittingCursable;
+import org.github.evenjn.knit.KnittingCursor;
+import org.github.evenjn.knit.Numbered;
+import org.github.evenjn.lang.BasicRook;
+import org.github.evenjn.lang.Rook;
+import org.github.evenjn.yarn.ArrayPurl;
+import org.github.evenjn.yarn.Cursor;
+import org.github.evenjn.yarn.CursorPurl;
+import org.github.evenjn.yarn.IterablePurl;
+import org.github.evenjn.yarn.IteratorPurl;
+import org.github.evenjn.yarn.OptionalPurl;
+import org.github.evenjn.yarn.StreamRingPurl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the transformation methods of
+ * {@link org.github.evenjn.knit.KnittingCursor KnittingCursor} against a
+ * hand-written loop and against {@link java.util.stream.Stream Stream}.
+ *
+ * Each group of benchmarks is named after the operator, with suffixes
+ * {@code Knit}, {@code Loop} and {@code Stream}. Benchmarks with suffix
+ * {@code CursableKnit} run the operator through
+ * {@link org.github.evenjn.knit.KnittingCursable KnittingCursable}, and share
+ * the baselines of the cursor operator. Operators with no natural stream
+ * counterpart (such as {@code cut}) have no {@code Stream} variant.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformationBenchmark {
+
+	private static final int distinct_values = 1000;
+
+	@Param({ "100", "10000", "1000000" })
+	public int size;
+
+	private Integer[] data;
+
+	private Integer[] other;
+
+	private Integer[][] pairs;
+
+	private List<Integer>[] lists;
+
+	private Optional<Integer>[] optionals;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Setup
+	public void setup( ) {
+		data = new Integer[size];
+		other = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			data[i] = i % distinct_values;
+			other[i] = ( i * 31 ) % distinct_values;
+		}
+		pairs = new Integer[distinct_values][];
+		lists = new List[distinct_values];
+		optionals = new Optional[distinct_values];
+		for ( int i = 0; i < distinct_values; i++ ) {
+			pairs[i] = new Integer[] { i, i };
+			lists[i] = Arrays.asList( pairs[i] );
+			optionals[i] = i % 2 == 0 ? Optional.of( i ) : Optional.empty( );
+		}
+	}
+
+	private static <K> void drain( KnittingCursor<K> cursor, Blackhole bh ) {
+		cursor.consume( rook -> bh::consume );
+	}
+
+	@Benchmark
+	public void mapKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).map( x -> x + 1 ), bh );
+	}
+
+	@Benchmark
+	public void mapLoop( Blackhole bh ) {
+		for ( Integer x : data ) {
+			bh.consume( x + 1 );
+		}
+	}
+
+	@Benchmark
+	public void mapStream( Blackhole bh ) {
+		Arrays.stream( data ).map( x -> x + 1 ).forEach( bh::consume );
+	}
+
+	@Benchmark
+	public void filterKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).filter( x -> x % 3 == 0 ), bh );
+	}
+
+	@Benchmark
+	public void filterLoop( Blackhole bh ) {
+		for ( Integer x : data ) {
+			if ( x % 3 == 0 ) {
+				bh.consume( x );
+			}
+		}
+	}
+
+	@Benchmark
+	public void filterStream( Blackhole bh ) {
+		Arrays.stream( data ).filter( x -> x % 3 == 0 ).forEach( bh::consume );
+	}
+
+	@Benchmark
+	public void flatmapArrayKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).flatmapArray( x -> pairs[x] ), bh );
+	}
+
+	@Benchmark
+	public void flatmapArrayLoop( Blackhole bh ) {
+		for ( Integer x : data ) {
+			for ( Integer y : pairs[x] ) {
+				bh.consume( y );
+			}
+		}
+	}
+
+	@Benchmark
+	public void flatmapArrayStream( Blackhole bh ) {
+		Arrays.stream( data ).flatMap( x -> Arrays.stream( pairs[x] ) )
+				.forEach( bh::consume );
+	}
+
+	@Benchmark
+	public void flatmapIterableKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).flatmapIterable( x -> lists[x] ), bh );
+	}
+
+	@Benchmark
+	public void flatmapIterableLoop( Blackhole bh ) {
+		for ( Integer x : data ) {
+			for ( Integer y : lists[x] ) {
+				bh.consume( y );
+			}
+		}
+	}
+
+	@Benchmark
+	public void flatmapIterableStream( Blackhole bh ) {
+		Arrays.stream( data ).flatMap( x -> lists[x].stream( ) )
+				.forEach( bh::consume );
+	}
+
+	@Benchmark
+	public void flatmapOptionalKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).flatmapOptional( x -> optionals[x] ),
+				bh );
+	}
+
+	@Benchmark
+	public void flatmapOptionalLoop( Blackhole bh ) {
+		for ( Integer x : data ) {
+			Optional<Integer> optional = optionals[x];
+			if ( optional.isPresent( ) ) {
+				bh.consume( optional.get( ) );
+			}
+		}
+	}
+
+	@Benchmark
+	public void flatmapOptionalStream( Blackhole bh ) {
+		Arrays.stream( data ).map( x -> optionals[x] ).filter( Optional::isPresent )
+				.map( Optional::get ).forEach( bh::consume );
+	}
+
+	/*
+	 * A stateful purl that drops consecutive repetitions.
+	 */
+	private static OptionalPurl<Integer, Integer> squeeze( ) {
+		return new OptionalPurl<Integer, Integer>( ) {
+
+			private Integer previous = null;
+
+			@Override
+			public Optional<Integer> next( Integer input ) {
+				if ( input.equals( previous ) ) {
+					return Optional.empty( );
+				}
+				previous = input;
+				return Optional.of( input );
+			}
+
+			@Override
+			public Optional<Integer> end( ) {
+				return Optional.empty( );
+			}
+		};
+	}
+
+	@Benchmark
+	public void purlOptionalKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).purlOptional( squeeze( ) ), bh );
+	}
+
+	@Benchmark
+	public void purlOptionalLoop( Blackhole bh ) {
+		Integer previous = null;
+		for ( Integer x : data ) {
+			if ( !x.equals( previous ) ) {
+				previous = x;
+				bh.consume( x );
+			}
+		}
+	}
+
+	@Benchmark
+	public void purlOptionalStream( Blackhole bh ) {
+		OptionalPurl<Integer, Integer> squeeze = squeeze( );
+		Arrays.stream( data ).map( squeeze::next ).filter( Optional::isPresent )
+				.map( Optional::get ).forEach( bh::consume );
+	}
+
+	@Benchmark
+	public void distinctKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).distinct( ), bh );
+	}
+
+	@Benchmark
+	public void distinctLoop( Blackhole bh ) {
+		HashSet<Integer> seen = new HashSet<>( );
+		for ( Integer x : data ) {
+			if ( seen.add( x ) ) {
+				bh.consume( x );
+			}
+		}
+	}
+
+	@Benchmark
+	public void distinctStream( Blackhole bh ) {
+		Arrays.stream( data ).distinct( ).forEach( bh::consume );
+	}
+
+	@Benchmark
+	public void cutKnit( Blackhole bh ) {
+		KnittingCursor.wrap( data ).cut( x -> x == 0 )
+				.consume( rook -> part -> bh.consume( part.count( ) ) );
+	}
+
+	@Benchmark
+	public void cutLoop( Blackhole bh ) {
+		int part = 0;
+		for ( Integer x : data ) {
+			if ( x == 0 ) {
+				bh.consume( part );
+				part = 0;
+			}
+			part++;
+		}
+		bh.consume( part );
+	}
+
+	@Benchmark
+	public void numberedKnit( Blackhole bh ) {
+		KnittingCursor.wrap( data ).numbered( )
+				.consume( rook -> ( Numbered<Integer> n ) -> {
+					bh.consume( n.getNumber( ) );
+					bh.consume( n.get( ) );
+				} );
+	}
+
+	@Benchmark
+	public void numberedLoop( Blackhole bh ) {
+		for ( int i = 0; i < data.length; i++ ) {
+			bh.consume( i );
+			bh.consume( data[i] );
+		}
+	}
+
+	@Benchmark
+	public void numberedStream( Blackhole bh ) {
+		IntStream.range( 0, data.length ).forEach( i -> {
+			bh.consume( i );
+			bh.consume( data[i] );
+		} );
+	}
+
+	@Benchmark
+	public void entwineKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).entwine( KnittingCursor.wrap( other ),
+				( a, b ) -> a + b ), bh );
+	}
+
+	@Benchmark
+	public void entwineLoop( Blackhole bh ) {
+		for ( int i = 0; i < data.length; i++ ) {
+			bh.consume( data[i] + other[i] );
+		}
+	}
+
+	@Benchmark
+	public void entwineStream( Blackhole bh ) {
+		IntStream.range( 0, data.length ).mapToObj( i -> data[i] + other[i] )
+				.forEach( bh::consume );
+	}
+
+	@Benchmark
+	public void headKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).head( size / 2 ), bh );
+	}
+
+	@Benchmark
+	public void headLoop( Blackhole bh ) {
+		for ( int i = 0; i < size / 2; i++ ) {
+			bh.consume( data[i] );
+		}
+	}
+
+	@Benchmark
+	public void headStream( Blackhole bh ) {
+		Arrays.stream( data ).limit( size / 2 ).forEach( bh::consume );
+	}
+
+	@Benchmark
+	public void headlessKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).headless( size / 2 ), bh );
+	}
+
+	@Benchmark
+	public void headlessLoop( Blackhole bh ) {
+		for ( int i = size / 2; i < size; i++ ) {
+			bh.consume( data[i] );
+		}
+	}
+
+	@Benchmark
+	public void headlessStream( Blackhole bh ) {
+		Arrays.stream( data ).skip( size / 2 ).forEach( bh::consume );
+	}
+
+	@Benchmark
+	public void flatmapCursorKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data )
+				.flatmapCursor( x -> KnittingCursor.wrap( pairs[x] ) ), bh );
+	}
+
+	@Benchmark
+	public void flatmapCursorLoop( Blackhole bh ) {
+		flatmapLoop( bh );
+	}
+
+	@Benchmark
+	public void flatmapCursorStream( Blackhole bh ) {
+		flatmapStream( bh );
+	}
+
+	@Benchmark
+	public void flatmapCursableKnit( Blackhole bh ) {
+		try ( BasicRook rook = new BasicRook( ) ) {
+			drain( KnittingCursor.wrap( data ).flatmapCursable( rook,
+					x -> KnittingCursable.wrap( pairs[x] ) ), bh );
+		}
+	}
+
+	@Benchmark
+	public void flatmapCursableLoop( Blackhole bh ) {
+		flatmapLoop( bh );
+	}
+
+	@Benchmark
+	public void flatmapCursableStream( Blackhole bh ) {
+		flatmapStream( bh );
+	}
+
+	@Benchmark
+	public void flatmapIteratorKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).flatmapIterator( x -> lists[x].iterator( ) ),
+				bh );
+	}
+
+	@Benchmark
+	public void flatmapIteratorLoop( Blackhole bh ) {
+		flatmapLoop( bh );
+	}
+
+	@Benchmark
+	public void flatmapIteratorStream( Blackhole bh ) {
+		flatmapStream( bh );
+	}
+
+	@Benchmark
+	public void flatmapStreamKnit( Blackhole bh ) {
+		try ( BasicRook rook = new BasicRook( ) ) {
+			drain( KnittingCursor.wrap( data ).flatmapStream( rook,
+					( r, x ) -> Arrays.stream( pairs[x] ) ), bh );
+		}
+	}
+
+	@Benchmark
+	public void flatmapStreamLoop( Blackhole bh ) {
+		flatmapLoop( bh );
+	}
+
+	@Benchmark
+	public void flatmapStreamStream( Blackhole bh ) {
+		flatmapStream( bh );
+	}
+
+	private void flatmapLoop( Blackhole bh ) {
+		for ( Integer x : data ) {
+			for ( Integer y : pairs[x] ) {
+				bh.consume( y );
+			}
+		}
+	}
+
+	private void flatmapStream( Blackhole bh ) {
+		Arrays.stream( data ).flatMap( x -> Arrays.stream( pairs[x] ) )
+				.forEach( bh::consume );
+	}
+
+	/*
+	 * The purl benchmarks below drop consecutive repetitions, like
+	 * purlOptional, returning a container with zero or one element.
+	 */
+	private static final Integer[] none = new Integer[0];
+
+	@Benchmark
+	public void purlArrayKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).purlArray( new ArrayPurl<Integer, Integer>( ) {
+
+			private Integer previous = null;
+
+			@Override
+			public Integer[] next( Integer input ) {
+				if ( input.equals( previous ) ) {
+					return none;
+				}
+				previous = input;
+				return new Integer[] { input };
+			}
+
+			@Override
+			public Integer[] end( ) {
+				return none;
+			}
+		} ), bh );
+	}
+
+	@Benchmark
+	public void purlArrayLoop( Blackhole bh ) {
+		purlLoop( bh );
+	}
+
+	@Benchmark
+	public void purlArrayStream( Blackhole bh ) {
+		purlStream( bh );
+	}
+
+	@Benchmark
+	public void purlCursorKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data ).purlCursor( new CursorPurl<Integer, Integer>( ) {
+
+			private Integer previous = null;
+
+			@Override
+			public Cursor<Integer> next( Integer input ) {
+				if ( input.equals( previous ) ) {
+					return KnittingCursor.empty( );
+				}
+				previous = input;
+				return KnittingCursor.on( input );
+			}
+
+			@Override
+			public Cursor<Integer> end( ) {
+				return KnittingCursor.empty( );
+			}
+		} ), bh );
+	}
+
+	@Benchmark
+	public void purlCursorLoop( Blackhole bh ) {
+		purlLoop( bh );
+	}
+
+	@Benchmark
+	public void purlCursorStream( Blackhole bh ) {
+		purlStream( bh );
+	}
+
+	@Benchmark
+	public void purlIterableKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data )
+				.purlIterable( new IterablePurl<Integer, Integer>( ) {
+
+					private Integer previous = null;
+
+					@Override
+					public Iterable<Integer> next( Integer input ) {
+						if ( input.equals( previous ) ) {
+							return Collections.emptyList( );
+						}
+						previous = input;
+						return Collections.singletonList( input );
+					}
+
+					@Override
+					public Iterable<Integer> end( ) {
+						return Collections.emptyList( );
+					}
+				} ), bh );
+	}
+
+	@Benchmark
+	public void purlIterableLoop( Blackhole bh ) {
+		purlLoop( bh );
+	}
+
+	@Benchmark
+	public void purlIterableStream( Blackhole bh ) {
+		purlStream( bh );
+	}
+
+	@Benchmark
+	public void purlIteratorKnit( Blackhole bh ) {
+		drain( KnittingCursor.wrap( data )
+				.purlIterator( new IteratorPurl<Integer, Integer>( ) {
+
+					private Integer previous = null;
+
+					@Override
+					public Iterator<Integer> next( Integer input ) {
+						if ( input.equals( previous ) ) {
+							return Collections.emptyIterator( );
+						}
+						previous = input;
+						return Collections.singletonList( input ).iterator( );
+					}
+
+					@Override
+					public Iterator<Integer> end( ) {
+						return Collections.emptyIterator( );
+					}
+				} ), bh );
+	}
+
+	@Benchmark
+	public void purlIteratorLoop( Blackhole bh ) {
+		purlLoop( bh );
+	}
+
+	@Benchmark
+	public void purlIteratorStream( Blackhole bh ) {
+		purlStream( bh );
+	}
+
+	@Benchmark
+	public void purlStreamKnit( Blackhole bh ) {
+		try ( BasicRook rook = new BasicRook( ) ) {
+			drain( KnittingCursor.wrap( data ).purlStream( rook,
+					new StreamRingPurl<Integer, Integer>( ) {
+
+						private Integer previous = null;
+
+						@Override
+						public Stream<Integer> next( Rook rook, Integer input ) {
+							if ( input.equals( previous ) ) {
+								return Stream.empty( );
+							}
+							previous = input;
+							return Stream.of( input );
+						}
+
+						@Override
+						public Stream<Integer> end( Rook rook ) {
+							return Stream.empty( );
+						}
+					} ), bh );
+		}
+	}
+
+	@Benchmark
+	public void purlStreamLoop( Blackhole bh ) {
+		purlLoop( bh );
+	}
+
+	@Benchmark
+	public void purlStreamStream( Blackhole bh ) {
+		purlStream( bh );
+	}
+
+	private void purlLoop( Blackhole bh ) {
+		Integer previous = null;
+		for ( Integer x : data ) {
+			if ( !x.equals( previous ) ) {
+				previous = x;
+				bh.consume( x );
+			}
+		}
+	}
+
+	private void purlStream( Blackhole bh ) {
+		OptionalPurl<Integer, Integer> squeeze = squeeze( );
+		Arrays.stream( data ).map( squeeze::next ).filter( Optional::isPresent )
+				.map( Optional::get ).forEach( bh::consume );
+	}
+
+	/*
+	 * The cursable benchmarks run the same operators through
+	 * KnittingCursable, pulling one cursor per invocation. Their baselines are
+	 * the loop and stream benchmarks of the corresponding cursor operator.
+	 */
+	private static <K> void drain( KnittingCursable<K> cursable, Blackhole bh ) {
+		cursable.consume( rook -> bh::consume );
+	}
+
+	@Benchmark
+	public void mapCursableKnit( Blackhole bh ) {
+		drain( KnittingCursable.wrap( data ).map( x -> x + 1 ), bh );
+	}
+
+	@Benchmark
+	public void filterCursableKnit( Blackhole bh ) {
+		drain( KnittingCursable.wrap( data ).filter( x -> x % 3 == 0 ), bh );
+	}
+
+	@Benchmark
+	public void flatmapCursorCursableKnit( Blackhole bh ) {
+		drain( KnittingCursable.wrap( data )
+				.flatmapCursor( x -> KnittingCursor.wrap( pairs[x] ) ), bh );
+	}
+
+	@Benchmark
+	public void flatmapCursableCursableKnit( Blackhole bh ) {
+		drain( KnittingCursable.wrap( data )
+				.flatmapCursable( x -> KnittingCursable.wrap( pairs[x] ) ), bh );
+	}
+
+	@Benchmark
+	public void flatmapIteratorCursableKnit( Blackhole bh ) {
+		drain( KnittingCursable.wrap( data )
+				.flatmapIterator( x -> lists[x].iterator( ) ), bh );
+	}
+
+	@Benchmark
+	public void flatmapStreamCursableKnit( Blackhole bh ) {
+		drain( KnittingCursable.wrap( data )
+				.flatmapStream( ( r, x ) -> Arrays.stream( pairs[x] ) ), bh );
+	}
+
+	@Benchmark
+	public void purlOptionalCursableKnit( Blackhole bh ) {
+		drain( KnittingCursable.wrap( data )
+				.purlOptional( TransformationBenchmark::squeeze ), bh );
+	}
+}
@@ -0,0 +1,282 @@
+/**
+ *
+ * Copyright 2018 Marco Trevisan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.github.evenjn.knit.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.github.evenjn.knit.KnittingCursor;
+import org.github.evenjn.knit.KnittingTuple;
+import org.github.evenjn.knit.TuplePattern;
+import org.github.evenjn.knit.TuplePatternSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the view operators {@code append}, {@code reverse},
+ * {@code subTuple}, {@code findSubtuple} and {@code parallelFindAll} of
+ * {@link org.github.evenjn.knit.KnittingTuple KnittingTuple} against a
+ * hand-written loop and against {@link java.util.stream.Stream Stream}.
+ *
+ * The {@code phrases} benchmarks count the occurrences of many short phrases
+ * in a tuple of random tokens, with one
+ * {@link org.github.evenjn.knit.TuplePatternSet TuplePatternSet} pass
+ * against one {@link org.github.evenjn.knit.TuplePattern TuplePattern} pass
+ * per phrase.
+ *
+ * The view benchmarks build the view and then visit every slot with
+ * {@code get(int)}, so that they measure random access through the view.
+ *
+ * The stream benchmarks sum the tuple through {@code asStream()} and
+ * {@code asParallelStream()}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TupleBenchmark {
+
+	private static final int pattern_size = 8;
+
+	private static final int phrase_count = 200;
+
+	private static final int vocabulary = 100;
+
+	@Param({ "100", "10000", "1000000" })
+	public int size;
+
+	private Integer[] data;
+
+	private Integer[] other;
+
+	/*
+	 * A haystack made of runs of six zeros separated by ones, ending with a run
+	 * of zeros as long as the pattern. The pattern is found only at the very end,
+	 * after many partial matches.
+	 */
+	private Integer[] haystack;
+
+	private Integer[] pattern;
+
+	private Integer[] tokens;
+
+	private ArrayList<KnittingTuple<Integer>> phrases;
+
+	private TuplePatternSet<Integer> phrase_set;
+
+	@Setup
+	public void setup( ) {
+		data = new Integer[size];
+		other = new Integer[size];
+		haystack = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			data[i] = i % 1000;
+			other[i] = ( i * 31 ) % 1000;
+			haystack[i] = ( i % 7 == 6 ) ? 1 : 0;
+		}
+		for ( int i = size - pattern_size; i < size; i++ ) {
+			haystack[i] = 0;
+		}
+		pattern = new Integer[pattern_size];
+		Arrays.fill( pattern, 0 );
+		Random random = new Random( 1 );
+		tokens = new Integer[size];
+		for ( int i = 0; i < size; i++ ) {
+			tokens[i] = random.nextInt( vocabulary );
+		}
+		phrases = new ArrayList<>( );
+		for ( int p = 0; p < phrase_count; p++ ) {
+			Integer[] phrase = new Integer[2 + random.nextInt( 3 )];
+			for ( int i = 0; i < phrase.length; i++ ) {
+				phrase[i] = random.nextInt( vocabulary );
+			}
+			phrases.add( KnittingTuple.wrap( phrase ) );
+		}
+		phrase_set = TuplePatternSet.compile( phrases );
+	}
+
+	private static void visit( KnittingTuple<Integer> tuple, Blackhole bh ) {
+		final int size = tuple.size( );
+		for ( int i = 0; i < size; i++ ) {
+			bh.consume( tuple.get( i ) );
+		}
+	}
+
+	@Benchmark
+	public void appendKnit( Blackhole bh ) {
+		visit( KnittingTuple.wrap( data ).append( KnittingTuple.wrap( other ) ),
+				bh );
+	}
+
+	@Benchmark
+	public void appendLoop( Blackhole bh ) {
+		for ( Integer x : data ) {
+			bh.consume( x );
+		}
+		for ( Integer x : other ) {
+			bh.consume( x );
+		}
+	}
+
+	@Benchmark
+	public void appendStream( Blackhole bh ) {
+		Stream.concat( Arrays.stream( data ), Arrays.stream( other ) )
+				.forEach( bh::consume );
+	}
+
+	@Benchmark
+	public void reverseKnit( Blackhole bh ) {
+		visit( KnittingTuple.wrap( data ).reverse( ), bh );
+	}
+
+	@Benchmark
+	public void reverseLoop( Blackhole bh ) {
+		for ( int i = data.length - 1; i >= 0; i-- ) {
+			bh.consume( data[i] );
+		}
+	}
+
+	@Benchmark
+	public void reverseStream( Blackhole bh ) {
+		IntStream.range( 0, data.length ).mapToObj( i -> data[size - 1 - i] )
+				.forEach( bh::consume );
+	}
+
+	@Benchmark
+	public void subTupleKnit( Blackhole bh ) {
+		visit( KnittingTuple.wrap( data ).subTuple( size / 4, size - size / 4 ),
+				bh );
+	}
+
+	@Benchmark
+	public void subTupleLoop( Blackhole bh ) {
+		for ( int i = size / 4; i < size - size / 4; i++ ) {
+			bh.consume( data[i] );
+		}
+	}
+
+	@Benchmark
+	public void subTupleStream( Blackhole bh ) {
+		Arrays.stream( data, size / 4, size - size / 4 ).forEach( bh::consume );
+	}
+
+	@Benchmark
+	public Object findSubtupleKnit( ) {
+		return KnittingTuple.wrap( haystack )
+				.findSubtuple( KnittingTuple.wrap( pattern ), 0 );
+	}
+
+	@Benchmark
+	public int findSubtupleLoop( ) {
+		int limit = haystack.length - pattern.length;
+		for ( int i = 0; i <= limit; i++ ) {
+			int j = 0;
+			while ( j < pattern.length && haystack[i + j].equals( pattern[j] ) ) {
+				j++;
+			}
+			if ( j == pattern.length ) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Benchmark
+	public OptionalInt findSubtupleStream( ) {
+		return IntStream.rangeClosed( 0, haystack.length - pattern.length )
+				.filter( i -> IntStream.range( 0, pattern.length )
+						.allMatch( j -> haystack[i + j].equals( pattern[j] ) ) )
+				.findFirst( );
+	}
+
+	@Benchmark
+	public int findAllKnit( ) {
+		return TuplePattern.compile( KnittingTuple.wrap( pattern ) )
+				.findAll( KnittingTuple.wrap( haystack ) ).count( );
+	}
+
+	@Benchmark
+	public int parallelFindAllKnit( ) {
+		return KnittingTuple.wrap( haystack )
+				.parallelFindAll( KnittingTuple.wrap( pattern ) ).count( );
+	}
+
+	@Benchmark
+	public int findAllLoop( ) {
+		int count = 0;
+		int limit = haystack.length - pattern.length;
+		for ( int i = 0; i <= limit; i++ ) {
+			int j = 0;
+			while ( j < pattern.length && haystack[i + j].equals( pattern[j] ) ) {
+				j++;
+			}
+			if ( j == pattern.length ) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int phrasesPatternSetKnit( ) {
+		return KnittingCursor.wrap( tokens ).match( phrase_set ).count( );
+	}
+
+	@Benchmark
+	public int phrasesPatternEachKnit( ) {
+		KnittingTuple<Integer> tuple = KnittingTuple.wrap( tokens );
+		int count = 0;
+		for ( KnittingTuple<Integer> phrase : phrases ) {
+			count += TuplePattern.compile( phrase ).findAll( tuple ).count( );
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long streamKnit( ) {
+		return KnittingTuple.wrap( data ).asStream( ).mapToLong( x -> x ).sum( );
+	}
+
+	@Benchmark
+	public long parallelStreamKnit( ) {
+		return KnittingTuple.wrap( data ).asParallelStream( ).mapToLong( x -> x )
+				.sum( );
+	}
+
+	@Benchmark
+	public long streamStream( ) {
+		return Arrays.stream( data ).mapToLong( x -> x ).sum( );
+	}
+}